@@ -17,6 +17,18 @@ public class AppRoleAuthentication implements VaultAuthenticator {
      */
     @Override
     public String authenticate(Vault vault) throws Exception {
+        return login(vault).token();
+    }
+
+    /**
+     * Logs in with the app role id and secret id defined in the VaultConfig.
+     *
+     * @param vault VaultConfig containing the app role id and the secret id
+     * @return the Vault token and its lease
+     * @throws IllegalArgumentException if the app role id is missing or empty
+     */
+    @Override
+    public VaultToken login(Vault vault) throws Exception {
         String roleId = vault.getConfig().getAppRoleId();
         if (roleId == null || roleId.isEmpty()) {
             throw new IllegalArgumentException("AppRole authentication requires role_id");
@@ -25,11 +37,7 @@ public class AppRoleAuthentication implements VaultAuthenticator {
 
         LogicalResponse logicalResponse = vault.logical().login(roleId, secretId);
 
-        String token = logicalResponse.getData().get(CLIENT_TOKEN);
-        if (token == null || token.isEmpty()) {
-            throw new IllegalArgumentException("Failed to login");
-        }
-        return token;
+        return VaultToken.from(logicalResponse);
     }
 
 
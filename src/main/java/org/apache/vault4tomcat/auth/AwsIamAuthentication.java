@@ -1,5 +1,8 @@
 package org.apache.vault4tomcat.auth;
 
+import org.apache.vault4tomcat.auth.aws.AwsCredentials;
+import org.apache.vault4tomcat.auth.aws.AwsCredentialsProvider;
+import org.apache.vault4tomcat.auth.aws.AwsCredentialsProviderChain;
 import org.apache.vault4tomcat.config.VaultConfig;
 import org.apache.vault4tomcat.vault.Vault;
 import org.apache.vault4tomcat.vault.response.LogicalResponse;
@@ -10,10 +13,14 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * VaultAuthenticator implementation for <a href="https://developer.hashicorp.com/vault/docs/auth/aws#iam-authentication-inferences">AWS IAM authentication</a>.
@@ -29,6 +36,40 @@ public class AwsIamAuthentication implements VaultAuthenticator {
     private static final String stsActionBody = "Action=GetCallerIdentity&Version=2011-06-15";
 
     private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    private static final DateTimeFormatter AMZ_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter DATE_STAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // Mac and MessageDigest are not thread-safe but expensive to look up, keep one per thread
+    private static final ThreadLocal<Mac> MAC = threadConfined(HMAC_SHA256, () -> Mac.getInstance(HMAC_SHA256));
+    private static final ThreadLocal<MessageDigest> SHA256 = threadConfined("SHA-256", () -> MessageDigest.getInstance("SHA-256"));
+    private static final Map<SigningScope, byte[]> SIGNING_KEYS = new ConcurrentHashMap<>();
+
+    // The signed request is always the same GetCallerIdentity call
+    private static final String STS_ACTION_BODY_HASH = calculateHash(stsActionBody);
+    private static final String STS_ACTION_BODY_LENGTH = String.valueOf(stsActionBody.length());
+
+    private volatile AwsCredentialsProvider credentialsProvider;
+    // The chain created on first use, which refreshes temporary credentials until closed
+    private AwsCredentialsProviderChain defaultChain;
+
+    /**
+     * Creates an authenticator that looks up the AWS credentials through
+     * {@link AwsCredentialsProviderChain#fromConfig(VaultConfig)} on first use.
+     */
+    public AwsIamAuthentication() {
+    }
+
+    /**
+     * @param credentialsProvider the source of the AWS credentials the login request is signed with
+     */
+    public AwsIamAuthentication(AwsCredentialsProvider credentialsProvider) {
+        this.credentialsProvider = credentialsProvider;
+    }
 
     /**
      * Makes an API call to fetch client token using app role id and secret id defined in the VaultConfig.
@@ -39,140 +80,206 @@ public class AwsIamAuthentication implements VaultAuthenticator {
      */
     @Override
     public String authenticate(Vault vault) throws Exception {
+        return login(vault).token();
+    }
+
+    /**
+     * Logs in with a signed AWS STS GetCallerIdentity request. The request is signed with the
+     * credentials of the VaultConfig, or else of the environment, the shared credentials file or the
+     * instance metadata service.
+     *
+     * @param vault VaultConfig containing the AWS role and credentials
+     * @return the Vault token and its lease
+     * @throws IllegalArgumentException if the role is missing or empty
+     */
+    @Override
+    public VaultToken login(Vault vault) throws Exception {
         VaultConfig config = vault.getConfig();
         String role = config.getAwsRole();
         if (role == null || role.isEmpty()) {
             throw new IllegalArgumentException("AWS authentication requires a role name");
         }
 
-        String headerJson = createHeaderJsonForPostRequest(config, config.getAwsService(), config.getAwsRegion(), config.getAwsEndpoint());
+        AwsCredentials credentials = credentialsProvider(config).getCredentials();
+        if (credentials == null) {
+            throw new IllegalArgumentException("AWS authentication requires AWS credentials");
+        }
+        String headerJson = createHeaderJsonForPostRequest(credentials, config.getAwsHeaderValue(),
+                config.getAwsService(), config.getAwsRegion(), config.getAwsEndpoint(), Instant.now());
 
         String urlB64 = Base64.getEncoder().encodeToString(stsEndpoint.getBytes(StandardCharsets.UTF_8));
         String bodyB64 = Base64.getEncoder().encodeToString(stsActionBody.getBytes(StandardCharsets.UTF_8));
         String headersB64 = Base64.getEncoder().encodeToString(headerJson.getBytes(StandardCharsets.UTF_8));
         LogicalResponse logicalResponse = vault.logical().login(role, urlB64, bodyB64, headersB64);
 
-        String token = logicalResponse.getData().get(CLIENT_TOKEN);
-        if (token == null || token.isEmpty()) {
-            throw new IllegalArgumentException("Failed to login");
-        }
-        return token;
+        return VaultToken.from(logicalResponse);
     }
 
-    private String createHeaderJsonForPostRequest(VaultConfig config, String service, String region, String requestUrl) throws URISyntaxException {
-        URI uri = new URI(requestUrl);
+    private AwsCredentialsProvider credentialsProvider(VaultConfig config) {
+        AwsCredentialsProvider provider = credentialsProvider;
+        if (provider == null) {
+            synchronized (this) {
+                provider = credentialsProvider;
+                if (provider == null) {
+                    defaultChain = AwsCredentialsProviderChain.fromConfig(config);
+                    provider = defaultChain;
+                    credentialsProvider = provider;
+                }
+            }
+        }
+        return provider;
+    }
 
-        Date now = new Date();
+    /**
+     * Stops the background refresh of the credentials looked up on first use. A provider given to the
+     * constructor is left to its owner.
+     */
+    @Override
+    public synchronized void close() {
+        if (defaultChain != null) {
+            defaultChain.close();
+        }
+    }
 
-        DateFormat dfm = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
-        dfm.setTimeZone(TimeZone.getTimeZone("UTC"));
-        String amzDate = dfm.format(now);
+    String createHeaderJsonForPostRequest(AwsCredentials credentials, String iamServerId, String service, String region,
+                                          String requestUrl, Instant now) throws URISyntaxException {
+        URI uri = new URI(requestUrl);
 
-        DateFormat dfm1 = new SimpleDateFormat("yyyyMMdd");
-        dfm1.setTimeZone(TimeZone.getTimeZone("UTC"));
-        String datestamp = dfm1.format(now);
+        String amzDate = AMZ_DATE_FORMAT.format(now);
+        String datestamp = DATE_STAMP_FORMAT.format(now);
 
-        String payloadHash = calculateHash(stsActionBody);
-        Map<String, String> headers = new HashMap<>();
-        headers.put("x-amz-content-sha256", payloadHash);
+        // Sorted the way the headers are signed and sent
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.put("x-amz-content-sha256", STS_ACTION_BODY_HASH);
 
-        headers.put("Content-Length", String.valueOf(stsActionBody.length()));
+        headers.put("Content-Length", STS_ACTION_BODY_LENGTH);
         headers.put("Content-Type", "application/x-www-form-urlencoded; charset=utf-8");
 
-        String sessionToken = config.getAwsSessionToken();
+        String sessionToken = credentials.sessionToken();
         if (sessionToken != null && !sessionToken.isEmpty()) {
             headers.put("x-amz-security-token", sessionToken);
         }
 
         headers.put("X-Amz-Date", amzDate);
 
-        String iamServerId = config.getAwsHeaderValue();
         if (iamServerId != null && !iamServerId.isEmpty()) {
             headers.put("X-Vault-AWS-IAM-Server-Id", iamServerId);
         }
 
         headers.put("host", uri.getHost());
 
-        String authorizationHeader = getAuthorizationHeader(config, service, region, uri.getPath(), amzDate, datestamp, headers, payloadHash);
+        String authorizationHeader = getAuthorizationHeader(credentials, service, region, uri.getPath(), amzDate, datestamp, headers);
         headers.put("Authorization", authorizationHeader);
 
-        return headers.entrySet().stream()
-                .filter(map -> !map.getKey().equals("host"))
-                .sorted(Map.Entry.comparingByKey(String.CASE_INSENSITIVE_ORDER))
-                .map(e -> String.format("\"%s\" : [ \"%s\" ]",
-                        e.getKey(),
-                        e.getValue()))
-                .collect(Collectors.joining(", ", "{ ", " }"));
+        StringBuilder json = new StringBuilder(1024).append("{ ");
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equals("host")) {
+                continue;
+            }
+            if (json.length() > 2) {
+                json.append(", ");
+            }
+            json.append('"').append(header.getKey()).append("\" : [ \"").append(header.getValue()).append("\" ]");
+        }
+        return json.append(" }").toString();
     }
 
-    private String getAuthorizationHeader(VaultConfig config, String service, String region, String uriPath, String amzDate, String datestamp,
-                                          Map<String, String> headers, String payloadHash) {
-
-        // Create the canonical request
-        String canonicalHeaders = headers.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey(String.CASE_INSENSITIVE_ORDER))
-                .map(entry -> entry.getKey().toLowerCase() + ":" + entry.getValue().trim() + "\n")
-                .collect(Collectors.joining());
-        String signedHeaders = headers.keySet().stream()
-                .map(String::toLowerCase)
-                .sorted()
-                .collect(Collectors.joining(";"));
-
-        String canonicalRequest = "POST" + "\n" + uriPath + "\n\n" +
-                canonicalHeaders + "\n" + signedHeaders + "\n" + payloadHash;
+    private String getAuthorizationHeader(AwsCredentials credentials, String service, String region, String uriPath, String amzDate, String datestamp,
+                                          Map<String, String> headers) {
+
+        // Create the canonical request, the headers are already sorted case-insensitively
+        StringBuilder canonicalRequest = new StringBuilder(512)
+                .append("POST").append('\n').append(uriPath).append("\n\n");
+        StringBuilder signedHeaders = new StringBuilder(128);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            canonicalRequest.append(name).append(':').append(header.getValue().trim()).append('\n');
+            if (!signedHeaders.isEmpty()) {
+                signedHeaders.append(';');
+            }
+            signedHeaders.append(name);
+        }
+        canonicalRequest.append('\n').append(signedHeaders).append('\n').append(STS_ACTION_BODY_HASH);
 
         // Create the string to sign
         String credentialScope = datestamp + "/" + region + "/" + service + "/aws4_request";
-        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + credentialScope + "\n" + calculateHash(canonicalRequest);
+        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + credentialScope + "\n" + calculateHash(canonicalRequest.toString());
 
         // Calculate the signature
-        byte[] signingKey = getSignatureKey(config.getAwsSecretKey(), datestamp, region, service);
-        String signature = calculateHmacHex(signingKey, stringToSign);
+        byte[] signingKey = getSignatureKey(credentials.secretAccessKey(), datestamp, region, service);
+        String signature = bytesToHex(hmacSHA256(signingKey, stringToSign));
 
         // Create the authorization header
-        return ALGORITHM + " Credential=" + config.getAwsAccessKey() + "/" + credentialScope +
+        return ALGORITHM + " Credential=" + credentials.accessKeyId() + "/" + credentialScope +
                 ", SignedHeaders=" + signedHeaders + ", Signature=" + signature;
     }
 
-    private byte[] getSignatureKey(String key, String dateStamp, String regionName, String serviceName) {
-        byte[] kSecret = ("AWS4" + key).getBytes(StandardCharsets.UTF_8);
-        byte[] kDate = hmacSHA256(kSecret, dateStamp);
-        byte[] kRegion = hmacSHA256(kDate, regionName);
-        byte[] kService = hmacSHA256(kRegion, serviceName);
-        return hmacSHA256(kService, "aws4_request");
-    }
-
-    private String calculateHmacHex(byte[] key, String data) {
-        byte[] hmac = hmacSHA256(key, data);
-        return bytesToHex(hmac);
+    /**
+     * Returns the SigV4 signing key for the given scope. Deriving it takes four HMAC rounds, and it
+     * only changes with the date, so it is cached per (secret key, date, region, service).
+     */
+    static byte[] getSignatureKey(String key, String dateStamp, String regionName, String serviceName) {
+        SigningScope scope = new SigningScope(key, dateStamp, regionName, serviceName);
+        byte[] signingKey = SIGNING_KEYS.get(scope);
+        if (signingKey == null) {
+            byte[] kSecret = ("AWS4" + key).getBytes(StandardCharsets.UTF_8);
+            byte[] kDate = hmacSHA256(kSecret, dateStamp);
+            byte[] kRegion = hmacSHA256(kDate, regionName);
+            byte[] kService = hmacSHA256(kRegion, serviceName);
+            signingKey = hmacSHA256(kService, "aws4_request");
+            // Keys of previous days are never used again
+            SIGNING_KEYS.keySet().removeIf(cached -> !cached.dateStamp().equals(dateStamp));
+            SIGNING_KEYS.put(scope, signingKey);
+        }
+        return signingKey;
     }
 
-    private byte[] hmacSHA256(byte[] key, String data) {
+    private static byte[] hmacSHA256(byte[] key, String data) {
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            Mac mac = MAC.get();
+            mac.init(new SecretKeySpec(key, HMAC_SHA256));
             return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
         } catch (Exception e) {
             throw new RuntimeException("Failed to calculate HMAC-SHA256", e);
         }
     }
 
-    private String calculateHash(String data) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(data.getBytes(StandardCharsets.UTF_8));
-            return bytesToHex(hash);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to calculate SHA-256 hash", e);
+    private static String calculateHash(String data) {
+        MessageDigest digest = SHA256.get();
+        return bytesToHex(digest.digest(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    static String bytesToHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0f];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0f];
         }
+        return new String(hex);
     }
 
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder result = new StringBuilder();
-        for (byte b : bytes) {
-            result.append(String.format("%02x", b));
+    private static <T> ThreadLocal<T> threadConfined(String algorithm, ThrowingSupplier<T> factory) {
+        return ThreadLocal.withInitial(() -> {
+            try {
+                return factory.get();
+            } catch (Exception e) {
+                throw new IllegalStateException(algorithm + " is not available", e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface ThrowingSupplier<T> {
+        T get() throws Exception;
+    }
+
+    private record SigningScope(String key, String dateStamp, String region, String service) {
+
+        @Override
+        public String toString() {
+            // Never expose the secret access key in logs
+            return "SigningScope[dateStamp=" + dateStamp + ", region=" + region + ", service=" + service + "]";
         }
-        return result.toString();
     }
 
 }
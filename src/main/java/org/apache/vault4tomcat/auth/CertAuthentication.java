@@ -0,0 +1,42 @@
+package org.apache.vault4tomcat.auth;
+
+import org.apache.vault4tomcat.config.VaultConfig;
+import org.apache.vault4tomcat.vault.Vault;
+import org.apache.vault4tomcat.vault.response.LogicalResponse;
+
+/**
+ * VaultAuthenticator implementation for <a href="https://developer.hashicorp.com/vault/docs/auth/cert">TLS certificate authentication</a>.
+ * <p>
+ * The client certificate comes from the key store configured for the shared HTTP client, so the login
+ * runs over the same pooled mutual TLS connections as the reads that follow.
+ */
+public class CertAuthentication implements VaultAuthenticator {
+
+    public static final String DEFAULT_MOUNT = "cert";
+
+    @Override
+    public String authenticate(Vault vault) throws Exception {
+        return login(vault).token();
+    }
+
+    /**
+     * Logs in with the client certificate of the key store defined in the VaultConfig.
+     *
+     * @param vault VaultConfig containing the key store and, optionally, the certificate role name
+     * @return the Vault token and its lease
+     * @throws IllegalArgumentException if no key store is configured
+     */
+    @Override
+    public VaultToken login(Vault vault) throws Exception {
+        VaultConfig config = vault.getConfig();
+        String keyStore = config.getSslKeyStore();
+        if (keyStore == null || keyStore.isEmpty()) {
+            throw new IllegalArgumentException("Certificate authentication requires a client key store (" +
+                    VaultConfig.SSL_KEYSTORE + ")");
+        }
+
+        LogicalResponse logicalResponse = vault.logical().certLogin(config.getCertMount(), config.getCertName());
+
+        return VaultToken.from(logicalResponse);
+    }
+}
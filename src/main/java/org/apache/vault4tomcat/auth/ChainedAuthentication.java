@@ -0,0 +1,236 @@
+package org.apache.vault4tomcat.auth;
+
+import org.apache.vault4tomcat.vault.Vault;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * VaultAuthenticator that tries several auth methods, e.g. AWS IAM with an AppRole fallback.
+ * <p>
+ * In sequence mode the methods are tried in order, each with its own deadline, so a method that hangs
+ * only delays the next one by that deadline. In race mode all methods are started at once and the
+ * first valid token wins. The winning method is logged and available from {@link #getLastMethod()},
+ * along with the methods that failed or were too slow, so that operators can fix them.
+ * <p>
+ * A method that misses its deadline or loses the race is interrupted. Since a blocking login may not
+ * react to the interruption, a token it still returns afterwards is revoked with revoke-self rather
+ * than left valid and unused.
+ */
+public class ChainedAuthentication implements VaultAuthenticator {
+
+    private static final Logger logger = Logger.getLogger(ChainedAuthentication.class.getCanonicalName());
+
+    /**
+     * An auth method of the chain.
+     *
+     * @param name          the name of the method as configured, e.g. "awsiam"
+     * @param authenticator the authenticator implementing the method
+     */
+    public record Method(String name, VaultAuthenticator authenticator) {
+    }
+
+    private final List<Method> methods;
+    private final boolean race;
+    private final Duration timeout;
+    private volatile String lastMethod;
+
+    /**
+     * @param methods the auth methods, in order of preference
+     * @param race    whether to start all methods at once instead of one after the other
+     * @param timeout the deadline of each method
+     */
+    public ChainedAuthentication(List<Method> methods, boolean race, Duration timeout) {
+        if (methods.isEmpty()) {
+            throw new IllegalArgumentException("An auth method chain requires at least one method");
+        }
+        this.methods = List.copyOf(methods);
+        this.race = race;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String authenticate(Vault vault) throws Exception {
+        return login(vault).token();
+    }
+
+    /**
+     * Logs in with the first method of the chain that returns a valid token.
+     *
+     * @param vault Vault configuration (with the credentials of every method)
+     * @return the Vault token and its lease
+     * @throws Exception if every method fails or misses its deadline
+     */
+    @Override
+    public VaultToken login(Vault vault) throws Exception {
+        return race ? race(vault) : sequence(vault);
+    }
+
+    /**
+     * Closes the authenticators of every method.
+     */
+    @Override
+    public void close() {
+        for (Method method : methods) {
+            method.authenticator().close();
+        }
+    }
+
+    /**
+     * @return the methods of the chain, in order of preference
+     */
+    public List<Method> getMethods() {
+        return methods;
+    }
+
+    /**
+     * @return the name of the method the last successful login was made with, or null
+     */
+    public String getLastMethod() {
+        return lastMethod;
+    }
+
+    private VaultToken sequence(Vault vault) throws Exception {
+        long start = System.nanoTime();
+        List<Exception> failures = new ArrayList<>();
+        for (Method method : methods) {
+            Attempt attempt = attempt(method, vault);
+            try {
+                return won(method, attempt.result().get(timeout.toMillis(), TimeUnit.MILLISECONDS), start, failures);
+            } catch (TimeoutException e) {
+                abandon(attempt, vault);
+                failures.add(new Exception(method.name() + " timed out after " + timeout.toMillis() + "ms"));
+            } catch (ExecutionException e) {
+                failures.add(failure(method, e.getCause()));
+            }
+        }
+        throw allFailed(failures);
+    }
+
+    private VaultToken race(Vault vault) throws Exception {
+        long start = System.nanoTime();
+        CompletableFuture<Win> winner = new CompletableFuture<>();
+        List<Exception> failures = new ArrayList<>();
+        AtomicInteger pending = new AtomicInteger(methods.size());
+        List<Attempt> attempts = new ArrayList<>();
+        for (Method method : methods) {
+            Attempt attempt = attempt(method, vault);
+            attempts.add(attempt);
+            attempt.result().whenComplete((token, e) -> {
+                if (e == null) {
+                    winner.complete(new Win(attempt, token));
+                } else {
+                    synchronized (failures) {
+                        failures.add(failure(method, e));
+                    }
+                    if (pending.decrementAndGet() == 0) {
+                        winner.completeExceptionally(allFailed(failures));
+                    }
+                }
+            });
+        }
+        Attempt used = null;
+        try {
+            Win win = winner.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            synchronized (failures) {
+                used = win.attempt();
+                return won(win.attempt().method(), win.token(), start, new ArrayList<>(failures));
+            }
+        } catch (TimeoutException e) {
+            synchronized (failures) {
+                failures.add(new Exception("no method succeeded within " + timeout.toMillis() + "ms"));
+                throw allFailed(failures);
+            }
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        } finally {
+            // Every token but the one returned is revoked, including a win that arrived after the deadline
+            for (Attempt attempt : attempts) {
+                if (attempt != used) {
+                    abandon(attempt, vault);
+                }
+            }
+        }
+    }
+
+    private Attempt attempt(Method method, Vault vault) {
+        CompletableFuture<VaultToken> attempt = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                VaultToken token = method.authenticator().login(vault);
+                if (token == null || token.token() == null || token.token().isEmpty()) {
+                    throw new Exception("no token returned");
+                }
+                attempt.complete(token);
+            } catch (Throwable e) {
+                attempt.completeExceptionally(e);
+            }
+        }, "vault4tomcat-auth-" + method.name());
+        thread.setDaemon(true);
+        thread.start();
+        return new Attempt(method, attempt, thread);
+    }
+
+    /**
+     * Interrupts an attempt whose result is not used, and revokes the token it returns if it still
+     * succeeds.
+     */
+    private static void abandon(Attempt attempt, Vault vault) {
+        attempt.thread().interrupt();
+        attempt.result().whenComplete((token, e) -> {
+            if (token != null) {
+                revoke(attempt.method(), token, vault);
+            }
+        });
+    }
+
+    private static void revoke(Method method, VaultToken token, Vault vault) {
+        try {
+            vault.logical().revokeSelf(token.token());
+            logger.info("Revoked the unused Vault token obtained with " + method.name());
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Failed to revoke the unused Vault token obtained with " + method.name() +
+                    ": " + e.getMessage());
+        }
+    }
+
+    private VaultToken won(Method method, VaultToken token, long start, List<Exception> failures) {
+        lastMethod = method.name();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (failures.isEmpty()) {
+            logger.info("Authenticated to Vault with " + method.name() + " in " + elapsed + "ms");
+        } else {
+            logger.warning("Authenticated to Vault with " + method.name() + " in " + elapsed +
+                    "ms, after failed methods: " + describe(failures));
+        }
+        return token;
+    }
+
+    private static Exception failure(Method method, Throwable cause) {
+        return new Exception(method.name() + " failed: " + cause.getMessage(), cause);
+    }
+
+    private static Exception allFailed(List<Exception> failures) {
+        Exception exception = new Exception("All Vault auth methods failed: " + describe(failures));
+        failures.forEach(exception::addSuppressed);
+        return exception;
+    }
+
+    private static String describe(List<Exception> failures) {
+        return String.join(", ", failures.stream().map(Exception::getMessage).toList());
+    }
+
+    private record Attempt(Method method, CompletableFuture<VaultToken> result, Thread thread) {
+    }
+
+    private record Win(Attempt attempt, VaultToken token) {
+    }
+}
@@ -0,0 +1,74 @@
+package org.apache.vault4tomcat.auth;
+
+import org.apache.vault4tomcat.config.VaultConfig;
+import org.apache.vault4tomcat.vault.Vault;
+import org.apache.vault4tomcat.vault.response.LogicalResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * VaultAuthenticator implementation for <a href="https://developer.hashicorp.com/vault/docs/auth/jwt">JWT authentication</a>.
+ * <p>
+ * The JWT is read from a file on every login, so that a token rotated by its issuer is picked up. The
+ * file can be watched with {@link #getTokenFile(VaultConfig)} to log in again as soon as it changes.
+ */
+public class JwtAuthentication implements VaultAuthenticator {
+
+    public static final String DEFAULT_MOUNT = "jwt";
+
+    @Override
+    public String authenticate(Vault vault) throws Exception {
+        return login(vault).token();
+    }
+
+    /**
+     * Logs in with the JWT read from the token file defined in the VaultConfig.
+     *
+     * @param vault VaultConfig containing the role, mount path and token file
+     * @return the Vault token and its lease
+     * @throws IllegalArgumentException if the role or the token file is missing, or the file is empty
+     */
+    @Override
+    public VaultToken login(Vault vault) throws Exception {
+        VaultConfig config = vault.getConfig();
+        String role = getRole(config);
+        if (role == null || role.isEmpty()) {
+            throw new IllegalArgumentException(getMethodName() + " authentication requires a role name");
+        }
+        Path tokenFile = getTokenFile(config);
+        if (tokenFile == null) {
+            throw new IllegalArgumentException(getMethodName() + " authentication requires a token file");
+        }
+        String jwt = Files.readString(tokenFile, StandardCharsets.UTF_8).trim();
+        if (jwt.isEmpty()) {
+            throw new IllegalArgumentException("The token file " + tokenFile + " is empty");
+        }
+
+        LogicalResponse logicalResponse = vault.logical().jwtLogin(getMount(config), role, jwt);
+
+        return VaultToken.from(logicalResponse);
+    }
+
+    /**
+     * @param config the Vault configuration
+     * @return the file the JWT is read from, or null if none is configured
+     */
+    public Path getTokenFile(VaultConfig config) {
+        String tokenFile = config.getJwtTokenFile();
+        return tokenFile != null && !tokenFile.isEmpty() ? Path.of(tokenFile) : null;
+    }
+
+    protected String getRole(VaultConfig config) {
+        return config.getJwtRole();
+    }
+
+    protected String getMount(VaultConfig config) {
+        return config.getJwtMount();
+    }
+
+    protected String getMethodName() {
+        return "JWT";
+    }
+}
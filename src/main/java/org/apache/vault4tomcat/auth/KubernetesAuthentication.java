@@ -0,0 +1,37 @@
+package org.apache.vault4tomcat.auth;
+
+import org.apache.vault4tomcat.config.VaultConfig;
+
+import java.nio.file.Path;
+
+/**
+ * VaultAuthenticator implementation for <a href="https://developer.hashicorp.com/vault/docs/auth/kubernetes">Kubernetes authentication</a>.
+ * <p>
+ * Logs in with the projected service account token of the pod, which the kubelet rotates in place.
+ */
+public class KubernetesAuthentication extends JwtAuthentication {
+
+    public static final String DEFAULT_MOUNT = "kubernetes";
+    public static final String DEFAULT_TOKEN_FILE = "/var/run/secrets/kubernetes.io/serviceaccount/token";
+
+    @Override
+    public Path getTokenFile(VaultConfig config) {
+        String tokenFile = config.getKubernetesTokenFile();
+        return Path.of(tokenFile != null && !tokenFile.isEmpty() ? tokenFile : DEFAULT_TOKEN_FILE);
+    }
+
+    @Override
+    protected String getRole(VaultConfig config) {
+        return config.getKubernetesRole();
+    }
+
+    @Override
+    protected String getMount(VaultConfig config) {
+        return config.getKubernetesMount();
+    }
+
+    @Override
+    protected String getMethodName() {
+        return "Kubernetes";
+    }
+}
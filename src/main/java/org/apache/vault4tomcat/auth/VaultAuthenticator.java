@@ -6,7 +6,7 @@ import org.apache.vault4tomcat.vault.Vault;
  * Interface for authentication strategies used to obtain a Vault token.
  * Each authentication method should implement this interface.
  */
-public interface VaultAuthenticator {
+public interface VaultAuthenticator extends AutoCloseable {
 
     String CLIENT_TOKEN = "client_token";
 
@@ -17,4 +17,26 @@ public interface VaultAuthenticator {
      * @throws Exception if authentication fails (e.g., network or credentials error).
      */
     String authenticate(Vault vault) throws Exception;
+
+    /**
+     * Authenticate to Vault and return a client token along with its lease, so that its lifecycle
+     * (renewal, re-login before expiry) can be managed.
+     * <p>
+     * The default implementation wraps {@link #authenticate(Vault)} in a token without lease
+     * information; methods that log in through Vault should return the lease of the login response.
+     * @param vault Vault configuration (with necessary credentials for auth).
+     * @return The Vault client token and its lease.
+     * @throws Exception if authentication fails (e.g., network or credentials error).
+     */
+    default VaultToken login(Vault vault) throws Exception {
+        return VaultToken.of(authenticate(vault));
+    }
+
+    /**
+     * Releases the resources of this authenticator, e.g. a thread refreshing its credentials. Called
+     * when the client using it is closed; the default implementation does nothing.
+     */
+    @Override
+    default void close() {
+    }
 }
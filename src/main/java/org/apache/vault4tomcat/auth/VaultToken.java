@@ -0,0 +1,85 @@
+package org.apache.vault4tomcat.auth;
+
+import org.apache.vault4tomcat.vault.response.LogicalResponse;
+
+import java.util.Map;
+
+/**
+ * A Vault client token together with the lease information returned when it was issued or renewed.
+ *
+ * @param token                the client token
+ * @param leaseDurationSeconds the number of seconds the token is valid for, or 0 if it never expires
+ *                             or its lease is unknown
+ * @param renewable            whether the lease of the token can be extended with renew-self
+ * @param batch                whether this is a batch token, which is never renewed and has to be
+ *                             replaced by a new login before it expires
+ */
+public record VaultToken(String token, long leaseDurationSeconds, boolean renewable, boolean batch) {
+
+    static final String LEASE_DURATION = "lease_duration";
+    static final String RENEWABLE = "renewable";
+    static final String TOKEN_TYPE = "token_type";
+
+    /**
+     * Creates a service token, or a batch token if the token itself says so.
+     *
+     * @param token                the client token
+     * @param leaseDurationSeconds the number of seconds the token is valid for, or 0
+     * @param renewable            whether the lease of the token can be extended with renew-self
+     */
+    public VaultToken(String token, long leaseDurationSeconds, boolean renewable) {
+        this(token, leaseDurationSeconds, renewable, isBatchToken(token));
+    }
+
+    /**
+     * Creates a token with an unknown lease, e.g. a static token from the configuration.
+     *
+     * @param token the client token
+     * @return a non-renewable token without lease information
+     */
+    public static VaultToken of(String token) {
+        return new VaultToken(token, 0, false);
+    }
+
+    /**
+     * Tells batch tokens from service tokens by their prefix ("hvb." since Vault 1.10, "b." before).
+     *
+     * @param token the client token
+     * @return whether the token is a batch token
+     */
+    public static boolean isBatchToken(String token) {
+        return token != null && (token.startsWith("hvb.") || token.startsWith("b."));
+    }
+
+    /**
+     * Reads the token and its lease from the "auth" block of a login or renew-self response.
+     *
+     * @param response the parsed login or renew-self response
+     * @return the token and its lease
+     * @throws IllegalArgumentException if the response does not contain a client token
+     */
+    public static VaultToken from(LogicalResponse response) {
+        Map<String, String> auth = response.getData();
+        String token = auth.get(VaultAuthenticator.CLIENT_TOKEN);
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Failed to login");
+        }
+        long leaseDuration = 0;
+        try {
+            String lease = auth.get(LEASE_DURATION);
+            leaseDuration = lease != null ? Long.parseLong(lease) : 0;
+        } catch (NumberFormatException ignored) {
+        }
+        String tokenType = auth.get(TOKEN_TYPE);
+        boolean batch = tokenType != null ? tokenType.equals("batch") : isBatchToken(token);
+        // Batch tokens cannot be renewed, whatever the response says
+        return new VaultToken(token, leaseDuration, !batch && Boolean.parseBoolean(auth.get(RENEWABLE)), batch);
+    }
+
+    @Override
+    public String toString() {
+        // Never expose the token itself in logs
+        return "VaultToken[leaseDurationSeconds=" + leaseDurationSeconds + ", renewable=" + renewable +
+                ", batch=" + batch + "]";
+    }
+}
@@ -0,0 +1,28 @@
+package org.apache.vault4tomcat.auth.aws;
+
+import java.time.Instant;
+
+/**
+ * AWS credentials used to sign the STS GetCallerIdentity request of the AWS IAM login.
+ *
+ * @param accessKeyId     the access key id
+ * @param secretAccessKey the secret access key
+ * @param sessionToken    the session token of temporary credentials, or null
+ * @param expiration      when temporary credentials expire, or null for long-term credentials
+ */
+public record AwsCredentials(String accessKeyId, String secretAccessKey, String sessionToken, Instant expiration) {
+
+    /**
+     * @param now the current time
+     * @return whether these credentials have expired at the given time
+     */
+    public boolean isExpired(Instant now) {
+        return expiration != null && !now.isBefore(expiration);
+    }
+
+    @Override
+    public String toString() {
+        // Never expose the secrets in logs
+        return "AwsCredentials[accessKeyId=" + accessKeyId + ", expiration=" + expiration + "]";
+    }
+}
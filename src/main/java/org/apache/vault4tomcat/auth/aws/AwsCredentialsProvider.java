@@ -0,0 +1,16 @@
+package org.apache.vault4tomcat.auth.aws;
+
+/**
+ * A source of AWS credentials, e.g. the environment or the instance metadata service.
+ */
+@FunctionalInterface
+public interface AwsCredentialsProvider {
+
+    /**
+     * Looks up credentials from this source.
+     *
+     * @return the credentials, or null if this source does not provide any
+     * @throws Exception if this source provides credentials but they cannot be retrieved
+     */
+    AwsCredentials getCredentials() throws Exception;
+}
@@ -0,0 +1,183 @@
+package org.apache.vault4tomcat.auth.aws;
+
+import org.apache.vault4tomcat.config.VaultConfig;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Looks up AWS credentials from a chain of providers, the first one that provides credentials wins.
+ * <p>
+ * Temporary credentials (those with an expiration) are cached and refreshed in the background
+ * {@value #REFRESH_AHEAD_SECONDS}s before they expire, or halfway through their remaining lifetime if
+ * that is sooner, so that a login never waits for a credential fetch. If a refresh fails, the cached
+ * credentials are kept until they expire and the refresh is retried. Long-term credentials are looked
+ * up again on every call, which is cheap for the environment and profile providers.
+ */
+public class AwsCredentialsProviderChain implements AwsCredentialsProvider, AutoCloseable {
+
+    static final long REFRESH_AHEAD_SECONDS = 300;
+    static final long RETRY_DELAY_SECONDS = 30;
+
+    private static final Logger logger = Logger.getLogger(AwsCredentialsProviderChain.class.getCanonicalName());
+
+    private final List<AwsCredentialsProvider> providers;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+    private volatile AwsCredentials cached;
+    private ScheduledFuture<?> scheduled;
+    private long scheduledRefreshSeconds = -1;
+
+    public AwsCredentialsProviderChain(List<AwsCredentialsProvider> providers) {
+        this(providers, Clock.systemUTC());
+    }
+
+    //ONLY FOR TESTING PURPOSES
+    AwsCredentialsProviderChain(List<AwsCredentialsProvider> providers, Clock clock) {
+        this.providers = List.copyOf(providers);
+        this.clock = clock;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "vault4tomcat-aws-credentials");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates the default chain: the static credentials of the VaultConfig, the environment, the shared
+     * credentials file and the instance metadata service, in this order.
+     *
+     * @param config the Vault configuration
+     * @return the provider chain
+     */
+    public static AwsCredentialsProviderChain fromConfig(VaultConfig config) {
+        List<AwsCredentialsProvider> providers = new ArrayList<>();
+        providers.add(() -> {
+            String accessKey = config.getAwsAccessKey();
+            String secretKey = config.getAwsSecretKey();
+            if (accessKey == null || accessKey.isEmpty() || secretKey == null || secretKey.isEmpty()) {
+                return null;
+            }
+            String sessionToken = config.getAwsSessionToken();
+            return new AwsCredentials(accessKey, secretKey,
+                    sessionToken != null && !sessionToken.isEmpty() ? sessionToken : null, null);
+        });
+        providers.add(new EnvironmentAwsCredentialsProvider());
+        String file = config.getAwsCredentialsFile();
+        String profile = config.getAwsProfile();
+        providers.add(new ProfileAwsCredentialsProvider(
+                file != null && !file.isEmpty() ? Path.of(file) : ProfileAwsCredentialsProvider.defaultFile(),
+                profile != null && !profile.isEmpty() ? profile : ProfileAwsCredentialsProvider.defaultProfile()));
+        String endpoint = config.getAwsMetadataEndpoint();
+        providers.add(new InstanceMetadataAwsCredentialsProvider(
+                endpoint != null && !endpoint.isEmpty() ? endpoint : InstanceMetadataAwsCredentialsProvider.defaultEndpoint()));
+        return new AwsCredentialsProviderChain(providers);
+    }
+
+    /**
+     * @return the cached credentials if they are still valid, otherwise credentials looked up from the
+     * providers
+     * @throws Exception if no provider provides credentials
+     */
+    @Override
+    public AwsCredentials getCredentials() throws Exception {
+        AwsCredentials credentials = cached;
+        if (credentials != null && !credentials.isExpired(clock.instant())) {
+            return credentials;
+        }
+        return load();
+    }
+
+    private synchronized AwsCredentials load() throws Exception {
+        AwsCredentials credentials = cached;
+        if (credentials != null && !credentials.isExpired(clock.instant())) {
+            return credentials;
+        }
+        credentials = lookup();
+        cache(credentials);
+        return credentials;
+    }
+
+    synchronized void refresh() {
+        try {
+            cache(lookup());
+        } catch (Exception e) {
+            AwsCredentials current = cached;
+            if (current != null && !current.isExpired(clock.instant().plusSeconds(RETRY_DELAY_SECONDS))) {
+                logger.log(Level.WARNING, "Failed to refresh the AWS credentials, retrying in " +
+                        RETRY_DELAY_SECONDS + "s: " + e.getMessage());
+                scheduleRefresh(RETRY_DELAY_SECONDS);
+            } else {
+                logger.log(Level.WARNING, "Failed to refresh the AWS credentials: " + e.getMessage());
+                cancelRefresh();
+            }
+        }
+    }
+
+    private AwsCredentials lookup() throws Exception {
+        List<String> failures = new ArrayList<>();
+        for (AwsCredentialsProvider provider : providers) {
+            try {
+                AwsCredentials credentials = provider.getCredentials();
+                if (credentials != null) {
+                    return credentials;
+                }
+            } catch (Exception e) {
+                failures.add(provider.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        throw new Exception("No AWS credentials found" + (failures.isEmpty() ? "" : " (" + String.join(", ", failures) + ")"));
+    }
+
+    private void cache(AwsCredentials credentials) {
+        if (credentials.expiration() == null) {
+            cached = null;
+            cancelRefresh();
+            return;
+        }
+        cached = credentials;
+        long remaining = Duration.between(clock.instant(), credentials.expiration()).toSeconds();
+        long delay = remaining > 2 * REFRESH_AHEAD_SECONDS ? remaining - REFRESH_AHEAD_SECONDS : remaining / 2;
+        scheduleRefresh(Math.max(1, delay));
+    }
+
+    private void scheduleRefresh(long delaySeconds) {
+        cancelRefresh();
+        if (!scheduler.isShutdown()) {
+            scheduled = scheduler.schedule(this::refresh, delaySeconds, TimeUnit.SECONDS);
+            scheduledRefreshSeconds = delaySeconds;
+        }
+    }
+
+    private void cancelRefresh() {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        scheduledRefreshSeconds = -1;
+    }
+
+    /**
+     * @return the delay in seconds of the last scheduled refresh, or -1 if none is scheduled
+     */
+    synchronized long scheduledRefreshSeconds() {
+        return scheduledRefreshSeconds;
+    }
+
+    /**
+     * Stops the background refresh.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package org.apache.vault4tomcat.auth.aws;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Reads credentials from the standard AWS_ACCESS_KEY_ID, AWS_SECRET_ACCESS_KEY and AWS_SESSION_TOKEN
+ * environment variables.
+ */
+public class EnvironmentAwsCredentialsProvider implements AwsCredentialsProvider {
+
+    private final UnaryOperator<String> environment;
+
+    public EnvironmentAwsCredentialsProvider() {
+        this(System::getenv);
+    }
+
+    //ONLY FOR TESTING PURPOSES
+    EnvironmentAwsCredentialsProvider(UnaryOperator<String> environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public AwsCredentials getCredentials() {
+        String accessKeyId = environment.apply("AWS_ACCESS_KEY_ID");
+        String secretAccessKey = environment.apply("AWS_SECRET_ACCESS_KEY");
+        if (accessKeyId == null || accessKeyId.isEmpty() || secretAccessKey == null || secretAccessKey.isEmpty()) {
+            return null;
+        }
+        String sessionToken = environment.apply("AWS_SESSION_TOKEN");
+        return new AwsCredentials(accessKeyId, secretAccessKey,
+                sessionToken != null && !sessionToken.isEmpty() ? sessionToken : null, null);
+    }
+}
@@ -0,0 +1,78 @@
+package org.apache.vault4tomcat.auth.aws;
+
+import org.apache.vault4tomcat.vault.json.Json;
+import org.apache.vault4tomcat.vault.json.JsonObject;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Retrieves the temporary credentials of the instance profile role from the EC2 instance metadata
+ * service, using IMDSv2 session tokens.
+ * <p>
+ * The endpoint can be changed (AWS_EC2_METADATA_SERVICE_ENDPOINT or vault.auth.aws.metadata_endpoint),
+ * e.g. to point to a local stand-in.
+ */
+public class InstanceMetadataAwsCredentialsProvider implements AwsCredentialsProvider {
+
+    public static final String DEFAULT_ENDPOINT = "http://169.254.169.254";
+
+    private static final String TOKEN_PATH = "/latest/api/token";
+    private static final String CREDENTIALS_PATH = "/latest/meta-data/iam/security-credentials/";
+    private static final String TOKEN_TTL_SECONDS = "21600";
+    // The service answers within milliseconds where it exists, do not hang where it does not
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private final String endpoint;
+    private final HttpClient client;
+
+    /**
+     * @param endpoint the base URL of the instance metadata service
+     */
+    public InstanceMetadataAwsCredentialsProvider(String endpoint) {
+        this.endpoint = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        this.client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    }
+
+    /**
+     * @return the endpoint named by AWS_EC2_METADATA_SERVICE_ENDPOINT, or the link-local default
+     */
+    public static String defaultEndpoint() {
+        String endpoint = System.getenv("AWS_EC2_METADATA_SERVICE_ENDPOINT");
+        return endpoint != null && !endpoint.isEmpty() ? endpoint : DEFAULT_ENDPOINT;
+    }
+
+    @Override
+    public AwsCredentials getCredentials() throws IOException, InterruptedException {
+        String token = send(HttpRequest.newBuilder(URI.create(endpoint + TOKEN_PATH))
+                .header("X-aws-ec2-metadata-token-ttl-seconds", TOKEN_TTL_SECONDS)
+                .PUT(HttpRequest.BodyPublishers.noBody()));
+        String role = send(HttpRequest.newBuilder(URI.create(endpoint + CREDENTIALS_PATH))
+                .header("X-aws-ec2-metadata-token", token)).lines().findFirst().orElse("").trim();
+        if (role.isEmpty()) {
+            throw new IOException("No IAM role is attached to the instance");
+        }
+        JsonObject credentials = Json.parse(send(HttpRequest.newBuilder(URI.create(endpoint + CREDENTIALS_PATH + role))
+                .header("X-aws-ec2-metadata-token", token))).asObject();
+
+        String expiration = credentials.getString("Expiration", null);
+        return new AwsCredentials(credentials.getString("AccessKeyId", null),
+                credentials.getString("SecretAccessKey", null),
+                credentials.getString("Token", null),
+                expiration != null ? Instant.parse(expiration) : null);
+    }
+
+    private String send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Instance metadata request " + response.uri().getPath() +
+                    " failed with status code: " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,80 @@
+package org.apache.vault4tomcat.auth.aws;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads credentials of a profile from a shared credentials file (~/.aws/credentials by default).
+ * <p>
+ * The file is read again on every lookup, so credentials rotated by an external process are picked up.
+ */
+public class ProfileAwsCredentialsProvider implements AwsCredentialsProvider {
+
+    public static final String DEFAULT_PROFILE = "default";
+
+    private final Path file;
+    private final String profile;
+
+    /**
+     * @param file    the shared credentials file
+     * @param profile the profile to read
+     */
+    public ProfileAwsCredentialsProvider(Path file, String profile) {
+        this.file = file;
+        this.profile = profile;
+    }
+
+    /**
+     * @return the shared credentials file named by AWS_SHARED_CREDENTIALS_FILE, or ~/.aws/credentials
+     */
+    public static Path defaultFile() {
+        String file = System.getenv("AWS_SHARED_CREDENTIALS_FILE");
+        return file != null && !file.isEmpty() ? Path.of(file) : Path.of(System.getProperty("user.home"), ".aws", "credentials");
+    }
+
+    /**
+     * @return the profile named by AWS_PROFILE, or "default"
+     */
+    public static String defaultProfile() {
+        String profile = System.getenv("AWS_PROFILE");
+        return profile != null && !profile.isEmpty() ? profile : DEFAULT_PROFILE;
+    }
+
+    @Override
+    public AwsCredentials getCredentials() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Map<String, String> properties = readProfile();
+        String accessKeyId = properties.get("aws_access_key_id");
+        String secretAccessKey = properties.get("aws_secret_access_key");
+        if (accessKeyId == null || secretAccessKey == null) {
+            return null;
+        }
+        return new AwsCredentials(accessKeyId, secretAccessKey, properties.get("aws_session_token"), null);
+    }
+
+    private Map<String, String> readProfile() throws IOException {
+        Map<String, String> properties = new HashMap<>();
+        boolean inProfile = false;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith(";")) {
+                continue;
+            }
+            if (line.startsWith("[") && line.endsWith("]")) {
+                inProfile = line.substring(1, line.length() - 1).trim().equals(profile);
+                continue;
+            }
+            int equals = line.indexOf('=');
+            if (inProfile && equals > 0) {
+                properties.put(line.substring(0, equals).trim().toLowerCase(), line.substring(equals + 1).trim());
+            }
+        }
+        return properties;
+    }
+}
@@ -1,11 +1,26 @@
 package org.apache.vault4tomcat.config;
 
 import org.apache.vault4tomcat.auth.AwsIamAuthentication;
+import org.apache.vault4tomcat.auth.CertAuthentication;
+import org.apache.vault4tomcat.auth.JwtAuthentication;
+import org.apache.vault4tomcat.auth.KubernetesAuthentication;
 import org.apache.vault4tomcat.vault.VaultException;
 
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.net.http.HttpClient;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -23,6 +38,9 @@ public class VaultConfig implements Serializable {
     public static final String VAULT_ADDR = "vault.address";
     public static final String VAULT_TOKEN = "vault.token";
     public static final String AUTH_METHOD = "vault.auth.method";
+    public static final String AUTH_TOKEN_TYPE = "vault.auth.token_type";
+    public static final String AUTH_CHAIN = "vault.auth.chain";
+    public static final String AUTH_METHOD_TIMEOUT = "vault.auth.method_timeout";
     // AppRole
     public static final String APPROLE_ROLE_ID = "vault.auth.approle.role_id";
     public static final String APPROLE_SECRET_ID = "vault.auth.approle.secret_id";
@@ -35,10 +53,42 @@ public class VaultConfig implements Serializable {
     public static final String AWS_REGION = "vault.auth.aws.region";
     public static final String AWS_ENDPOINT = "vault.auth.aws.endpoint";
     public static final String AWS_SERVICE = "vault.auth.aws.service";
+    public static final String AWS_PROFILE = "vault.auth.aws.profile";
+    public static final String AWS_CREDENTIALS_FILE = "vault.auth.aws.credentials_file";
+    public static final String AWS_METADATA_ENDPOINT = "vault.auth.aws.metadata_endpoint";
+    // Certificate
+    public static final String CERT_NAME = "vault.auth.cert.name";
+    public static final String CERT_MOUNT = "vault.auth.cert.mount";
+    // JWT
+    public static final String JWT_ROLE = "vault.auth.jwt.role";
+    public static final String JWT_MOUNT = "vault.auth.jwt.mount";
+    public static final String JWT_TOKEN_FILE = "vault.auth.jwt.token_file";
+    // Kubernetes
+    public static final String KUBERNETES_ROLE = "vault.auth.kubernetes.role";
+    public static final String KUBERNETES_MOUNT = "vault.auth.kubernetes.mount";
+    public static final String KUBERNETES_TOKEN_FILE = "vault.auth.kubernetes.token_file";
+    // TLS
+    public static final String SSL_KEYSTORE = "vault.ssl.keystore";
+    public static final String SSL_KEYSTORE_PASSWORD = "vault.ssl.keystore_password";
+    public static final String SSL_KEYSTORE_TYPE = "vault.ssl.keystore_type";
+    public static final String SSL_TRUSTSTORE = "vault.ssl.truststore";
+    public static final String SSL_TRUSTSTORE_PASSWORD = "vault.ssl.truststore_password";
+    // Cache
+    public static final String CACHE_REFRESH_INTERVAL = "vault.cache.refresh_interval";
+    public static final String CACHE_REFRESH_MIN_INTERVAL = "vault.cache.refresh_min_interval";
+    public static final String CACHE_REFRESH_MAX_INTERVAL = "vault.cache.refresh_max_interval";
+    public static final String CACHE_PREFETCH = "vault.cache.prefetch";
+    // Token sink
+    public static final String TOKEN_SINK = "vault.token.sink";
+    public static final String TOKEN_SINK_KEY = "vault.token.sink_key";
 
     private final String address;
     private String authMethod;
-    private String token;
+    private String authTokenType;
+    private String authChain = "sequence";
+    private long authMethodTimeout = 10;
+    // Replaced by the token lifecycle management while requests are running
+    private volatile String token;
 
     private String appRoleId;
     private String appRoleSecretId;
@@ -51,6 +101,20 @@ public class VaultConfig implements Serializable {
     private String awsRegion;
     private String awsService;
     private String awsEndpoint;
+    private String awsProfile;
+    private String awsCredentialsFile;
+    private String awsMetadataEndpoint;
+
+    private String certName;
+    private String certMount = CertAuthentication.DEFAULT_MOUNT;
+
+    private String jwtRole;
+    private String jwtMount = JwtAuthentication.DEFAULT_MOUNT;
+    private String jwtTokenFile;
+
+    private String kubernetesRole;
+    private String kubernetesMount = KubernetesAuthentication.DEFAULT_MOUNT;
+    private String kubernetesTokenFile = KubernetesAuthentication.DEFAULT_TOKEN_FILE;
 
     private String nameSpace;
 
@@ -58,6 +122,22 @@ public class VaultConfig implements Serializable {
     private int readTimeout = 30;
 
     private boolean sslVerify = true;
+    private String sslKeyStore;
+    private String sslKeyStorePassword;
+    private String sslKeyStoreType = "PKCS12";
+    private String sslTrustStore;
+    private String sslTrustStorePassword;
+
+    private long cacheRefreshInterval = 0;
+    private long cacheRefreshMinInterval = 0;
+    private long cacheRefreshMaxInterval = 0;
+    private String[] cachePrefetch = new String[0];
+
+    private String tokenSink;
+    private String tokenSinkKey;
+
+    // Shared by all requests made with this configuration so that connections are pooled
+    private transient volatile HttpClient httpClient;
 
     public VaultConfig(final String filePath) throws Exception {
         Properties props = new Properties();
@@ -72,6 +152,9 @@ public class VaultConfig implements Serializable {
         if ((env = System.getenv("VAULT_ADDR")) != null) props.setProperty(VAULT_ADDR, env);
         if ((env = System.getenv("VAULT_TOKEN")) != null) props.setProperty(VAULT_TOKEN, env);
         if ((env = System.getenv("VAULT_AUTH_METHOD")) != null) props.setProperty(AUTH_METHOD, env);
+        if ((env = System.getenv("VAULT_AUTH_TOKEN_TYPE")) != null) props.setProperty(AUTH_TOKEN_TYPE, env);
+        if ((env = System.getenv("VAULT_AUTH_CHAIN")) != null) props.setProperty(AUTH_CHAIN, env);
+        if ((env = System.getenv("VAULT_AUTH_METHOD_TIMEOUT")) != null) props.setProperty(AUTH_METHOD_TIMEOUT, env);
         if ((env = System.getenv("VAULT_AUTH_APPROLE_ROLE_ID")) != null) props.setProperty(APPROLE_ROLE_ID, env);
         if ((env = System.getenv("VAULT_AUTH_APPROLE_SECRET_ID")) != null) props.setProperty(APPROLE_SECRET_ID, env);
         if ((env = System.getenv("VAULT_AUTH_AWS_ROLE")) != null) props.setProperty(AWS_ROLE, env);
@@ -82,6 +165,28 @@ public class VaultConfig implements Serializable {
         if ((env = System.getenv("VAULT_AUTH_AWS_REGION")) != null) props.setProperty(AWS_REGION, env);
         if ((env = System.getenv("VAULT_AUTH_AWS_SERVICE")) != null) props.setProperty(AWS_SERVICE, env);
         if ((env = System.getenv("VAULT_AUTH_AWS_SERVICE")) != null) props.setProperty(AWS_ENDPOINT, env);
+        if ((env = System.getenv("VAULT_AUTH_AWS_PROFILE")) != null) props.setProperty(AWS_PROFILE, env);
+        if ((env = System.getenv("VAULT_AUTH_AWS_CREDENTIALS_FILE")) != null) props.setProperty(AWS_CREDENTIALS_FILE, env);
+        if ((env = System.getenv("VAULT_AUTH_AWS_METADATA_ENDPOINT")) != null) props.setProperty(AWS_METADATA_ENDPOINT, env);
+        if ((env = System.getenv("VAULT_AUTH_CERT_NAME")) != null) props.setProperty(CERT_NAME, env);
+        if ((env = System.getenv("VAULT_AUTH_CERT_MOUNT")) != null) props.setProperty(CERT_MOUNT, env);
+        if ((env = System.getenv("VAULT_SSL_KEYSTORE")) != null) props.setProperty(SSL_KEYSTORE, env);
+        if ((env = System.getenv("VAULT_SSL_KEYSTORE_PASSWORD")) != null) props.setProperty(SSL_KEYSTORE_PASSWORD, env);
+        if ((env = System.getenv("VAULT_SSL_KEYSTORE_TYPE")) != null) props.setProperty(SSL_KEYSTORE_TYPE, env);
+        if ((env = System.getenv("VAULT_SSL_TRUSTSTORE")) != null) props.setProperty(SSL_TRUSTSTORE, env);
+        if ((env = System.getenv("VAULT_SSL_TRUSTSTORE_PASSWORD")) != null) props.setProperty(SSL_TRUSTSTORE_PASSWORD, env);
+        if ((env = System.getenv("VAULT_AUTH_JWT_ROLE")) != null) props.setProperty(JWT_ROLE, env);
+        if ((env = System.getenv("VAULT_AUTH_JWT_MOUNT")) != null) props.setProperty(JWT_MOUNT, env);
+        if ((env = System.getenv("VAULT_AUTH_JWT_TOKEN_FILE")) != null) props.setProperty(JWT_TOKEN_FILE, env);
+        if ((env = System.getenv("VAULT_AUTH_KUBERNETES_ROLE")) != null) props.setProperty(KUBERNETES_ROLE, env);
+        if ((env = System.getenv("VAULT_AUTH_KUBERNETES_MOUNT")) != null) props.setProperty(KUBERNETES_MOUNT, env);
+        if ((env = System.getenv("VAULT_AUTH_KUBERNETES_TOKEN_FILE")) != null) props.setProperty(KUBERNETES_TOKEN_FILE, env);
+        if ((env = System.getenv("VAULT_CACHE_REFRESH_INTERVAL")) != null) props.setProperty(CACHE_REFRESH_INTERVAL, env);
+        if ((env = System.getenv("VAULT_CACHE_REFRESH_MIN_INTERVAL")) != null) props.setProperty(CACHE_REFRESH_MIN_INTERVAL, env);
+        if ((env = System.getenv("VAULT_CACHE_REFRESH_MAX_INTERVAL")) != null) props.setProperty(CACHE_REFRESH_MAX_INTERVAL, env);
+        if ((env = System.getenv("VAULT_CACHE_PREFETCH")) != null) props.setProperty(CACHE_PREFETCH, env);
+        if ((env = System.getenv("VAULT_TOKEN_SINK")) != null) props.setProperty(TOKEN_SINK, env);
+        if ((env = System.getenv("VAULT_TOKEN_SINK_KEY")) != null) props.setProperty(TOKEN_SINK_KEY, env);
 
         this.address = props.getProperty(VAULT_ADDR, "http://127.0.0.1:8200");
         this.token = props.getProperty(VAULT_TOKEN);
@@ -94,6 +199,10 @@ public class VaultConfig implements Serializable {
             throw new IllegalArgumentException("Vault auth method must be specified (vault.auth.method or VAULT_AUTH_METHOD)");
         }
 
+        this.authTokenType = props.getProperty(AUTH_TOKEN_TYPE);
+        this.authChain = props.getProperty(AUTH_CHAIN, "sequence").trim();
+        this.authMethodTimeout = Long.parseLong(props.getProperty(AUTH_METHOD_TIMEOUT, "10").trim());
+
         this.appRoleId = props.getProperty(APPROLE_ROLE_ID);
         this.appRoleSecretId = props.getProperty(APPROLE_SECRET_ID);
 
@@ -105,7 +214,41 @@ public class VaultConfig implements Serializable {
         this.awsRegion = props.getProperty(AWS_REGION, AwsIamAuthentication.stsRegion);
         this.awsService = props.getProperty(AWS_SERVICE, AwsIamAuthentication.stsService);
         this.awsEndpoint = props.getProperty(AWS_ENDPOINT, AwsIamAuthentication.stsEndpoint);
+        this.awsProfile = props.getProperty(AWS_PROFILE);
+        this.awsCredentialsFile = props.getProperty(AWS_CREDENTIALS_FILE);
+        this.awsMetadataEndpoint = props.getProperty(AWS_METADATA_ENDPOINT);
+
+        this.certName = props.getProperty(CERT_NAME);
+        this.certMount = props.getProperty(CERT_MOUNT, CertAuthentication.DEFAULT_MOUNT);
+
+        this.sslKeyStore = props.getProperty(SSL_KEYSTORE);
+        this.sslKeyStorePassword = props.getProperty(SSL_KEYSTORE_PASSWORD);
+        this.sslKeyStoreType = props.getProperty(SSL_KEYSTORE_TYPE, "PKCS12");
+        this.sslTrustStore = props.getProperty(SSL_TRUSTSTORE);
+        this.sslTrustStorePassword = props.getProperty(SSL_TRUSTSTORE_PASSWORD);
+
+        this.jwtRole = props.getProperty(JWT_ROLE);
+        this.jwtMount = props.getProperty(JWT_MOUNT, JwtAuthentication.DEFAULT_MOUNT);
+        this.jwtTokenFile = props.getProperty(JWT_TOKEN_FILE);
+
+        this.kubernetesRole = props.getProperty(KUBERNETES_ROLE);
+        this.kubernetesMount = props.getProperty(KUBERNETES_MOUNT, KubernetesAuthentication.DEFAULT_MOUNT);
+        this.kubernetesTokenFile = props.getProperty(KUBERNETES_TOKEN_FILE, KubernetesAuthentication.DEFAULT_TOKEN_FILE);
+
+        this.cacheRefreshInterval = Long.parseLong(props.getProperty(CACHE_REFRESH_INTERVAL, "0").trim());
+        this.cacheRefreshMinInterval = Long.parseLong(props.getProperty(CACHE_REFRESH_MIN_INTERVAL, "0").trim());
+        this.cacheRefreshMaxInterval = Long.parseLong(props.getProperty(CACHE_REFRESH_MAX_INTERVAL, "0").trim());
+        if (cacheRefreshMinInterval > 0 && cacheRefreshMaxInterval > 0 && cacheRefreshMinInterval > cacheRefreshMaxInterval) {
+            throw new IllegalArgumentException(CACHE_REFRESH_MIN_INTERVAL + " (" + cacheRefreshMinInterval + ") must not be greater than "
+                    + CACHE_REFRESH_MAX_INTERVAL + " (" + cacheRefreshMaxInterval + ")");
+        }
+        this.cachePrefetch = Arrays.stream(props.getProperty(CACHE_PREFETCH, "").split(","))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .toArray(String[]::new);
 
+        this.tokenSink = props.getProperty(TOKEN_SINK);
+        this.tokenSinkKey = props.getProperty(TOKEN_SINK_KEY);
     }
 
     public VaultConfig(String address, String token) {
@@ -188,11 +331,241 @@ public class VaultConfig implements Serializable {
         return readTimeout;
     }
 
+    /**
+     * <p>The type of token the login is expected to return, <code>batch</code> or <code>service</code>.
+     * Vault decides the type from the <code>token_type</code> of the role, so a login returning another
+     * type is reported as a misconfiguration. Read-only workloads should use batch tokens, which are
+     * not persisted by Vault.</p>
+     *
+     * <p>Not checked when not set.</p>
+     *
+     * @param authTokenType The expected token type
+     */
+    public void setAuthTokenType(String authTokenType) { this.authTokenType = authTokenType; }
+
+    public String getAuthTokenType() { return authTokenType; }
+
+    /**
+     * <p>How the auth methods are tried when several are configured, e.g.
+     * <code>vault.auth.method=awsiam,approle</code>: <code>sequence</code> (the default) tries them in
+     * order, <code>race</code> starts them all at once and keeps the first valid token.</p>
+     *
+     * @param authChain <code>sequence</code> or <code>race</code>
+     */
+    public void setAuthChain(String authChain) { this.authChain = authChain; }
+
+    public String getAuthChain() { return authChain; }
+
+    /**
+     * <p>The number of seconds each auth method of a chain is given to return a token before the next
+     * one is tried. Defaults to 10.</p>
+     *
+     * @param authMethodTimeout Deadline of each auth method in seconds
+     */
+    public void setAuthMethodTimeout(long authMethodTimeout) { this.authMethodTimeout = authMethodTimeout; }
+
+    public long getAuthMethodTimeout() { return authMethodTimeout; }
+
     public void setSslVerify(boolean sslVerify) {
         this.sslVerify = sslVerify;
     }
     public boolean isSslVerify() { return sslVerify; }
 
+    /**
+     * <p>Key store holding the client certificate and private key presented to Vault, used by the
+     * certificate auth method. Must be set before the first request is made.</p>
+     *
+     * @param sslKeyStore Path of the key store file
+     * @param password    Password of the key store and of the key it holds
+     */
+    public void setSslKeyStore(String sslKeyStore, String password) {
+        this.sslKeyStore = sslKeyStore;
+        this.sslKeyStorePassword = password;
+    }
+
+    public String getSslKeyStore() { return sslKeyStore; }
+
+    /**
+     * @param sslKeyStoreType Type of the key store and trust store files, PKCS12 by default
+     */
+    public void setSslKeyStoreType(String sslKeyStoreType) { this.sslKeyStoreType = sslKeyStoreType; }
+
+    public String getSslKeyStoreType() { return sslKeyStoreType; }
+
+    /**
+     * <p>Trust store holding the certificates Vault's server certificate is verified against, instead
+     * of the JVM defaults. Must be set before the first request is made.</p>
+     *
+     * @param sslTrustStore Path of the trust store file
+     * @param password      Password of the trust store, may be null
+     */
+    public void setSslTrustStore(String sslTrustStore, String password) {
+        this.sslTrustStore = sslTrustStore;
+        this.sslTrustStorePassword = password;
+    }
+
+    public String getSslTrustStore() { return sslTrustStore; }
+
+    /**
+     * <p>The number of seconds between two checks for new versions of the cached secrets. Each check
+     * only polls the KV v2 metadata and re-reads the secrets whose version changed.</p>
+     *
+     * <p>A value of <code>0</code> (the default) disables refreshing, secrets are then cached for the
+     * lifetime of Tomcat.</p>
+     *
+     * @param cacheRefreshInterval Number of seconds between two refresh passes, or 0 to disable
+     */
+    public void setCacheRefreshInterval(long cacheRefreshInterval) { this.cacheRefreshInterval = cacheRefreshInterval; }
+
+    public long getCacheRefreshInterval() { return cacheRefreshInterval; }
+
+    /**
+     * <p>Lower bound, in seconds, of the per-secret refresh interval learned from the KV v2 version
+     * history. Secrets that rotate often are polled at most this often.</p>
+     *
+     * <p>Defaults to the cache refresh interval, or to the maximum interval if that is shorter.</p>
+     *
+     * @param cacheRefreshMinInterval Minimum number of seconds between two polls of a secret
+     */
+    public void setCacheRefreshMinInterval(long cacheRefreshMinInterval) { this.cacheRefreshMinInterval = cacheRefreshMinInterval; }
+
+    public long getCacheRefreshMinInterval() {
+        if (cacheRefreshMinInterval > 0) {
+            return cacheRefreshMinInterval;
+        }
+        return cacheRefreshMaxInterval > 0 ? Math.min(cacheRefreshInterval, cacheRefreshMaxInterval) : cacheRefreshInterval;
+    }
+
+    /**
+     * <p>Upper bound, in seconds, of the per-secret refresh interval learned from the KV v2 version
+     * history. Secrets that rarely or never change are polled at least this often.</p>
+     *
+     * <p>Defaults to the cache refresh interval, or to the minimum interval if that is longer.</p>
+     *
+     * @param cacheRefreshMaxInterval Maximum number of seconds between two polls of a secret
+     */
+    public void setCacheRefreshMaxInterval(long cacheRefreshMaxInterval) { this.cacheRefreshMaxInterval = cacheRefreshMaxInterval; }
+
+    public long getCacheRefreshMaxInterval() {
+        if (cacheRefreshMaxInterval > 0) {
+            return cacheRefreshMaxInterval;
+        }
+        return Math.max(cacheRefreshInterval, cacheRefreshMinInterval);
+    }
+
+    /**
+     * <p>Secret paths to fetch in the background as soon as the client has authenticated, while Tomcat
+     * is still parsing its configuration. Placeholders referring to these paths are then resolved from
+     * the cache.</p>
+     *
+     * @param cachePrefetch The Vault logical paths of the secrets to prefetch
+     */
+    public void setCachePrefetch(List<String> cachePrefetch) { this.cachePrefetch = cachePrefetch.toArray(new String[0]); }
+
+    public List<String> getCachePrefetch() { return List.of(cachePrefetch); }
+
+    /**
+     * <p>File the current token and its expiry are stored in, encrypted with the token sink key. On
+     * startup a token from this file that is still valid is reused instead of logging in again.</p>
+     *
+     * <p>Disabled when not set.</p>
+     *
+     * @param tokenSink Path of the token sink file
+     */
+    public void setTokenSink(String tokenSink) { this.tokenSink = tokenSink; }
+
+    public String getTokenSink() { return tokenSink; }
+
+    /**
+     * <p>Passphrase the token sink file is encrypted with. Required when a token sink is configured.</p>
+     *
+     * @param tokenSinkKey The passphrase protecting the token sink
+     */
+    public void setTokenSinkKey(String tokenSinkKey) { this.tokenSinkKey = tokenSinkKey; }
+
+    public String getTokenSinkKey() { return tokenSinkKey; }
+
+    /**
+     * <p>Returns the HTTP client used for all requests made with this configuration. It is created on
+     * first use and shared afterwards, so that logins and reads reuse pooled connections instead of
+     * opening a new one per request.</p>
+     *
+     * <p>When a key store or trust store is configured, the client uses an SSLContext built from them,
+     * so a certificate login and the reads that follow share the same mutual TLS connections.</p>
+     *
+     * @return the shared HTTP client
+     * @throws IllegalStateException if the key store or trust store cannot be loaded
+     */
+    public HttpClient getHttpClient() {
+        HttpClient client = httpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = httpClient;
+                if (client == null) {
+                    HttpClient.Builder builder = HttpClient.newBuilder()
+                            .connectTimeout(Duration.ofSeconds(openTimeout));
+                    if (hasText(sslKeyStore) || hasText(sslTrustStore)) {
+                        builder.sslContext(createSslContext());
+                    }
+                    client = builder.build();
+                    httpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * <p>Shuts down the shared HTTP client, if it was created, so that its selector thread and pooled
+     * connections do not outlive the Vault client. Requests in flight are completed. A later call to
+     * {@link #getHttpClient()} creates a new client.</p>
+     */
+    public synchronized void closeHttpClient() {
+        HttpClient client = httpClient;
+        if (client != null) {
+            httpClient = null;
+            client.shutdown();
+        }
+    }
+
+    private SSLContext createSslContext() {
+        try {
+            KeyManager[] keyManagers = null;
+            if (hasText(sslKeyStore)) {
+                KeyManagerFactory factory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+                factory.init(loadKeyStore(sslKeyStore, sslKeyStorePassword), password(sslKeyStorePassword));
+                keyManagers = factory.getKeyManagers();
+            }
+            TrustManager[] trustManagers = null;
+            if (hasText(sslTrustStore)) {
+                TrustManagerFactory factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+                factory.init(loadKeyStore(sslTrustStore, sslTrustStorePassword));
+                trustManagers = factory.getTrustManagers();
+            }
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(keyManagers, trustManagers, null);
+            return context;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to load the Vault TLS key store or trust store: " + e.getMessage(), e);
+        }
+    }
+
+    private KeyStore loadKeyStore(String path, String password) throws IOException, GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance(sslKeyStoreType);
+        try (InputStream is = new FileInputStream(path)) {
+            keyStore.load(is, password(password));
+        }
+        return keyStore;
+    }
+
+    private static char[] password(String password) {
+        return password != null ? password.toCharArray() : null;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+
     public String getAppRoleId() { return appRoleId; }
 
     public String getAppRoleSecretId() { return appRoleSecretId; }
@@ -214,5 +587,27 @@ public class VaultConfig implements Serializable {
     public String getAwsService() { return awsService; }
 
     public String getAwsEndpoint() { return awsEndpoint; }
+
+    public String getAwsProfile() { return awsProfile; }
+
+    public String getAwsCredentialsFile() { return awsCredentialsFile; }
+
+    public String getAwsMetadataEndpoint() { return awsMetadataEndpoint; }
+
+    public String getCertName() { return certName; }
+
+    public String getCertMount() { return certMount; }
+
+    public String getJwtRole() { return jwtRole; }
+
+    public String getJwtMount() { return jwtMount; }
+
+    public String getJwtTokenFile() { return jwtTokenFile; }
+
+    public String getKubernetesRole() { return kubernetesRole; }
+
+    public String getKubernetesMount() { return kubernetesMount; }
+
+    public String getKubernetesTokenFile() { return kubernetesTokenFile; }
 }
 
@@ -0,0 +1,168 @@
+package org.apache.vault4tomcat.core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable, array-backed map holding the key-value data of one cached secret.
+ * <p>
+ * Typical secrets have two to eight fields, for which a pair of parallel arrays is far smaller than
+ * a {@link java.util.HashMap} with its table and one node per entry, and a linear scan is as fast as
+ * hashing. Secrets with more fields keep their keys sorted and are searched with a binary search.
+ * Keys and values are expected to be deduplicated by the owning {@link SecretCache}, so the common
+ * case of a lookup by an interned field name is resolved by an identity comparison.
+ * <p>
+ * Lookups through {@link #get(Object)} and {@link #containsKey(Object)} never allocate.
+ */
+public final class CompactSecret extends AbstractMap<String, String> {
+
+    // Up to this many fields, keys are kept in insertion order and scanned linearly
+    static final int LINEAR_SCAN_LIMIT = 8;
+
+    private final String path;
+    private final int version;
+    private final String[] keys;
+    private final String[] values;
+
+    CompactSecret(String path, int version, String[] keys, String[] values) {
+        this.path = path;
+        this.version = version;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * @return the Vault logical path of the secret
+     */
+    public String path() {
+        return path;
+    }
+
+    /**
+     * @return the KV v2 version the data was read at, or 0 for the latest version
+     */
+    public int version() {
+        return version;
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    private int indexOf(Object key) {
+        if (keys.length > LINEAR_SCAN_LIMIT) {
+            if (!(key instanceof String)) {
+                return -1;
+            }
+            int index = Arrays.binarySearch(keys, (String) key);
+            return index >= 0 ? index : -1;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (index >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, String> entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    /**
+     * Copies the keys and values of the given map into a compact secret, resolving every string
+     * through the given pool.
+     */
+    static CompactSecret of(String path, int version, Map<String, String> data, StringPool pool) {
+        int size = 0;
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                size++;
+            }
+        }
+        String[] keys = new String[size];
+        String[] values = new String[size];
+        if (size > LINEAR_SCAN_LIMIT) {
+            String[] sorted = new String[size];
+            int i = 0;
+            for (Map.Entry<String, String> entry : data.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    sorted[i++] = entry.getKey();
+                }
+            }
+            Arrays.sort(sorted);
+            for (i = 0; i < size; i++) {
+                keys[i] = pool.intern(sorted[i]);
+                values[i] = pool.intern(data.get(sorted[i]));
+            }
+        } else {
+            int i = 0;
+            for (Map.Entry<String, String> entry : data.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    keys[i] = pool.intern(entry.getKey());
+                    values[i] = pool.intern(entry.getValue());
+                    i++;
+                }
+            }
+        }
+        return new CompactSecret(pool.intern(path), version, keys, values);
+    }
+
+    void internInto(StringPool pool) {
+        pool.intern(path);
+        for (int i = 0; i < keys.length; i++) {
+            pool.intern(keys[i]);
+            pool.intern(values[i]);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.apache.vault4tomcat.core;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Compact in-memory cache of secret data, keyed by (path, version).
+ * <p>
+ * The cache is a single open-addressing table of {@link CompactSecret} entries, each holding its
+ * path, version and array-backed key-value data. A (path, field) lookup is one probe sequence in the
+ * table followed by a scan of a handful of interned keys. Keys and values are deduplicated through a
+ * {@link StringPool} shared by all entries, so the "username" and "password" of twenty thousand
+ * secrets are two strings, not forty thousand.
+ * <p>
+ * Reads are lock-free and never allocate; writes are serialized. Entries are replaced in place when
+ * a secret is refreshed. Since replaced values stay in the string pool, the pool is rebuilt from the
+ * live entries whenever it has grown to twice the size it had after the previous rebuild.
+ */
+public class SecretCache {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private volatile AtomicReferenceArray<CompactSecret> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private StringPool pool = new StringPool();
+    private int poolRebuildThreshold = INITIAL_CAPACITY * 4;
+    private int size;
+
+    /**
+     * Returns the cached data of a secret.
+     *
+     * @param path    the Vault logical path of the secret
+     * @param version the pinned version, or 0 for the latest version
+     * @return the cached data, or null if the secret is not cached
+     */
+    public CompactSecret get(String path, int version) {
+        AtomicReferenceArray<CompactSecret> current = table;
+        int mask = current.length() - 1;
+        int slot = hash(path, version) & mask;
+        CompactSecret secret;
+        while ((secret = current.get(slot)) != null) {
+            if (secret.version() == version && secret.path().equals(path)) {
+                return secret;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a single cached field of a secret.
+     *
+     * @param path    the Vault logical path of the secret
+     * @param version the pinned version, or 0 for the latest version
+     * @param field   the field to look up
+     * @return the cached value, or null if the secret is not cached or has no such field
+     */
+    public String get(String path, int version, String field) {
+        CompactSecret secret = get(path, version);
+        return secret != null ? secret.get(field) : null;
+    }
+
+    /**
+     * Caches the data of a secret, replacing any data previously cached for the same path and version.
+     *
+     * @param path    the Vault logical path of the secret
+     * @param version the pinned version, or 0 for the latest version
+     * @param data    the secret key-value pairs
+     * @return the compact copy of the data that is now cached
+     */
+    public synchronized CompactSecret put(String path, int version, Map<String, String> data) {
+        CompactSecret secret = CompactSecret.of(path, version, data, pool);
+        AtomicReferenceArray<CompactSecret> current = table;
+        int mask = current.length() - 1;
+        int slot = hash(path, version) & mask;
+        CompactSecret existing;
+        while ((existing = current.get(slot)) != null) {
+            if (existing.version() == version && existing.path().equals(path)) {
+                current.set(slot, secret);
+                maybeRebuildPool();
+                return secret;
+            }
+            slot = (slot + 1) & mask;
+        }
+        current.set(slot, secret);
+        if (++size * 4 > current.length() * 3) {
+            resize();
+        }
+        maybeRebuildPool();
+        return secret;
+    }
+
+    /**
+     * @return the number of cached secrets
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of distinct strings held by the deduplication pool
+     */
+    synchronized int pooledStrings() {
+        return pool.size();
+    }
+
+    private void resize() {
+        AtomicReferenceArray<CompactSecret> old = table;
+        AtomicReferenceArray<CompactSecret> resized = new AtomicReferenceArray<>(old.length() << 1);
+        int mask = resized.length() - 1;
+        for (int i = 0; i < old.length(); i++) {
+            CompactSecret secret = old.get(i);
+            if (secret != null) {
+                int slot = hash(secret.path(), secret.version()) & mask;
+                while (resized.get(slot) != null) {
+                    slot = (slot + 1) & mask;
+                }
+                resized.set(slot, secret);
+            }
+        }
+        table = resized;
+    }
+
+    private void maybeRebuildPool() {
+        if (pool.size() <= poolRebuildThreshold) {
+            return;
+        }
+        // Drop the strings of replaced entries: only the strings of live entries are pooled again
+        StringPool rebuilt = new StringPool(pool.size());
+        AtomicReferenceArray<CompactSecret> current = table;
+        for (int i = 0; i < current.length(); i++) {
+            CompactSecret secret = current.get(i);
+            if (secret != null) {
+                secret.internInto(rebuilt);
+            }
+        }
+        pool = rebuilt;
+        poolRebuildThreshold = Math.max(INITIAL_CAPACITY * 4, rebuilt.size() * 2);
+    }
+
+    private static int hash(String path, int version) {
+        return StringPool.mix(path.hashCode() * 31 + version);
+    }
+}
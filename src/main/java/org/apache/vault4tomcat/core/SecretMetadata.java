@@ -0,0 +1,13 @@
+package org.apache.vault4tomcat.core;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * KV v2 metadata of a secret, as far as it is needed to detect and predict changes.
+ *
+ * @param currentVersion      the current version of the secret, or 0 if Vault did not report one
+ * @param versionCreatedTimes the creation times of the known versions, oldest first
+ */
+public record SecretMetadata(int currentVersion, List<Instant> versionCreatedTimes) {
+}
@@ -0,0 +1,252 @@
+package org.apache.vault4tomcat.core;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background refresher that keeps cached KV v2 secrets up to date.
+ * <p>
+ * Instead of re-reading the full data of every cached secret, each refresh pass polls the cheap
+ * {@code /metadata} endpoint of the tracked paths and compares the reported current version with the
+ * version that was cached. Only the paths whose version changed are read again and handed to the
+ * {@link Listener}. Checking a thousand paths therefore downloads only the secrets that were rotated.
+ * <p>
+ * Every path is polled at its own interval. The interval is learned from the creation times of the
+ * recent versions in the metadata: a secret that rotates hourly is polled a few times per hour, one
+ * that changes yearly is polled at the configured maximum. The time elapsed since the latest version
+ * counts as well, so a secret rotated in a burst long ago is not polled at the burst rate forever. Intervals always stay between the
+ * configured minimum and maximum; with equal bounds every path is polled at the same fixed interval.
+ * <p>
+ * Pinned versions are immutable and must not be tracked.
+ */
+public class SecretRefresher implements AutoCloseable {
+
+    /**
+     * Receives the new data of secrets whose version changed on the Vault side.
+     */
+    public interface Listener {
+        /**
+         * @param path   the Vault logical path of the secret
+         * @param secret the latest data of the secret and its version
+         */
+        void secretChanged(String path, VersionedSecret secret);
+    }
+
+    // Number of polls per expected change of a secret
+    private static final int POLLS_PER_CHANGE = 4;
+    // Number of most recent versions considered when estimating how often a secret changes
+    private static final int HISTORY_SIZE = 10;
+
+    private static final Logger logger = Logger.getLogger(SecretRefresher.class.getCanonicalName());
+
+    private final VaultClient vaultClient;
+    private final Listener listener;
+    private final long intervalSeconds;
+    private final long minIntervalSeconds;
+    private final long maxIntervalSeconds;
+    private final Clock clock;
+    private final Map<String, TrackedPath> paths = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a refresher polling every path at the same fixed interval.
+     *
+     * @param vaultClient     the client used to poll metadata and re-read changed secrets
+     * @param intervalSeconds the number of seconds between two polls of a path
+     * @param listener        callback notified of every secret whose version changed
+     */
+    public SecretRefresher(VaultClient vaultClient, long intervalSeconds, Listener listener) {
+        this(vaultClient, intervalSeconds, intervalSeconds, intervalSeconds, listener);
+    }
+
+    /**
+     * Creates a refresher learning a per-path interval between the given bounds.
+     *
+     * @param vaultClient        the client used to poll metadata and re-read changed secrets
+     * @param intervalSeconds    the interval used for a path until its version history is known
+     * @param minIntervalSeconds the shortest interval any path is polled at
+     * @param maxIntervalSeconds the longest interval any path is polled at
+     * @param listener           callback notified of every secret whose version changed
+     */
+    public SecretRefresher(VaultClient vaultClient, long intervalSeconds, long minIntervalSeconds,
+                           long maxIntervalSeconds, Listener listener) {
+        this(vaultClient, intervalSeconds, minIntervalSeconds, maxIntervalSeconds, listener, Clock.systemUTC());
+    }
+
+    //ONLY FOR TESTING PURPOSES
+    SecretRefresher(VaultClient vaultClient, long intervalSeconds, long minIntervalSeconds,
+                    long maxIntervalSeconds, Listener listener, Clock clock) {
+        if (minIntervalSeconds <= 0 || maxIntervalSeconds < minIntervalSeconds) {
+            throw new IllegalArgumentException("Refresh intervals must be positive with min <= max");
+        }
+        this.vaultClient = vaultClient;
+        this.intervalSeconds = clamp(intervalSeconds, minIntervalSeconds, maxIntervalSeconds);
+        this.minIntervalSeconds = minIntervalSeconds;
+        this.maxIntervalSeconds = maxIntervalSeconds;
+        this.listener = listener;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts tracking a path whose data has been cached at the given version.
+     *
+     * @param path    the Vault logical path of the secret
+     * @param version the version of the cached data
+     */
+    public void track(String path, int version) {
+        paths.put(path, new TrackedPath(version, intervalSeconds, System.nanoTime()));
+    }
+
+    /**
+     * @return the number of paths currently tracked
+     */
+    public int trackedPaths() {
+        return paths.size();
+    }
+
+    /**
+     * @return the refresh interval in seconds currently chosen for every tracked path
+     */
+    public Map<String, Long> refreshIntervals() {
+        Map<String, Long> intervals = new TreeMap<>();
+        paths.forEach((path, tracked) -> intervals.put(path, tracked.intervalSeconds));
+        return Collections.unmodifiableMap(intervals);
+    }
+
+    /**
+     * Schedules refresh passes on a daemon thread. Passes run at the minimum interval and only poll
+     * the paths that are due.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "vault4tomcat-secret-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshDue, minIntervalSeconds, minIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Performs one refresh pass over all tracked paths, whether they are due or not.
+     *
+     * @return the number of secrets that were re-read because their version changed
+     */
+    public int refresh() {
+        int changed = 0;
+        for (Map.Entry<String, TrackedPath> entry : paths.entrySet()) {
+            if (refresh(entry.getKey(), entry.getValue())) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Performs one refresh pass over the tracked paths whose interval has elapsed.
+     *
+     * @return the number of secrets that were re-read because their version changed
+     */
+    public int refreshDue() {
+        int changed = 0;
+        long now = System.nanoTime();
+        for (Map.Entry<String, TrackedPath> entry : paths.entrySet()) {
+            if (now - entry.getValue().nextPoll >= 0 && refresh(entry.getKey(), entry.getValue())) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private boolean refresh(String path, TrackedPath tracked) {
+        try {
+            SecretMetadata metadata = vaultClient.getSecretMetadata(path);
+            long interval = intervalFor(metadata.versionCreatedTimes(), clock.instant(), minIntervalSeconds,
+                    maxIntervalSeconds, intervalSeconds);
+            if (interval != tracked.intervalSeconds) {
+                logger.info("Refresh interval of Vault secret at path: " + path + " set to " + interval + "s");
+                tracked.intervalSeconds = interval;
+            }
+            tracked.nextPoll = System.nanoTime() + TimeUnit.SECONDS.toNanos(interval);
+            if (metadata.currentVersion() == tracked.version) {
+                return false;
+            }
+            VersionedSecret secret = vaultClient.getVersionedSecret(path);
+            tracked.version = secret.version() > 0 ? secret.version() : metadata.currentVersion();
+            listener.secretChanged(path, secret);
+            return true;
+        } catch (Exception e) {
+            // Keep serving the cached data, the next pass will try again
+            logger.log(Level.WARNING, "Failed to refresh Vault secret at path: " + path + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Derives a polling interval from the version history of a secret. The mean time between the most
+     * recent versions is taken as the expected time to the next change, and the secret is polled a few
+     * times within that period. A secret unchanged for longer than that mean is expected to stay
+     * unchanged at least as long again.
+     *
+     * @param createdTimes    creation times of the known versions, oldest first
+     * @param now             the current time
+     * @param minSeconds      lower bound of the interval
+     * @param maxSeconds      upper bound of the interval
+     * @param defaultSeconds  interval used when there is no metadata at all
+     * @return the interval in seconds
+     */
+    static long intervalFor(List<Instant> createdTimes, Instant now, long minSeconds, long maxSeconds,
+                            long defaultSeconds) {
+        if (createdTimes.isEmpty()) {
+            return defaultSeconds;
+        }
+        if (createdTimes.size() < 2) {
+            // Never changed so far, there is nothing to react quickly to
+            return maxSeconds;
+        }
+        int from = Math.max(0, createdTimes.size() - HISTORY_SIZE);
+        Instant first = createdTimes.get(from);
+        Instant last = createdTimes.get(createdTimes.size() - 1);
+        long meanGapSeconds = Duration.between(first, last).getSeconds() / (createdTimes.size() - 1 - from);
+        long expectedGapSeconds = Math.max(meanGapSeconds, Duration.between(last, now).getSeconds());
+        return clamp(expectedGapSeconds / POLLS_PER_CHANGE, minSeconds, maxSeconds);
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private static final class TrackedPath {
+
+        private volatile int version;
+        private volatile long intervalSeconds;
+        private volatile long nextPoll;
+
+        private TrackedPath(int version, long intervalSeconds, long now) {
+            this.version = version;
+            this.intervalSeconds = intervalSeconds;
+            this.nextPoll = now + TimeUnit.SECONDS.toNanos(intervalSeconds);
+        }
+    }
+}
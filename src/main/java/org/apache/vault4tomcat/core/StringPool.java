@@ -0,0 +1,78 @@
+package org.apache.vault4tomcat.core;
+
+/**
+ * Open-addressing string interner used to deduplicate the keys and values of cached secrets.
+ * <p>
+ * Field names such as "username" and "password" repeat in almost every secret, and values such as
+ * hosts or user names often repeat across paths. Resolving them through a pool keeps a single
+ * instance of each. The pool is private to its {@link SecretCache}, unlike {@link String#intern()}
+ * it can be rebuilt from the live entries once superseded values accumulate.
+ * <p>
+ * This class is not thread-safe, callers must synchronize.
+ */
+final class StringPool {
+
+    private String[] table;
+    private int size;
+
+    StringPool() {
+        this(64);
+    }
+
+    StringPool(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        table = new String[capacity];
+    }
+
+    /**
+     * Returns the pooled instance equal to the given string, adding it if it is not pooled yet.
+     *
+     * @param string the string to intern, may be null
+     * @return the pooled instance, or null if the string is null
+     */
+    String intern(String string) {
+        if (string == null) {
+            return null;
+        }
+        int mask = table.length - 1;
+        int slot = mix(string.hashCode()) & mask;
+        String pooled;
+        while ((pooled = table[slot]) != null) {
+            if (pooled.equals(string)) {
+                return pooled;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = string;
+        if (++size * 4 > table.length * 3) {
+            resize();
+        }
+        return string;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize() {
+        String[] old = table;
+        table = new String[old.length << 1];
+        int mask = table.length - 1;
+        for (String string : old) {
+            if (string != null) {
+                int slot = mix(string.hashCode()) & mask;
+                while (table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = string;
+            }
+        }
+    }
+
+    static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
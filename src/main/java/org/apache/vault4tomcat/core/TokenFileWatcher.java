@@ -0,0 +1,105 @@
+package org.apache.vault4tomcat.core;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches the file a login credential is read from (e.g. a projected Kubernetes service account
+ * token) and runs an action on a background thread whenever its content changes.
+ * <p>
+ * The parent directory is watched rather than the file itself: the kubelet rotates projected tokens
+ * by swapping a symlink in that directory, which never modifies the token file in place. Every event
+ * in the directory triggers a comparison with the last content seen, so bursts of events for a single
+ * rotation run the action only once.
+ */
+public final class TokenFileWatcher implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(TokenFileWatcher.class.getCanonicalName());
+
+    private final Path file;
+    private final Runnable onChange;
+    private final WatchService watchService;
+    private final Thread thread;
+    private byte[] content;
+
+    /**
+     * @param file     the file to watch
+     * @param onChange run on the watcher thread after the content of the file changed
+     * @throws IOException if the directory of the file cannot be watched
+     */
+    public TokenFileWatcher(Path file, Runnable onChange) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.onChange = onChange;
+        this.content = readContent();
+        this.watchService = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        this.thread = new Thread(this::watch, "vault4tomcat-token-file-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching the file.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                // The events themselves do not matter, only whether the content changed
+                key.pollEvents();
+                checkForChange();
+                if (!key.reset()) {
+                    logger.warning("The directory of " + file + " is no longer watched");
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    void checkForChange() {
+        byte[] current = readContent();
+        // A missing file is transient during a rotation, the next event brings the new content
+        if (current == null || Arrays.equals(current, content)) {
+            return;
+        }
+        content = current;
+        logger.info("Credential file " + file + " changed, logging in to Vault again");
+        try {
+            onChange.run();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Failed to handle the change of " + file, e);
+        }
+    }
+
+    private byte[] readContent() {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Failed to close the watch service of " + file, e);
+        }
+        thread.interrupt();
+    }
+}
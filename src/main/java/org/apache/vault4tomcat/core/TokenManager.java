@@ -0,0 +1,265 @@
+package org.apache.vault4tomcat.core;
+
+import org.apache.vault4tomcat.auth.VaultAuthenticator;
+import org.apache.vault4tomcat.auth.VaultToken;
+import org.apache.vault4tomcat.vault.Vault;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Manages the lifecycle of the Vault token used by a {@link VaultClient}.
+ * <p>
+ * After a login the lease duration and renewability of the token are recorded. A renewable token is
+ * renewed with renew-self once {@value #RENEW_FRACTION_PERCENT}% of its lease has elapsed. When a
+ * renewal no longer extends the lease to its previous duration, the token is approaching its
+ * token_max_ttl and a fresh login is scheduled before it expires. Tokens that cannot be renewed are
+ * replaced by a fresh login before they expire as well. Tokens without a lease (e.g. root tokens)
+ * are left alone. Batch tokens are never renewed: a fresh login is scheduled shortly before they
+ * expire, at most {@value #BATCH_EXPIRY_MARGIN_SECONDS}s ahead.
+ * <p>
+ * The current token is published through {@link org.apache.vault4tomcat.config.VaultConfig#setToken}
+ * so that every request picks it up. With a {@link TokenSink}, every new or renewed token is also
+ * stored there, and {@link #resumeOrLogin()} reuses a stored token that still has at least
+ * {@value #MIN_RESUME_TTL_SECONDS}s to live instead of logging in.
+ */
+public class TokenManager implements AutoCloseable {
+
+    // Renew (or re-login) once this share of the lease has elapsed
+    static final int RENEW_FRACTION_PERCENT = 67;
+    // Delay before retrying after a failed renewal or login
+    static final long RETRY_DELAY_SECONDS = 10;
+    // A stored token with less time to live is not worth reusing
+    static final long MIN_RESUME_TTL_SECONDS = 60;
+    // Log in again this long before a batch token expires, or a tenth of its lease if shorter
+    static final long BATCH_EXPIRY_MARGIN_SECONDS = 30;
+
+    private static final Logger logger = Logger.getLogger(TokenManager.class.getCanonicalName());
+
+    private final Vault vault;
+    private final VaultAuthenticator authenticator;
+    private final TokenSink sink;
+    private final ScheduledExecutorService scheduler;
+    private volatile VaultToken token;
+    private ScheduledFuture<?> scheduled;
+    private long scheduledDelaySeconds = -1;
+    private boolean tokenTypeWarned;
+
+    public TokenManager(Vault vault, VaultAuthenticator authenticator) {
+        this(vault, authenticator, null);
+    }
+
+    /**
+     * @param vault         the Vault driver the token is used with
+     * @param authenticator logs in when no valid token is available
+     * @param sink          where the current token is stored across restarts, or null
+     */
+    public TokenManager(Vault vault, VaultAuthenticator authenticator, TokenSink sink) {
+        this.vault = vault;
+        this.authenticator = authenticator;
+        this.sink = sink;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "vault4tomcat-token-manager");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Logs in through the authenticator, publishes the new token and schedules its renewal.
+     *
+     * @return the new token
+     * @throws Exception if authentication fails
+     */
+    public synchronized VaultToken login() throws Exception {
+        VaultToken newToken = authenticator.login(vault);
+        if (newToken == null || newToken.token() == null || newToken.token().isEmpty()) {
+            throw new Exception("Failed to obtain Vault token via authentication.");
+        }
+        checkTokenType(newToken);
+        publish(newToken);
+        scheduleFor(newToken);
+        return newToken;
+    }
+
+    /**
+     * Reuses the token stored in the sink if Vault confirms with a lookup that it still has enough
+     * time to live, and logs in otherwise.
+     *
+     * @return the resumed or new token
+     * @throws Exception if authentication fails
+     */
+    public synchronized VaultToken resumeOrLogin() throws Exception {
+        VaultToken resumed = resume();
+        return resumed != null ? resumed : login();
+    }
+
+    private VaultToken resume() {
+        TokenSink.Entry entry = sink != null ? sink.read() : null;
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() != null &&
+                entry.expiresAt().isBefore(Instant.now().plusSeconds(MIN_RESUME_TTL_SECONDS))) {
+            logger.fine("The stored Vault token has expired, logging in");
+            return null;
+        }
+        String previousToken = vault.getConfig().getToken();
+        vault.getConfig().setToken(entry.token().token());
+        try {
+            Map<String, String> lookup = vault.logical().lookupSelf().getData();
+            long ttl = Long.parseLong(lookup.getOrDefault("ttl", "0"));
+            if (ttl != 0 && ttl < MIN_RESUME_TTL_SECONDS) {
+                throw new IllegalStateException("only " + ttl + "s left");
+            }
+            boolean batch = "batch".equals(lookup.get("type"));
+            VaultToken resumed = new VaultToken(entry.token().token(), ttl,
+                    !batch && Boolean.parseBoolean(lookup.get("renewable")), batch);
+            publish(resumed);
+            scheduleFor(resumed);
+            logger.info("Reusing the stored Vault token");
+            return resumed;
+        } catch (Exception e) {
+            logger.log(Level.INFO, "Cannot reuse the stored Vault token, logging in: " + e.getMessage());
+            vault.getConfig().setToken(previousToken);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces a token that Vault rejected with a fresh one. If another thread already replaced the
+     * rejected token in the meantime, the current token is kept.
+     *
+     * @param rejectedToken the token a request failed with
+     * @throws Exception if authentication fails
+     */
+    public synchronized void reauthenticate(String rejectedToken) throws Exception {
+        VaultToken current = token;
+        if (current != null && !current.token().equals(rejectedToken)) {
+            return;
+        }
+        logger.info("Vault rejected the current token, logging in again");
+        login();
+    }
+
+    /**
+     * @return the current token, or null before the first login
+     */
+    public VaultToken token() {
+        return token;
+    }
+
+    /**
+     * Renews the current token, falling back to a fresh login if the token cannot be renewed anymore.
+     */
+    synchronized void renew() {
+        VaultToken current = token;
+        if (current.batch()) {
+            relogin();
+            return;
+        }
+        try {
+            VaultToken renewed = VaultToken.from(vault.logical().renewSelf());
+            publish(renewed);
+            if (renewed.leaseDurationSeconds() < current.leaseDurationSeconds()) {
+                // The lease is capped by token_max_ttl, log in again before it runs out
+                schedule(this::relogin, renewed.leaseDurationSeconds());
+            } else {
+                schedule(this::renew, renewed.leaseDurationSeconds());
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Failed to renew the Vault token, logging in again: " + e.getMessage());
+            relogin();
+        }
+    }
+
+    synchronized void relogin() {
+        try {
+            login();
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Failed to log in to Vault, retrying in " + RETRY_DELAY_SECONDS + "s: " + e.getMessage());
+            scheduleAfter(this::relogin, RETRY_DELAY_SECONDS);
+        }
+    }
+
+    /**
+     * @return the delay in seconds of the next scheduled renewal or login, or -1 if none is scheduled
+     */
+    synchronized long scheduledDelaySeconds() {
+        return scheduledDelaySeconds;
+    }
+
+    private void publish(VaultToken newToken) {
+        token = newToken;
+        vault.getConfig().setToken(newToken.token());
+        if (sink != null) {
+            Instant expiresAt = newToken.leaseDurationSeconds() > 0
+                    ? Instant.now().plusSeconds(newToken.leaseDurationSeconds()) : null;
+            try {
+                sink.write(newToken, expiresAt);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to store the Vault token in the sink: " + e.getMessage());
+            }
+        }
+    }
+
+    private void scheduleFor(VaultToken newToken) {
+        long lease = newToken.leaseDurationSeconds();
+        if (newToken.batch() && lease > 0) {
+            long margin = Math.min(BATCH_EXPIRY_MARGIN_SECONDS, Math.max(1, lease / 10));
+            scheduleAfter(this::relogin, Math.max(1, lease - margin));
+        } else {
+            schedule(newToken.renewable() ? this::renew : this::relogin, lease);
+        }
+    }
+
+    private void checkTokenType(VaultToken newToken) {
+        String expected = vault.getConfig().getAuthTokenType();
+        if (expected == null || expected.isEmpty() || tokenTypeWarned) {
+            return;
+        }
+        String actual = newToken.batch() ? "batch" : "service";
+        if (!expected.equalsIgnoreCase(actual)) {
+            tokenTypeWarned = true;
+            logger.warning("Expected a " + expected + " token but the login returned a " + actual +
+                    " token, set token_type=" + expected.toLowerCase() + " on the Vault role");
+        }
+    }
+
+    private void schedule(Runnable action, long leaseDurationSeconds) {
+        if (leaseDurationSeconds <= 0) {
+            cancel();
+            return;
+        }
+        scheduleAfter(action, Math.max(1, leaseDurationSeconds * RENEW_FRACTION_PERCENT / 100));
+    }
+
+    private void scheduleAfter(Runnable action, long delaySeconds) {
+        cancel();
+        if (!scheduler.isShutdown()) {
+            scheduled = scheduler.schedule(action, delaySeconds, TimeUnit.SECONDS);
+            scheduledDelaySeconds = delaySeconds;
+        }
+    }
+
+    private void cancel() {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        scheduledDelaySeconds = -1;
+    }
+
+    @Override
+    public synchronized void close() {
+        cancel();
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,185 @@
+package org.apache.vault4tomcat.core;
+
+import org.apache.vault4tomcat.auth.VaultToken;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores the current Vault token and its expiry in a file, so that a restarted client can reuse it
+ * instead of logging in again.
+ * <p>
+ * The file is encrypted with AES-GCM under a key derived from a passphrase with PBKDF2. It holds a
+ * format marker, the salt and IV, followed by the ciphertext. A file that cannot be decrypted (wrong
+ * passphrase, corrupted or foreign content) is treated as absent. Writes go to a temporary file that
+ * is then moved over the sink, so a crash never leaves a half-written token behind.
+ */
+public class TokenSink {
+
+    private static final Logger logger = Logger.getLogger(TokenSink.class.getCanonicalName());
+
+    private static final byte[] MAGIC = {'V', '4', 'T', 'S', 1};
+    private static final int SALT_LENGTH = 16;
+    private static final int IV_LENGTH = 12;
+    private static final int GCM_TAG_BITS = 128;
+    private static final int PBKDF2_ITERATIONS = 210_000;
+    private static final int KEY_BITS = 256;
+
+    private final Path file;
+    private final char[] passphrase;
+    private final SecureRandom random = new SecureRandom();
+    // Deriving the key is deliberately slow, keep the last one
+    private byte[] salt;
+    private SecretKey key;
+
+    /**
+     * A token read back from the sink.
+     *
+     * @param token     the stored token and the lease it had when it was stored
+     * @param expiresAt when the token expires, or null if it never does
+     */
+    public record Entry(VaultToken token, Instant expiresAt) {
+    }
+
+    public TokenSink(Path file, String passphrase) {
+        if (passphrase == null || passphrase.isEmpty()) {
+            throw new IllegalArgumentException("A token sink requires a passphrase");
+        }
+        this.file = file;
+        this.passphrase = passphrase.toCharArray();
+    }
+
+    /**
+     * @return the token stored in the sink, or null if there is none or it cannot be decrypted
+     */
+    public synchronized Entry read() {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to read the Vault token sink " + file + ": " + e.getMessage());
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new GeneralSecurityException("unknown format");
+            }
+            byte[] fileSalt = new byte[SALT_LENGTH];
+            byte[] iv = new byte[IV_LENGTH];
+            buffer.get(fileSalt).get(iv);
+            byte[] ciphertext = new byte[buffer.remaining()];
+            buffer.get(ciphertext);
+
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, keyFor(fileSalt), new GCMParameterSpec(GCM_TAG_BITS, iv));
+            cipher.updateAAD(MAGIC);
+            return decode(new String(cipher.doFinal(ciphertext), StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException | RuntimeException e) {
+            logger.log(Level.WARNING, "Ignoring unreadable Vault token sink " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the content of the sink with the given token.
+     *
+     * @param token     the token to store
+     * @param expiresAt when the token expires, or null if it never does
+     * @throws IOException if the sink cannot be written
+     */
+    public synchronized void write(VaultToken token, Instant expiresAt) throws IOException {
+        byte[] encrypted;
+        try {
+            if (salt == null) {
+                byte[] newSalt = new byte[SALT_LENGTH];
+                random.nextBytes(newSalt);
+                keyFor(newSalt);
+            }
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            cipher.updateAAD(MAGIC);
+            byte[] ciphertext = cipher.doFinal(encode(token, expiresAt).getBytes(StandardCharsets.UTF_8));
+            encrypted = ByteBuffer.allocate(MAGIC.length + SALT_LENGTH + IV_LENGTH + ciphertext.length)
+                    .put(MAGIC).put(salt).put(iv).put(ciphertext).array();
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to encrypt the Vault token", e);
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            restrictToOwner(temp);
+            Files.write(temp, encrypted);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private SecretKey keyFor(byte[] fileSalt) throws GeneralSecurityException {
+        if (key == null || !Arrays.equals(salt, fileSalt)) {
+            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            PBEKeySpec spec = new PBEKeySpec(passphrase, fileSalt, PBKDF2_ITERATIONS, KEY_BITS);
+            try {
+                key = new SecretKeySpec(factory.generateSecret(spec).getEncoded(), "AES");
+            } finally {
+                spec.clearPassword();
+            }
+            salt = fileSalt.clone();
+        }
+        return key;
+    }
+
+    private static void restrictToOwner(Path path) {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException | IOException ignored) {
+            // Not a POSIX file system, rely on the permissions of the directory
+        }
+    }
+
+    private static String encode(VaultToken token, Instant expiresAt) {
+        return token.token() + '\n' + token.leaseDurationSeconds() + '\n' + token.renewable() + '\n' +
+                (expiresAt != null ? expiresAt.getEpochSecond() : 0) + '\n' + token.batch();
+    }
+
+    private static Entry decode(String content) {
+        String[] lines = content.split("\n", -1);
+        if (lines.length != 5 || lines[0].isEmpty()) {
+            throw new IllegalArgumentException("malformed content");
+        }
+        long expiresAt = Long.parseLong(lines[3]);
+        return new Entry(new VaultToken(lines[0], Long.parseLong(lines[1]), Boolean.parseBoolean(lines[2]),
+                Boolean.parseBoolean(lines[4])), expiresAt > 0 ? Instant.ofEpochSecond(expiresAt) : null);
+    }
+}
@@ -2,6 +2,10 @@ package org.apache.vault4tomcat.core;
 
 import org.apache.vault4tomcat.auth.AppRoleAuthentication;
 import org.apache.vault4tomcat.auth.AwsIamAuthentication;
+import org.apache.vault4tomcat.auth.CertAuthentication;
+import org.apache.vault4tomcat.auth.ChainedAuthentication;
+import org.apache.vault4tomcat.auth.JwtAuthentication;
+import org.apache.vault4tomcat.auth.KubernetesAuthentication;
 import org.apache.vault4tomcat.auth.TokenAuthentication;
 import org.apache.vault4tomcat.auth.VaultAuthenticator;
 import org.apache.vault4tomcat.vault.Vault;
@@ -9,24 +13,110 @@ import org.apache.vault4tomcat.config.VaultConfig;
 import org.apache.vault4tomcat.vault.VaultException;
 import org.apache.vault4tomcat.vault.response.LogicalResponse;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Client that interacts with HashiCorp Vault to fetch secrets using the authenticated token.
  * Initializes via VaultAuthenticator and maintains a Vault driver instance.
+ * <p>
+ * Authentication does not block construction: the login is started on a background thread, together
+ * with a warm-up request that opens a pooled connection to Vault. The first read waits for the login
+ * only if it is still pending. If the login failed, the next read tries again.
+ * <p>
+ * If a token sink is configured, a token stored there by a previous run is reused when it is still
+ * valid, sparing the auth backend a login on every restart.
+ * <p>
+ * The token is kept valid by a {@link TokenManager}. A read rejected with 403 triggers one
+ * transparent re-authentication and is then retried once.
  */
-public class VaultClient {
+public class VaultClient implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(VaultClient.class.getCanonicalName());
+    // Runs each background startup task on its own daemon thread
+    private static final Executor STARTUP_EXECUTOR = task -> {
+        Thread thread = new Thread(task, "vault4tomcat-startup");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
     private final Vault vault;              // Vault driver client for making API calls
+    private final VaultAuthenticator authenticator;
+    private final TokenManager tokenManager;
+    private final TokenFileWatcher tokenFileWatcher;
+    private volatile CompletableFuture<?> authentication;
 
     public VaultClient(VaultConfig config) throws Exception {
         this.vault = Vault.create(config);
-        VaultAuthenticator authenticator = initializeVaultAuthenticator();
-        String clientToken = authenticator.authenticate(vault);
-        if (clientToken == null || clientToken.isEmpty()) {
-            throw new Exception("Failed to obtain Vault token via authentication.");
+        this.authenticator = initializeVaultAuthenticator();
+        this.tokenManager = new TokenManager(vault, authenticator, initializeTokenSink());
+        this.tokenFileWatcher = initializeTokenFileWatcher(authenticator);
+        CompletableFuture.runAsync(this::warmUp, STARTUP_EXECUTOR);
+        this.authentication = loginAsync();
+    }
+
+    //ONLY FOR TESTING PURPOSES
+    VaultClient(Vault vault, VaultAuthenticator authenticator) throws Exception {
+        this.vault = vault;
+        this.authenticator = authenticator;
+        this.tokenManager = new TokenManager(vault, authenticator);
+        this.tokenFileWatcher = initializeTokenFileWatcher(authenticator);
+        this.authentication = loginAsync();
+    }
+
+    private CompletableFuture<?> loginAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return tokenManager.resumeOrLogin();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, STARTUP_EXECUTOR);
+    }
+
+    private void warmUp() {
+        try {
+            vault.logical().health();
+        } catch (Exception e) {
+            // Only an optimization, the first request opens the connection instead
+            logger.log(Level.FINE, "Vault connection warm-up failed: " + e.getMessage());
         }
+    }
 
-        config.setToken(clientToken);
+    /**
+     * Waits for the initial login if it is still pending. If it failed, logs in again synchronously
+     * so that a transient failure at startup does not leave the client without a token.
+     *
+     * @throws Exception if authentication fails
+     */
+    public void awaitAuthentication() throws Exception {
+        CompletableFuture<?> current = authentication;
+        try {
+            current.join();
+        } catch (CompletionException e) {
+            synchronized (this) {
+                if (authentication == current) {
+                    try {
+                        tokenManager.login();
+                        authentication = CompletableFuture.completedFuture(null);
+                    } catch (Exception retryFailure) {
+                        retryFailure.addSuppressed(e.getCause());
+                        throw retryFailure;
+                    }
+                }
+            }
+        }
     }
 
     private VaultAuthenticator initializeVaultAuthenticator() throws VaultException {
@@ -34,13 +124,113 @@ public class VaultClient {
         if (authMethod == null || authMethod.isEmpty()) {
             return new TokenAuthentication();
         }
-        return switch (vault.getConfig().getAuthMethod().toLowerCase()) {
+        if (authMethod.contains(",")) {
+            List<ChainedAuthentication.Method> methods = new ArrayList<>();
+            for (String method : authMethod.split(",")) {
+                if (!method.trim().isEmpty()) {
+                    methods.add(new ChainedAuthentication.Method(method.trim(), createVaultAuthenticator(method.trim())));
+                }
+            }
+            VaultConfig config = vault.getConfig();
+            return new ChainedAuthentication(methods, "race".equalsIgnoreCase(config.getAuthChain()),
+                    Duration.ofSeconds(config.getAuthMethodTimeout()));
+        }
+        return createVaultAuthenticator(authMethod);
+    }
+
+    private static VaultAuthenticator createVaultAuthenticator(String authMethod) throws VaultException {
+        return switch (authMethod.toLowerCase()) {
+            case "token" -> new TokenAuthentication();
             case "approle" -> new AppRoleAuthentication();
             case "awsiam" -> new AwsIamAuthentication();
+            case "cert" -> new CertAuthentication();
+            case "jwt" -> new JwtAuthentication();
+            case "kubernetes" -> new KubernetesAuthentication();
             default -> throw new VaultException("Unsupported auth method: " + authMethod);
         };
     }
 
+    /**
+     * Logs in again in the background whenever the credential file of a JWT based login is rotated,
+     * so that requests never wait for the login.
+     */
+    private TokenFileWatcher initializeTokenFileWatcher(VaultAuthenticator authenticator) throws IOException {
+        if (authenticator instanceof ChainedAuthentication chain) {
+            // Watch the credential file of the preferred JWT based method of the chain
+            authenticator = chain.getMethods().stream()
+                    .map(ChainedAuthentication.Method::authenticator)
+                    .filter(JwtAuthentication.class::isInstance)
+                    .findFirst().orElse(null);
+        }
+        if (!(authenticator instanceof JwtAuthentication jwtAuthentication)) {
+            return null;
+        }
+        Path tokenFile = jwtAuthentication.getTokenFile(vault.getConfig());
+        if (tokenFile == null || tokenFile.toAbsolutePath().getParent() == null
+                || !Files.isDirectory(tokenFile.toAbsolutePath().getParent())) {
+            return null;
+        }
+        TokenFileWatcher watcher = new TokenFileWatcher(tokenFile, tokenManager::relogin);
+        watcher.start();
+        return watcher;
+    }
+
+    private TokenSink initializeTokenSink() throws VaultException {
+        String sink = vault.getConfig().getTokenSink();
+        if (sink == null || sink.isEmpty()) {
+            return null;
+        }
+        String key = vault.getConfig().getTokenSinkKey();
+        if (key == null || key.isEmpty()) {
+            throw new VaultException("A token sink requires a key (" + VaultConfig.TOKEN_SINK_KEY + ")");
+        }
+        return new TokenSink(Path.of(sink), key);
+    }
+
+    /**
+     * Runs a Vault call with the current token. If Vault rejects the token (403), logs in again and
+     * retries the call once with the new token.
+     */
+    private LogicalResponse withToken(VaultCall call) throws Exception {
+        awaitAuthentication();
+        String token = vault.getConfig().getToken();
+        try {
+            return call.call();
+        } catch (VaultException e) {
+            if (e.getHttpStatusCode() != 403) {
+                throw e;
+            }
+            tokenManager.reauthenticate(token);
+            return call.call();
+        }
+    }
+
+    @FunctionalInterface
+    private interface VaultCall {
+        LogicalResponse call() throws VaultException;
+    }
+
+    /**
+     * @return the manager of the token this client authenticates with
+     */
+    public TokenManager getTokenManager() {
+        return tokenManager;
+    }
+
+    /**
+     * Stops the background token renewal, the watching of the credential file and the background work
+     * of the authenticator, and shuts down the HTTP client of the configuration.
+     */
+    @Override
+    public void close() {
+        if (tokenFileWatcher != null) {
+            tokenFileWatcher.close();
+        }
+        tokenManager.close();
+        authenticator.close();
+        vault.getConfig().closeHttpClient();
+    }
+
     /**
      * Retrieve a secret from Vault at the given path.
      * @param path The Vault logical path of the secret (e.g., "secret/myapp/config").
@@ -48,8 +238,19 @@ public class VaultClient {
      * @throws Exception if the secret cannot be retrieved (authentication or connectivity issues).
      */
     public Map<String, String> getSecret(String path) throws Exception {
+        return getSecret(path, 0);
+    }
+
+    /**
+     * Retrieve a specific version of a KV v2 secret from Vault at the given path.
+     * @param path The Vault logical path of the secret (e.g., "secret/myapp/config").
+     * @param version The version to read, or 0 for the latest version.
+     * @return A map of key-value pairs stored at that secret path and version.
+     * @throws Exception if the secret cannot be retrieved (authentication or connectivity issues).
+     */
+    public Map<String, String> getSecret(String path, int version) throws Exception {
         try {
-            LogicalResponse response = vault.logical().read(path);
+            LogicalResponse response = withToken(() -> vault.logical().read(path, version));
             return response.getData();
         } catch (VaultException e) {
             // TODO: Add custom exception
@@ -57,6 +258,54 @@ public class VaultClient {
         }
     }
 
+    /**
+     * Retrieve the latest version of a KV v2 secret along with its version number.
+     * @param path The Vault logical path of the secret (e.g., "secret/myapp/config").
+     * @return The secret data and the version it was read at.
+     * @throws Exception if the secret cannot be retrieved (authentication or connectivity issues).
+     */
+    public VersionedSecret getVersionedSecret(String path) throws Exception {
+        try {
+            LogicalResponse response = withToken(() -> vault.logical().read(path));
+            return new VersionedSecret(response.getData(), response.getVersion());
+        } catch (VaultException e) {
+            throw new Exception("Error retrieving secret from Vault: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retrieve the current version of a KV v2 secret from its metadata, without reading its data.
+     * @param path The Vault logical path of the secret (e.g., "secret/myapp/config").
+     * @return The current version of the secret, or 0 if Vault did not report one.
+     * @throws Exception if the metadata cannot be retrieved (authentication or connectivity issues).
+     */
+    public int getCurrentVersion(String path) throws Exception {
+        return getSecretMetadata(path).currentVersion();
+    }
+
+    /**
+     * Retrieve the KV v2 metadata of a secret (current version and version history), without
+     * reading its data.
+     * @param path The Vault logical path of the secret (e.g., "secret/myapp/config").
+     * @return The metadata of the secret.
+     * @throws Exception if the metadata cannot be retrieved (authentication or connectivity issues).
+     */
+    public SecretMetadata getSecretMetadata(String path) throws Exception {
+        try {
+            LogicalResponse response = withToken(() -> vault.logical().readMetadata(path));
+            List<Instant> createdTimes = new ArrayList<>();
+            for (String createdTime : response.getVersionCreatedTimes().values()) {
+                try {
+                    createdTimes.add(Instant.parse(createdTime));
+                } catch (DateTimeParseException ignored) {
+                }
+            }
+            return new SecretMetadata(response.getVersion(), createdTimes);
+        } catch (VaultException e) {
+            throw new Exception("Error retrieving secret metadata from Vault: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Retrieves a specific value from a Vault secret at the given path.
      * @param path the path in Vault (e.g., "secret/myapp/config").
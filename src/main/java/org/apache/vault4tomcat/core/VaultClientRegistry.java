@@ -0,0 +1,265 @@
+package org.apache.vault4tomcat.core;
+
+import org.apache.vault4tomcat.config.VaultConfig;
+
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide registry handing out one shared {@link VaultClient} per effective configuration.
+ * <p>
+ * Property sources of different webapps (or of the server and its webapps) that point at the same
+ * Vault with the same credentials get the same client, and with it a single login, a single token
+ * renewal schedule, a single connection pool, a single {@link SecretCache} and, when refreshing is
+ * enabled, a single {@link SecretRefresher}. Fifty contexts configured alike log in once.
+ * <p>
+ * Clients are keyed by the Vault address, the namespace, the auth method and a digest of the
+ * credentials the method logs in with, so two configurations only share a client if they would
+ * authenticate as the same identity. The first configuration of a key wins for every other setting,
+ * such as the refresh intervals, the timeouts and the TLS settings: {@code sslVerify} and the trust
+ * store are not part of the key, so a later configuration that only differs in them gets a client
+ * built with those of the first one.
+ * <p>
+ * Every {@link #acquire(VaultConfig)} returns a {@link Lease} that must be closed once it is no
+ * longer needed. The shared client, its refresher and its background threads are closed when the
+ * last lease of their key is closed; a later acquire starts over with a fresh client. The clients of
+ * the {@link #shared()} registry still open when the JVM exits are closed by a shutdown hook.
+ */
+public class VaultClientRegistry {
+
+    private static final Logger logger = Logger.getLogger(VaultClientRegistry.class.getCanonicalName());
+
+    private static final VaultClientRegistry SHARED = new VaultClientRegistry(VaultClient::new);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(SHARED::closeAll, "vault4tomcat-shutdown"));
+    }
+
+    /**
+     * Creates the client of a key on its first acquire.
+     */
+    @FunctionalInterface
+    public interface ClientFactory {
+        VaultClient create(VaultConfig config) throws Exception;
+    }
+
+    /**
+     * The effective configuration a client is shared for.
+     *
+     * @param address    the Vault address
+     * @param namespace  the Vault namespace, or null
+     * @param authMethod the configured auth method, or null for token authentication
+     * @param identity   digest of the credentials of the auth method
+     */
+    record Key(String address, String namespace, String authMethod, String identity) {
+    }
+
+    private final ClientFactory factory;
+    private final Map<Key, Shared> clients = new HashMap<>();
+
+    //ONLY FOR TESTING PURPOSES
+    public VaultClientRegistry(ClientFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @return the registry shared by the whole JVM
+     */
+    public static VaultClientRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns a lease on the client shared by all configurations with the same effective key,
+     * creating the client if this is the first lease of the key.
+     *
+     * @param config the Vault configuration of the caller
+     * @return a lease to close once the client is no longer needed
+     * @throws Exception if the client cannot be created
+     */
+    public synchronized Lease acquire(VaultConfig config) throws Exception {
+        Key key = keyFor(config);
+        Shared shared = clients.get(key);
+        if (shared == null) {
+            shared = new Shared(key, factory.create(config), config);
+            clients.put(key, shared);
+            logger.fine("Created a shared Vault client for " + key.address());
+        }
+        shared.references++;
+        return new Lease(shared);
+    }
+
+    /**
+     * @return the number of distinct clients currently shared
+     */
+    public synchronized int size() {
+        return clients.size();
+    }
+
+    /**
+     * Closes every shared client, whether or not its leases are still open. Leases closed afterwards
+     * have no effect.
+     */
+    public synchronized void closeAll() {
+        for (Shared shared : List.copyOf(clients.values())) {
+            close(shared);
+        }
+    }
+
+    private synchronized void release(Shared shared) {
+        if (--shared.references > 0) {
+            return;
+        }
+        close(shared);
+    }
+
+    private void close(Shared shared) {
+        // A client closed by closeAll() may have been replaced under its key since
+        if (!clients.remove(shared.key, shared)) {
+            return;
+        }
+        if (shared.refresher != null) {
+            shared.refresher.close();
+        }
+        shared.client.close();
+        logger.fine("Closed the shared Vault client for " + shared.key.address());
+    }
+
+    static Key keyFor(VaultConfig config) {
+        String authMethod = config.getAuthMethod();
+        return new Key(config.getAddress(), config.getNameSpace(),
+                authMethod == null || authMethod.isEmpty() ? null : authMethod.toLowerCase(), identityOf(config));
+    }
+
+    /**
+     * Digests every setting that determines whom the client logs in as. Only the digest is kept, so
+     * the registry never holds on to the credentials themselves.
+     */
+    private static String identityOf(VaultConfig config) {
+        List<String> credentials = List.of(
+                String.valueOf(config.getToken()),
+                String.valueOf(config.getAppRoleId()), String.valueOf(config.getAppRoleSecretId()),
+                String.valueOf(config.getAwsRole()), String.valueOf(config.getAwsAccessKey()),
+                String.valueOf(config.getAwsProfile()), String.valueOf(config.getAwsCredentialsFile()),
+                String.valueOf(config.getCertName()), String.valueOf(config.getCertMount()),
+                String.valueOf(config.getSslKeyStore()),
+                String.valueOf(config.getJwtRole()), String.valueOf(config.getJwtMount()),
+                String.valueOf(config.getJwtTokenFile()),
+                String.valueOf(config.getKubernetesRole()), String.valueOf(config.getKubernetesMount()),
+                String.valueOf(config.getKubernetesTokenFile()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String credential : credentials) {
+                digest.update(credential.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Shared {
+
+        private final Key key;
+        private final VaultClient client;
+        private final SecretCache cache = new SecretCache();
+        private final SecretRefresher refresher;
+        // Held weakly, so that a lease its owner forgot to close does not keep the owner reachable
+        private final List<WeakReference<SecretRefresher.Listener>> listeners = new CopyOnWriteArrayList<>();
+        private int references;
+
+        private Shared(Key key, VaultClient client, VaultConfig config) {
+            this.key = key;
+            this.client = client;
+            this.refresher = config.getCacheRefreshInterval() > 0
+                    ? new SecretRefresher(client, config.getCacheRefreshInterval(), config.getCacheRefreshMinInterval(),
+                            config.getCacheRefreshMaxInterval(), this::secretChanged)
+                    : null;
+            if (refresher != null) {
+                refresher.start();
+            }
+        }
+
+        private void secretChanged(String path, VersionedSecret secret) {
+            for (WeakReference<SecretRefresher.Listener> reference : listeners) {
+                SecretRefresher.Listener listener = reference.get();
+                if (listener != null) {
+                    listener.secretChanged(path, secret);
+                } else {
+                    listeners.remove(reference);
+                }
+            }
+        }
+    }
+
+    /**
+     * A reference to a shared client. Closing the lease releases the reference; the lease must not be
+     * used afterwards.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final Shared shared;
+        private WeakReference<SecretRefresher.Listener> listener;
+        private boolean closed;
+
+        private Lease(Shared shared) {
+            this.shared = shared;
+        }
+
+        /**
+         * @return the shared client
+         */
+        public VaultClient client() {
+            return shared.client;
+        }
+
+        /**
+         * @return the cache of secret data shared by every lease of the client
+         */
+        public SecretCache cache() {
+            return shared.cache;
+        }
+
+        /**
+         * @return the refresher shared by every lease of the client, or null when refreshing is disabled
+         */
+        public SecretRefresher refresher() {
+            return shared.refresher;
+        }
+
+        /**
+         * Registers the callback notified of refreshed secrets until the lease is closed. The callback
+         * is only held weakly: the caller must keep a reference to it for as long as it is needed.
+         *
+         * @param listener callback notified of every secret whose version changed
+         */
+        public synchronized void onSecretChanged(SecretRefresher.Listener listener) {
+            if (this.listener != null) {
+                shared.listeners.remove(this.listener);
+            }
+            this.listener = new WeakReference<>(listener);
+            shared.listeners.add(this.listener);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (listener != null) {
+                shared.listeners.remove(listener);
+            }
+            release(shared);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.apache.vault4tomcat.core;
+
+import java.util.Map;
+
+/**
+ * Key-value data of a KV v2 secret together with the version it was read at.
+ *
+ * @param data    the secret key-value pairs
+ * @param version the KV v2 version of the data, or 0 if Vault did not report one
+ */
+public record VersionedSecret(Map<String, String> data, int version) {
+}
@@ -0,0 +1,55 @@
+package org.apache.vault4tomcat.tomcat;
+
+/**
+ * Pre-parsed form of a {@code vault:path#field} or {@code vault:path#field@version} placeholder.
+ * <p>
+ * Instances are created once per distinct placeholder string by {@link PlaceholderTable} and then
+ * reused for every later lookup of the same key, so resolving a placeholder never re-parses or
+ * allocates substrings. A malformed placeholder is interned as well and carries the error message
+ * to report instead of a cache slot.
+ */
+final class Placeholder {
+
+    private final String key;
+    private final PlaceholderTable.Slot slot;
+    private final String field;
+    private final String error;
+
+    private Placeholder(String key, PlaceholderTable.Slot slot, String field, String error) {
+        this.key = key;
+        this.slot = slot;
+        this.field = field;
+        this.error = error;
+    }
+
+    static Placeholder valid(String key, PlaceholderTable.Slot slot, String field) {
+        return new Placeholder(key, slot, field, null);
+    }
+
+    static Placeholder invalid(String key, String error) {
+        return new Placeholder(key, null, null, error);
+    }
+
+    /**
+     * @return the raw placeholder key as passed in by Tomcat (e.g. "vault:myapp/db#password")
+     */
+    String key() { return key; }
+
+    /**
+     * @return the cache slot of the secret path and version this placeholder refers to, or null if
+     * invalid
+     */
+    PlaceholderTable.Slot slot() { return slot; }
+
+    /**
+     * @return the field to extract from the secret data, or null if invalid
+     */
+    String field() { return field; }
+
+    /**
+     * @return the message to log for a malformed placeholder, or null if the placeholder is valid
+     */
+    String error() { return error; }
+
+    boolean isValid() { return error == null; }
+}
@@ -0,0 +1,151 @@
+package org.apache.vault4tomcat.tomcat;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interning table mapping raw placeholder keys to pre-parsed {@link Placeholder} descriptors.
+ * <p>
+ * Tomcat re-evaluates the same placeholders for every context and every attribute. The first
+ * lookup of a key parses it and binds it to the {@link Slot} of its secret path; every later lookup
+ * is a single hash probe followed by a read of the slot, without any allocation.
+ * <p>
+ * All placeholders referring to the same path and version share one slot, so a secret is fetched
+ * and cached once regardless of how many of its fields are referenced. A placeholder may pin a KV v2
+ * version with an {@code @version} suffix (e.g. {@code vault:myapp/db#password@7}); pinned versions
+ * are immutable and get a slot of their own, separate from the latest version of the same path.
+ */
+final class PlaceholderTable {
+
+    static final String VAULT_PREFIX = "vault:";
+
+    private final Map<String, Placeholder> placeholders = new ConcurrentHashMap<>();
+    private final Map<SlotKey, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlotId = new AtomicInteger();
+
+    /**
+     * Returns the descriptor for the given placeholder key, parsing and interning it on first use.
+     *
+     * @param key a key starting with {@value #VAULT_PREFIX}
+     * @return the interned descriptor, never null
+     */
+    Placeholder lookup(String key) {
+        Placeholder placeholder = placeholders.get(key);
+        if (placeholder == null) {
+            placeholder = placeholders.computeIfAbsent(key, this::parse);
+        }
+        return placeholder;
+    }
+
+    /**
+     * Returns the cache slot of the given secret path and version if any placeholder refers to it.
+     *
+     * @param path    the Vault logical path of the secret
+     * @param version the pinned version, or 0 for the latest version
+     * @return the slot, or null if no interned placeholder refers to this path and version
+     */
+    Slot slot(String path, int version) {
+        return slots.get(new SlotKey(path, version));
+    }
+
+    /**
+     * Returns the cache slot of the given secret path and version, creating it if no placeholder
+     * referred to it yet.
+     *
+     * @param path    the Vault logical path of the secret
+     * @param version the pinned version, or 0 for the latest version
+     * @return the slot, never null
+     */
+    Slot slotFor(String path, int version) {
+        return slots.computeIfAbsent(new SlotKey(path, version),
+                slotKey -> new Slot(slotKey.path(), slotKey.version(), nextSlotId.getAndIncrement()));
+    }
+
+    /**
+     * @return the number of distinct secret paths referenced by interned placeholders
+     */
+    int slotCount() {
+        return slots.size();
+    }
+
+    private Placeholder parse(String key) {
+        String vaultSpec = key.substring(VAULT_PREFIX.length());  // e.g. "path/to/secret#field"
+        int sepIndex = vaultSpec.indexOf('#');
+        if (sepIndex < 0) {
+            return Placeholder.invalid(key, "Invalid Vault placeholder (missing '#'): " + key);
+        }
+
+        String secretPath = vaultSpec.substring(0, sepIndex);
+        String secretKey = vaultSpec.substring(sepIndex + 1);
+        if (secretPath.isEmpty() || secretKey.isEmpty()) {
+            return Placeholder.invalid(key, "Invalid Vault placeholder format: " + key);
+        }
+
+        int version = 0;
+        int versionIndex = secretKey.lastIndexOf('@');
+        if (versionIndex >= 0 && isVersion(secretKey, versionIndex + 1)) {
+            version = Integer.parseInt(secretKey.substring(versionIndex + 1));
+            secretKey = secretKey.substring(0, versionIndex);
+            if (secretKey.isEmpty() || version == 0) {
+                return Placeholder.invalid(key, "Invalid Vault placeholder format: " + key);
+            }
+        }
+
+        return Placeholder.valid(key, slotFor(secretPath, version), secretKey);
+    }
+
+    private static boolean isVersion(String s, int start) {
+        if (start >= s.length() || s.length() - start > 9) {
+            return false;
+        }
+        for (int i = start; i < s.length(); i++) {
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record SlotKey(String path, int version) {
+    }
+
+    /**
+     * Cache slot holding the key-value data of one secret path and version. The data is published
+     * through a volatile field so readers never need to lock once the slot has been filled.
+     */
+    static final class Slot {
+
+        private final String path;
+        private final int version;
+        private final int id;
+        private volatile Map<String, String> data;
+
+        Slot(String path, int version, int id) {
+            this.path = path;
+            this.version = version;
+            this.id = id;
+        }
+
+        String path() { return path; }
+
+        /**
+         * @return the pinned KV v2 version, or 0 if the slot tracks the latest version
+         */
+        int version() { return version; }
+
+        /**
+         * Pinned versions never change on the Vault side, so their data can be cached indefinitely
+         * and never needs to be refreshed.
+         *
+         * @return true if the slot holds a pinned version
+         */
+        boolean isPinned() { return version > 0; }
+
+        int id() { return id; }
+
+        Map<String, String> data() { return data; }
+
+        void data(Map<String, String> data) { this.data = data; }
+    }
+}
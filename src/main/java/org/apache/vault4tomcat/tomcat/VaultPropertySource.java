@@ -5,26 +5,87 @@ import org.apache.juli.logging.Log;
 import org.apache.juli.logging.LogFactory;
 import org.apache.tomcat.util.IntrospectionUtils;
 import org.apache.vault4tomcat.config.VaultConfig;
+import org.apache.vault4tomcat.core.CompactSecret;
+import org.apache.vault4tomcat.core.SecretCache;
+import org.apache.vault4tomcat.core.SecretRefresher;
 import org.apache.vault4tomcat.core.VaultClient;
+import org.apache.vault4tomcat.core.VaultClientRegistry;
+import org.apache.vault4tomcat.core.VersionedSecret;
 
 import java.io.File;
+import java.lang.ref.Cleaner;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
-public class VaultPropertySource implements IntrospectionUtils.PropertySource {
-    private static final String VAULT_PREFIX = "vault:";
+/**
+ * Resolves {@code vault:<path>#<field>} placeholders of Tomcat's configuration files from Vault.
+ * <p>
+ * Property sources configured alike share one {@link VaultClient}, secret cache and refresher through
+ * the {@link VaultClientRegistry}, so the contexts of a server log in to Vault once and fetch every
+ * secret once. {@link #close()} releases the shared client. Tomcat never closes its property sources,
+ * so the shared client is also released once Tomcat drops the property source and it is garbage
+ * collected, e.g. after a context reload, and closed by the registry when the JVM exits.
+ */
+public final class VaultPropertySource implements IntrospectionUtils.PropertySource, AutoCloseable {
+    private static final String VAULT_PREFIX = PlaceholderTable.VAULT_PREFIX;
     private static final Log log = LogFactory.getLog(VaultPropertySource.class);
 
     private static final String PROPERTY_FILE_RELATIVE_PATH = "/conf/vault.properties";
     private static final String catalinaHome = System.getProperty(Globals.CATALINA_HOME_PROP);
     private static final String catalinaBase = System.getProperty(Globals.CATALINA_BASE_PROP);
+    // Releases the lease of a property source that was dropped without being closed
+    private static final Cleaner CLEANER = Cleaner.create();
 
-    // Cache for secrets: maps a Vault path to its key-value data
-    private final Map<String, Map<String, String>> cache = new ConcurrentHashMap<>();
+    // Interned placeholders, each bound to the cache slot of its secret path
+    private final PlaceholderTable placeholders = new PlaceholderTable();
+    // Compact, deduplicated copies of the fetched secrets referenced by the placeholder slots
+    private final SecretCache cache;
     private final VaultClient vaultClient;
+    // Polls the metadata of cached secrets for new versions, null when refreshing is disabled
+    private final SecretRefresher refresher;
+    // Reference on the client, cache and refresher shared with alike property sources, null in tests
+    private final VaultClientRegistry.Lease lease;
+    // The lease only holds the listener weakly, keep it for as long as this property source is used
+    private final SecretRefresher.Listener listener = this::secretChanged;
+    private final Cleaner.Cleanable cleanable;
 
     // Public no-arg constructor (required by Tomcat)
     public VaultPropertySource() throws Exception {
+        this(loadConfig());
+    }
+
+    private VaultPropertySource(VaultConfig cfg) throws Exception {
+        this(VaultClientRegistry.shared().acquire(cfg));
+        prefetch(cfg.getCachePrefetch());
+    }
+
+    VaultPropertySource(VaultClientRegistry.Lease lease) {
+        this.lease = lease;
+        this.vaultClient = lease.client();
+        this.cache = lease.cache();
+        this.refresher = lease.refresher();
+        lease.onSecretChanged(listener);
+        // The cleaning action must not refer to this property source, the lease does not
+        this.cleanable = CLEANER.register(this, lease::close);
+    }
+
+    //ONLY FOR TESTING PURPOSES
+    public VaultPropertySource(VaultClient vaultClient) {
+        this(vaultClient, 0);
+    }
+
+    //ONLY FOR TESTING PURPOSES, refresh passes are not scheduled and must be triggered through the refresher
+    VaultPropertySource(VaultClient vaultClient, long refreshIntervalSeconds) {
+        this.lease = null;
+        this.cleanable = null;
+        this.cache = new SecretCache();
+        this.vaultClient = vaultClient;
+        this.refresher = refreshIntervalSeconds > 0
+                ? new SecretRefresher(vaultClient, refreshIntervalSeconds, listener)
+                : null;
+    }
+
+    private static VaultConfig loadConfig() throws Exception {
 
         String catalina;
 
@@ -34,14 +95,33 @@ public class VaultPropertySource implements IntrospectionUtils.PropertySource {
             catalina = catalinaBase;
         }
 
-        VaultConfig cfg = new VaultConfig(catalina + PROPERTY_FILE_RELATIVE_PATH);
+        return new VaultConfig(catalina + PROPERTY_FILE_RELATIVE_PATH);
+    }
 
-        this.vaultClient = new VaultClient(cfg);
+    SecretRefresher refresher() {
+        return refresher;
     }
 
-    //ONLY FOR TESTING PURPOSES
-    public VaultPropertySource(VaultClient vaultClient) {
-        this.vaultClient = vaultClient;
+    /**
+     * Fetches the given secret paths on a background thread, overlapping the Vault round trips with
+     * the rest of Tomcat's startup. A placeholder resolved while its path is still being fetched waits
+     * for that fetch instead of issuing a second one.
+     */
+    void prefetch(List<String> paths) {
+        if (paths.isEmpty()) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            for (String path : paths) {
+                try {
+                    load(placeholders.slotFor(path, 0));
+                } catch (Exception e) {
+                    log.warn("Failed to prefetch Vault secret at path: " + path + ": " + e.getMessage());
+                }
+            }
+        }, "vault4tomcat-prefetch");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     @Override
@@ -50,36 +130,25 @@ public class VaultPropertySource implements IntrospectionUtils.PropertySource {
         if (key == null || !key.startsWith(VAULT_PREFIX)) {
             return null;  // not a Vault placeholder
         }
-        String vaultSpec = key.substring(VAULT_PREFIX.length());  // e.g. "path/to/secret#field"
-        int sepIndex = vaultSpec.indexOf('#');
-        if (sepIndex < 0) {
-            log.error("Invalid Vault placeholder (missing '#'): " + key);
-            return null;
-        }
-
-        String secretPath = vaultSpec.substring(0, sepIndex);
-        String secretKey = vaultSpec.substring(sepIndex + 1);
-        if (secretPath.isEmpty() || secretKey.isEmpty()) {
-            log.error("Invalid Vault placeholder format: " + key);
+        Placeholder placeholder = placeholders.lookup(key);
+        if (!placeholder.isValid()) {
+            log.error(placeholder.error());
             return null;
         }
 
         try {
-            // Check cache for this secret path
-            Map<String, String> secretData = cache.get(secretPath);
+            // Check the cache slot of this secret path
+            Map<String, String> secretData = placeholder.slot().data();
             if (secretData == null) {
-                // Not cached yet, retrieve from Vault
-                secretData = vaultClient.getSecret(secretPath);
+                secretData = load(placeholder.slot());
                 if (secretData == null) {
-                    log.error("Vault secret not found at path: " + secretPath);
                     return null;
                 }
-                cache.put(secretPath, secretData);  // cache the fetched secret
             }
             // Look up the specific key in the secret data
-            String value = secretData.get(secretKey);
+            String value = secretData.get(placeholder.field());
             if (value == null) {
-                log.error("Vault secret key '" + secretKey + "' not found in path: " + secretPath);
+                log.error("Vault secret key '" + placeholder.field() + "' not found in path: " + placeholder.slot().path());
             }
             return value;
         } catch (Exception e) {
@@ -88,4 +157,58 @@ public class VaultPropertySource implements IntrospectionUtils.PropertySource {
             return null;
         }
     }
+
+    private Map<String, String> load(PlaceholderTable.Slot slot) throws Exception {
+        // Placeholders of the same path share the slot, so only one of them fetches it from Vault
+        synchronized (slot) {
+            Map<String, String> secretData = slot.data();
+            if (secretData == null) {
+                // Another property source sharing the cache may have fetched it already
+                CompactSecret cached = cache.get(slot.path(), slot.version());
+                if (cached != null) {
+                    slot.data(cached);
+                    return cached;
+                }
+                // Not cached yet, retrieve from Vault
+                if (slot.isPinned()) {
+                    secretData = vaultClient.getSecret(slot.path(), slot.version());
+                } else if (refresher != null) {
+                    // Remember the version so that the refresher only re-reads the secret once it changes
+                    VersionedSecret secret = vaultClient.getVersionedSecret(slot.path());
+                    secretData = secret != null ? secret.data() : null;
+                    if (secretData != null) {
+                        refresher.track(slot.path(), secret.version());
+                    }
+                } else {
+                    secretData = vaultClient.getSecret(slot.path());
+                }
+                if (secretData == null) {
+                    log.error("Vault secret not found at path: " + slot.path()
+                            + (slot.isPinned() ? " (version " + slot.version() + ")" : ""));
+                    return null;
+                }
+                secretData = cache.put(slot.path(), slot.version(), secretData);
+                slot.data(secretData);  // cache the fetched secret
+            }
+            return secretData;
+        }
+    }
+
+    private void secretChanged(String path, VersionedSecret secret) {
+        PlaceholderTable.Slot slot = placeholders.slot(path, 0);
+        if (slot != null && secret.data() != null) {
+            slot.data(cache.put(path, 0, secret.data()));
+            log.info("Refreshed Vault secret at path: " + path + " (version " + secret.version() + ")");
+        }
+    }
+
+    /**
+     * Releases the shared Vault client, which is closed once no property source uses it anymore.
+     */
+    @Override
+    public void close() {
+        if (cleanable != null) {
+            cleanable.clean();
+        }
+    }
 }
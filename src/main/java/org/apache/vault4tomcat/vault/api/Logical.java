@@ -47,6 +47,27 @@ public class Logical {
         return read(path, "readV2");
     }
 
+    /**
+     * Reads a specific version of a secret from Vault using the KV v2 engine.
+     *@param path the Vault secret path (e.g. "secret/myapp")
+     *@param version the version to read, or 0 for the latest version
+     *@return the parsed response from Vault
+     *@throws VaultException if the request fails or Vault returns a non-200 response
+     */
+    public LogicalResponse read(final String path, final int version) throws VaultException {
+        return LogicalUtilities.readV2(path, version, config, nameSpace);
+    }
+
+    /**
+     * Reads the KV v2 metadata of a secret (current version, version history) without its data.
+     *@param path the Vault secret path (e.g. "secret/myapp")
+     *@return the parsed response from Vault, carrying the metadata only
+     *@throws VaultException if the request fails or Vault returns a non-200 response
+     */
+    public LogicalResponse readMetadata(final String path) throws VaultException {
+        return LogicalUtilities.readMetadataV2(path, config, nameSpace);
+    }
+
     /**
      * Internal method to perform the actual read operation.
      * This will call the underlying REST client and parse the logical response.
@@ -59,6 +80,66 @@ public class Logical {
         return LogicalUtilities.readV2(path, config, nameSpace);
     }
 
+    /**
+     * Renews the lease of the token this Logical instance authenticates with.
+     *@return the parsed "auth" block of the response, holding the renewed lease duration
+     *@throws VaultException if the request fails or Vault returns a non-200 response
+     */
+    public LogicalResponse renewSelf() throws VaultException {
+        return LogicalUtilities.renewSelf(config, nameSpace);
+    }
+
+    /**
+     * Looks up the token this Logical instance authenticates with.
+     *@return the parsed "data" block of the response, holding the remaining "ttl" of the token
+     *@throws VaultException if the token is not valid or Vault returns a non-200 response
+     */
+    public LogicalResponse lookupSelf() throws VaultException {
+        return LogicalUtilities.lookupSelf(config, nameSpace);
+    }
+
+    /**
+     * Revokes the given token, which need not be the one this Logical instance authenticates with.
+     *@param token the token to revoke
+     *@throws VaultException if the request fails or Vault returns a non-2xx response
+     */
+    public void revokeSelf(final String token) throws VaultException {
+        LogicalUtilities.revokeSelf(config, token, nameSpace);
+    }
+
+    /**
+     * Queries the unauthenticated health endpoint, opening a pooled connection to Vault.
+     *@throws VaultException if Vault cannot be reached or reports an unhealthy state
+     */
+    public void health() throws VaultException {
+        LogicalUtilities.health(config);
+    }
+
+    /**
+     * Logs in with a JWT (e.g. a Kubernetes service account token) through the JWT or Kubernetes auth
+     * method mounted at the given path.
+     *@param mount the mount path of the auth method, e.g. "kubernetes"
+     *@param role  the role to log in with
+     *@param jwt   the signed JWT
+     *@return the parsed "auth" block of the response
+     *@throws VaultException if the login fails
+     */
+    public LogicalResponse jwtLogin(final String mount, final String role, final String jwt) throws VaultException {
+        return LogicalUtilities.jwtLogin(config, mount, role, jwt);
+    }
+
+    /**
+     * Logs in with the client certificate of the TLS connection through the certificate auth method
+     * mounted at the given path.
+     *@param mount the mount path of the auth method, e.g. "cert"
+     *@param name  the certificate role to log in with, or null to let Vault match any role
+     *@return the parsed "auth" block of the response
+     *@throws VaultException if the login fails
+     */
+    public LogicalResponse certLogin(final String mount, final String name) throws VaultException {
+        return LogicalUtilities.certLogin(config, mount, name);
+    }
+
     public LogicalResponse login(final String roleId, final String secretId) throws VaultException {
         return LogicalUtilities.appRoleLogin(config, roleId, secretId);
     }
@@ -2,6 +2,7 @@ package org.apache.vault4tomcat.vault.api;
 
 import org.apache.vault4tomcat.config.VaultConfig;
 import org.apache.vault4tomcat.vault.VaultException;
+import org.apache.vault4tomcat.vault.json.Utf8JsonWriter;
 import org.apache.vault4tomcat.vault.response.LogicalResponse;
 import org.apache.vault4tomcat.vault.rest.VaultHttpClient;
 import org.apache.vault4tomcat.vault.rest.RestException;
@@ -26,11 +27,28 @@ public class LogicalUtilities {
      */
     public static LogicalResponse readV2(final String path, final VaultConfig config, final String nameSpace)
             throws VaultException {
+        return readV2(path, 0, config, nameSpace);
+    }
 
-        final String endpoint = "/v1/" + pathPrefix(path) + "/data/" + cleanPath(path);
+    /**
+     * Reads a specific version of a secret using the KV v2 engine.
+     * @param path       The logical path to the secret (e.g., "secret/myapp").
+     * @param version    The version to read, or 0 for the latest version.
+     * @param config     Vault configuration (includes token, address, etc.).
+     * @param nameSpace  Optional Vault namespace (Vault Enterprise).
+     * @return LogicalResponse containing the secret data and metadata.
+     * @throws VaultException if the secret cannot be retrieved.
+     */
+    public static LogicalResponse readV2(final String path, final int version, final VaultConfig config,
+                                         final String nameSpace) throws VaultException {
+
+        String endpoint = "/v1/" + pathPrefix(path) + "/data/" + cleanPath(path);
+        if (version > 0) {
+            endpoint += "?version=" + version;
+        }
 
         try {
-            final VaultHttpClient vaultHttpClient = new VaultHttpClient()
+            final VaultHttpClient vaultHttpClient = new VaultHttpClient(config.getHttpClient())
                     .url(config.getAddress() + endpoint)
                     .header("X-Vault-Token", config.getToken())
                     .header("X-Vault-Request", "true")
@@ -44,7 +62,40 @@ public class LogicalUtilities {
             final RestResponse response = vaultHttpClient.get();
             return new LogicalResponse(response, "readV2");
         } catch (RestException e) {
-            throw new VaultException("Failed to read secret at path: " + path + " " + e);
+            throw new VaultException("Failed to read secret at path: " + path + " " + e, e.getStatus());
+        }
+    }
+
+    /**
+     * Reads the metadata of a secret using the KV v2 engine. This is much cheaper than reading the
+     * secret itself and is enough to find out whether a new version has been written.
+     * @param path       The logical path to the secret (e.g., "secret/myapp").
+     * @param config     Vault configuration (includes token, address, etc.).
+     * @param nameSpace  Optional Vault namespace (Vault Enterprise).
+     * @return LogicalResponse whose metadata holds current_version and related fields.
+     * @throws VaultException if the metadata cannot be retrieved.
+     */
+    public static LogicalResponse readMetadataV2(final String path, final VaultConfig config, final String nameSpace)
+            throws VaultException {
+
+        final String endpoint = "/v1/" + pathPrefix(path) + "/metadata/" + cleanPath(path);
+
+        try {
+            final VaultHttpClient vaultHttpClient = new VaultHttpClient(config.getHttpClient())
+                    .url(config.getAddress() + endpoint)
+                    .header("X-Vault-Token", config.getToken())
+                    .header("X-Vault-Request", "true")
+                    .connectTimeoutSeconds(config.getOpenTimeout())
+                    .readTimeoutSeconds(config.getReadTimeout());
+
+            if (nameSpace != null && !nameSpace.isEmpty()) {
+                vaultHttpClient.header("X-Vault-Namespace", nameSpace);
+            }
+
+            final RestResponse response = vaultHttpClient.get();
+            return new LogicalResponse(response, "readMetadata");
+        } catch (RestException e) {
+            throw new VaultException("Failed to read secret metadata at path: " + path + " " + e, e.getStatus());
         }
     }
 
@@ -73,22 +124,68 @@ public class LogicalUtilities {
         final String endpoint = "/v1/" + "auth/approle/login";
 
         try {
-            final VaultHttpClient vaultHttpClient = new VaultHttpClient()
+            final VaultHttpClient vaultHttpClient = new VaultHttpClient(config.getHttpClient())
                     .url(config.getAddress() + endpoint)
                     .header("Content-Type", "application/json")
                     .connectTimeoutSeconds(config.getOpenTimeout())
                     .readTimeoutSeconds(config.getReadTimeout());
 
-            StringBuilder body = new StringBuilder();
-            body.append("{\"role_id\":\"").append(escapeJson(roleId)).append("\"");
+            final Utf8JsonWriter body = new Utf8JsonWriter().beginObject().name("role_id").value(roleId);
             if (secretId != null && !secretId.isEmpty()) {
-                body.append(",\"secret_id\":\"").append(escapeJson(secretId)).append("\"");
+                body.name("secret_id").value(secretId);
             }
-            body.append("}");
-            final RestResponse response = vaultHttpClient.post(body.toString());
+            body.endObject();
+            final RestResponse response = post(vaultHttpClient, body);
             return new LogicalResponse(response, "login");
         } catch (RestException e) {
-            throw new VaultException("Failed to login with the provided approle id and secret " + e);
+            throw new VaultException("Failed to login with the provided approle id and secret " + e, e.getStatus());
+        }
+    }
+
+    public static LogicalResponse certLogin(final VaultConfig config, final String mount, final String name)
+            throws VaultException {
+        final String endpoint = "/v1/" + "auth/" + mount + "/login";
+
+        try {
+            // The shared client presents the configured client certificate during the handshake
+            final VaultHttpClient vaultHttpClient = new VaultHttpClient(config.getHttpClient())
+                    .url(config.getAddress() + endpoint)
+                    .header("Content-Type", "application/json")
+                    .connectTimeoutSeconds(config.getOpenTimeout())
+                    .readTimeoutSeconds(config.getReadTimeout());
+
+            final Utf8JsonWriter body = new Utf8JsonWriter().beginObject();
+            if (name != null && !name.isEmpty()) {
+                body.name("name").value(name);
+            }
+            body.endObject();
+            final RestResponse response = post(vaultHttpClient, body);
+            return new LogicalResponse(response, "login");
+        } catch (RestException e) {
+            throw new VaultException("Certificate login to Vault (" + mount + ") failed: " + e.getMessage(), e.getStatus());
+        }
+    }
+
+    public static LogicalResponse jwtLogin(final VaultConfig config, final String mount, final String role,
+                                           final String jwt) throws VaultException {
+        final String endpoint = "/v1/" + "auth/" + mount + "/login";
+
+        try {
+            final VaultHttpClient vaultHttpClient = new VaultHttpClient(config.getHttpClient())
+                    .url(config.getAddress() + endpoint)
+                    .header("Content-Type", "application/json")
+                    .connectTimeoutSeconds(config.getOpenTimeout())
+                    .readTimeoutSeconds(config.getReadTimeout());
+
+            final Utf8JsonWriter body = new Utf8JsonWriter()
+                    .beginObject()
+                    .name("role").value(role)
+                    .name("jwt").value(jwt)
+                    .endObject();
+            final RestResponse response = post(vaultHttpClient, body);
+            return new LogicalResponse(response, "login");
+        } catch (RestException e) {
+            throw new VaultException("JWT login to Vault (" + mount + ") failed: " + e.getMessage(), e.getStatus());
         }
     }
 
@@ -98,27 +195,142 @@ public class LogicalUtilities {
         final String endpoint = "/v1/" + "auth/aws/login";
 
         try {
-            final VaultHttpClient vaultHttpClient = new VaultHttpClient()
+            final VaultHttpClient vaultHttpClient = new VaultHttpClient(config.getHttpClient())
                     .url(config.getAddress() + endpoint)
                     .header("Content-Type", "application/json")
                     .connectTimeoutSeconds(config.getOpenTimeout())
                     .readTimeoutSeconds(config.getReadTimeout());
 
-            String body = "{\"role\":\"" + escapeJson(role) + "\"" +
-                    ",\"iam_http_request_method\":\"POST\"" +
-                    ",\"iam_request_url\":\"" + urlB64 + "\"" +
-                    ",\"iam_request_body\":\"" + bodyB64 + "\"" +
-                    ",\"iam_request_headers\":\"" + headersB64 + "\" }";
+            final Utf8JsonWriter body = new Utf8JsonWriter()
+                    .beginObject()
+                    .name("role").value(role)
+                    .name("iam_http_request_method").value("POST")
+                    .name("iam_request_url").value(urlB64)
+                    .name("iam_request_body").value(bodyB64)
+                    .name("iam_request_headers").value(headersB64)
+                    .endObject();
+            final RestResponse response = post(vaultHttpClient, body);
+            return new LogicalResponse(response, "login");
+        } catch (RestException e) {
+            throw new VaultException("AWS IAM login to Vault failed: " + e.getMessage(), e.getStatus());
+        }
+    }
+
+    /**
+     * Renews the lease of the token currently set in the configuration.
+     * @param config     Vault configuration (includes token, address, etc.).
+     * @param nameSpace  Optional Vault namespace (Vault Enterprise).
+     * @return LogicalResponse whose data holds the "auth" block with the renewed lease.
+     * @throws VaultException if the token cannot be renewed.
+     */
+    public static LogicalResponse renewSelf(final VaultConfig config, final String nameSpace) throws VaultException {
+        final String endpoint = "/v1/" + "auth/token/renew-self";
+
+        try {
+            final VaultHttpClient vaultHttpClient = new VaultHttpClient(config.getHttpClient())
+                    .url(config.getAddress() + endpoint)
+                    .header("X-Vault-Token", config.getToken())
+                    .header("X-Vault-Request", "true")
+                    .connectTimeoutSeconds(config.getOpenTimeout())
+                    .readTimeoutSeconds(config.getReadTimeout());
+
+            if (nameSpace != null && !nameSpace.isEmpty()) {
+                vaultHttpClient.header("X-Vault-Namespace", nameSpace);
+            }
 
-            final RestResponse response = vaultHttpClient.post(body);
+            final RestResponse response = post(vaultHttpClient, new Utf8JsonWriter(16).beginObject().endObject());
             return new LogicalResponse(response, "login");
         } catch (RestException e) {
-            throw new VaultException("AWS IAM login to Vault failed: " + e.getMessage());
+            throw new VaultException("Failed to renew the Vault token: " + e.getMessage(), e.getStatus());
+        }
+    }
+
+    /**
+     * Looks up the token currently set in the configuration.
+     * @param config     Vault configuration (includes token, address, etc.).
+     * @param nameSpace  Optional Vault namespace (Vault Enterprise).
+     * @return LogicalResponse whose data holds the token properties, including its remaining "ttl".
+     * @throws VaultException if the token is not valid anymore.
+     */
+    public static LogicalResponse lookupSelf(final VaultConfig config, final String nameSpace) throws VaultException {
+        final String endpoint = "/v1/" + "auth/token/lookup-self";
+
+        try {
+            final VaultHttpClient vaultHttpClient = new VaultHttpClient(config.getHttpClient())
+                    .url(config.getAddress() + endpoint)
+                    .header("X-Vault-Token", config.getToken())
+                    .header("X-Vault-Request", "true")
+                    .connectTimeoutSeconds(config.getOpenTimeout())
+                    .readTimeoutSeconds(config.getReadTimeout());
+
+            if (nameSpace != null && !nameSpace.isEmpty()) {
+                vaultHttpClient.header("X-Vault-Namespace", nameSpace);
+            }
+
+            final RestResponse response = vaultHttpClient.get();
+            return new LogicalResponse(response, "lookupSelf");
+        } catch (RestException e) {
+            throw new VaultException("Failed to look up the Vault token: " + e.getMessage(), e.getStatus());
         }
     }
 
-    protected static String escapeJson(String s) {
-        if (s == null) return "";
-        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    /**
+     * Revokes the given token, e.g. one obtained by a login whose result is not used.
+     * @param config     Vault configuration (includes address, timeouts, etc.).
+     * @param token      The token to revoke, which authenticates the request itself.
+     * @param nameSpace  Optional Vault namespace (Vault Enterprise).
+     * @throws VaultException if the token cannot be revoked.
+     */
+    public static void revokeSelf(final VaultConfig config, final String token, final String nameSpace)
+            throws VaultException {
+        final String endpoint = "/v1/" + "auth/token/revoke-self";
+
+        try {
+            final VaultHttpClient vaultHttpClient = new VaultHttpClient(config.getHttpClient())
+                    .url(config.getAddress() + endpoint)
+                    .header("X-Vault-Token", token)
+                    .header("X-Vault-Request", "true")
+                    .connectTimeoutSeconds(config.getOpenTimeout())
+                    .readTimeoutSeconds(config.getReadTimeout());
+
+            if (nameSpace != null && !nameSpace.isEmpty()) {
+                vaultHttpClient.header("X-Vault-Namespace", nameSpace);
+            }
+
+            post(vaultHttpClient, new Utf8JsonWriter(16).beginObject().endObject());
+        } catch (RestException e) {
+            throw new VaultException("Failed to revoke the Vault token: " + e.getMessage(), e.getStatus());
+        }
+    }
+
+    /**
+     * Queries the unauthenticated health endpoint. Used to open a pooled connection to Vault (including
+     * the TLS handshake) ahead of the first read.
+     * @param config     Vault configuration (includes address, timeouts, etc.).
+     * @throws VaultException if Vault cannot be reached or reports an unhealthy state.
+     */
+    public static void health(final VaultConfig config) throws VaultException {
+        final String endpoint = "/v1/" + "sys/health";
+
+        try {
+            new VaultHttpClient(config.getHttpClient())
+                    .url(config.getAddress() + endpoint)
+                    .connectTimeoutSeconds(config.getOpenTimeout())
+                    .readTimeoutSeconds(config.getReadTimeout())
+                    .get();
+        } catch (RestException e) {
+            throw new VaultException("Vault health check failed: " + e.getMessage(), e.getStatus());
+        }
+    }
+
+    /**
+     * Posts the JSON document of the writer, whose buffer is handed to the transport as is.
+     * @param client The request to send.
+     * @param body   The writer holding the body.
+     * @return The response.
+     * @throws RestException if the request fails.
+     */
+    private static RestResponse post(final VaultHttpClient client, final Utf8JsonWriter body) throws RestException {
+        return client.post(body.buffer(), 0, body.size());
     }
 }
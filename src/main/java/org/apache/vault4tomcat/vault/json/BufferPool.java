@@ -0,0 +1,115 @@
+package org.apache.vault4tomcat.vault.json;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Small lock-free pool of buffers, so that parsing and writing at a high rate reuse the buffers of
+ * the previous calls instead of allocating new ones.
+ * <p>
+ * The pool is a fixed array of slots taken and filled with compare-and-set, starting at a slot picked
+ * from the id of the calling thread to spread threads over the slots. It neither blocks nor relies
+ * on thread-locals, so it suits virtual threads, of which there can be many more than slots. When
+ * every slot is empty a new buffer is created, and when every slot is full a released buffer is left
+ * to the garbage collector.
+ *
+ * @param <T> the type of the buffers
+ */
+final class BufferPool<T> {
+
+    // Buffers that grew beyond that many chars are not kept, so that one large document does not pin memory
+    static final int MAX_POOLED_CHARS = 16 * 1024;
+
+    private final AtomicReferenceArray<T> slots;
+    private final Supplier<T> factory;
+
+    BufferPool(Supplier<T> factory) {
+        this(defaultSize(), factory);
+    }
+
+    BufferPool(int size, Supplier<T> factory) {
+        this.slots = new AtomicReferenceArray<>(size);
+        this.factory = factory;
+    }
+
+    private static int defaultSize() {
+        // Twice the processors, rounded up to a power of two, between 4 and 64
+        int size = Integer.highestOneBit(Math.max(2, Runtime.getRuntime().availableProcessors()) * 4 - 1);
+        return Math.min(64, size);
+    }
+
+    /**
+     * @return a pooled buffer, or a new one if none is available
+     */
+    T acquire() {
+        int length = slots.length();
+        int start = start(length);
+        for (int i = 0; i < length; i++) {
+            int slot = (start + i) % length;
+            T buffer = slots.get(slot);
+            if (buffer != null && slots.compareAndSet(slot, buffer, null)) {
+                return buffer;
+            }
+        }
+        return factory.get();
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used anymore by the caller.
+     *
+     * @param buffer the buffer, reset by the caller
+     */
+    void release(T buffer) {
+        int length = slots.length();
+        int start = start(length);
+        for (int i = 0; i < length; i++) {
+            int slot = (start + i) % length;
+            if (slots.get(slot) == null && slots.compareAndSet(slot, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the number of buffers in the pool
+     */
+    int size() {
+        int size = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Overwrites the whole backing array of a builder with zeros and empties it, before the builder
+     * goes back to a pool. Setting the length to zero only moves the end, the characters of the
+     * previous document would stay in the array; growing the length again fills it with zeros.
+     *
+     * @param chars the builder to wipe
+     */
+    static void wipe(StringBuilder chars) {
+        chars.setLength(0);
+        chars.setLength(chars.capacity());
+        chars.setLength(0);
+    }
+
+    /**
+     * Overwrites the content of the buffer of a StringWriter with zeros and empties it. A StringWriter
+     * only appends, so nothing was written beyond the current length.
+     *
+     * @param chars the buffer to wipe
+     */
+    static void wipe(StringBuffer chars) {
+        int used = chars.length();
+        chars.setLength(0);
+        chars.setLength(used);
+        chars.setLength(0);
+    }
+
+    private static int start(int length) {
+        return (int) (Thread.currentThread().threadId() % length);
+    }
+}
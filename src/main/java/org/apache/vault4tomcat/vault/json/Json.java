@@ -23,8 +23,14 @@ package org.apache.vault4tomcat.vault.json;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -58,23 +64,140 @@ import java.util.Map;
 public final class Json {
 
     /**
-     * Parses a JSON string into a generic map structure.
+     * Parses a JSON string into a generic map structure. String values are unescaped, null values are
+     * mapped to <code>null</code> and all other values to their JSON text. Use
+     * {@link #decodeObject(byte[])} for native Java values.
      *
      * @param json the JSON string
      * @return a map representation of the JSON object
      * @throws IOException if parsing fails
      */
     public static Map<String, Object> decode(String json) throws IOException {
-        JsonParser parser = new JsonParser(json);
-        JsonObject jsonObject = parser.parse().asObject();
+        JsonObject jsonObject = JsonParser.parse(new StringReader(json)).asObject();
         Map<String, Object> result = new HashMap<>();
-        for (String name : jsonObject.names()) {
-            JsonValue value = jsonObject.get(name);
-            result.put(name, value.isNull() ? null : value.toString().replaceAll("^\"|\"$", ""));
+        for (JsonObject.Member member : jsonObject) {
+            JsonValue value = member.getValue();
+            result.put(member.getName(), value.isNull() ? null : value.isString() ? value.asString() : value.toString());
         }
         return result;
     }
 
+    /**
+     * Decodes a UTF-8 encoded JSON object into native Java values in a single pass over its tokens,
+     * without building a tree. See {@link #decodeValue(byte[])} for the mapping of the values.
+     *
+     * @param utf8 the UTF-8 encoded input, must be a valid JSON object
+     * @return the members of the object, in document order
+     * @throws ParseException if the input is not valid JSON
+     * @throws UnsupportedOperationException if the input is not an object
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> decodeObject(byte[] utf8) {
+        Object value = decodeValue(utf8);
+        if (!(value instanceof Map)) {
+            throw new UnsupportedOperationException("Not an object: " + value);
+        }
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * Decodes UTF-8 encoded JSON into native Java values in a single pass over its tokens, without
+     * building a tree. Objects are mapped to a {@link LinkedHashMap} in document order, arrays to a
+     * {@link List}, strings to {@link String}, integers that fit to {@link Long} and all other
+     * numbers to {@link BigDecimal}, booleans to {@link Boolean} and <code>null</code> to
+     * <code>null</code>.
+     *
+     * @param utf8 the UTF-8 encoded input, must be valid JSON
+     * @return the decoded value
+     * @throws ParseException if the input is not valid JSON
+     */
+    public static Object decodeValue(byte[] utf8) {
+        if (utf8 == null) {
+            throw new NullPointerException("utf8 is null");
+        }
+        JsonReader reader = new JsonReader(utf8);
+        Object value = decodeNext(reader);
+        // Rejects anything after the value
+        reader.peek();
+        return value;
+    }
+
+    /**
+     * Converts a parsed value to native Java values, with the same mapping as
+     * {@link #decodeValue(byte[])}.
+     *
+     * @param value the value to convert
+     * @return the converted value
+     */
+    public static Object toJava(JsonValue value) {
+        if (value == null) {
+            throw new NullPointerException("value is null");
+        }
+        if (value.isObject()) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (JsonObject.Member member : value.asObject()) {
+                map.put(member.getName(), toJava(member.getValue()));
+            }
+            return map;
+        }
+        if (value.isArray()) {
+            List<Object> list = new ArrayList<>(value.asArray().size());
+            for (JsonValue element : value.asArray()) {
+                list.add(toJava(element));
+            }
+            return list;
+        }
+        if (value.isString()) {
+            return value.asString();
+        }
+        if (value.isNumber()) {
+            return decodeNumber(value.toString());
+        }
+        return value.isNull() ? null : value.asBoolean();
+    }
+
+    private static Object decodeNext(JsonReader reader) {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                Map<String, Object> map = new LinkedHashMap<>();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    map.put(reader.nextName(), decodeNext(reader));
+                }
+                reader.endObject();
+                return map;
+            case BEGIN_ARRAY:
+                List<Object> list = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    list.add(decodeNext(reader));
+                }
+                reader.endArray();
+                return list;
+            case STRING:
+                return reader.nextString();
+            case NUMBER:
+                return decodeNumber(reader.nextNumber());
+            case BOOLEAN:
+                return reader.nextBoolean();
+            default:
+                reader.nextNull();
+                return null;
+        }
+    }
+
+    private static Number decodeNumber(String text) {
+        boolean integral = text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0;
+        // Up to 18 digits always fit in a long
+        if (integral && text.length() <= 18) {
+            return Long.parseLong(text);
+        }
+        BigDecimal number = new BigDecimal(text);
+        if (integral && number.unscaledValue().bitLength() < Long.SIZE) {
+            return number.longValue();
+        }
+        return number;
+    }
 
     private Json() {
         // not meant to be instantiated
@@ -311,13 +434,126 @@ public final class Json {
             throw new NullPointerException("string is null");
         }
         try {
-            return new JsonParser(string).parse();
+            return JsonParser.parse(new StringReader(string));
         } catch (IOException exception) {
             // JsonParser does not throw IOException for String
             throw new RuntimeException(exception);
         }
     }
 
+    /**
+     * Parses the given UTF-8 encoded bytes as JSON, without decoding the input into a string first.
+     * The input must contain a valid JSON value, optionally padded with whitespace.
+     *
+     * @param utf8 the UTF-8 encoded input, must be valid JSON
+     * @return a value that represents the parsed JSON
+     * @throws ParseException if the input is not valid JSON
+     */
+    public static JsonValue parse(byte[] utf8) {
+        if (utf8 == null) {
+            throw new NullPointerException("utf8 is null");
+        }
+        return new Utf8JsonParser(utf8, 0, utf8.length).parse();
+    }
+
+    /**
+     * Parses the given UTF-8 encoded bytes as JSON, building objects that share their names and index
+     * with the objects of the same structure already parsed with the given cache.
+     *
+     * @param utf8   the UTF-8 encoded input, must be valid JSON
+     * @param shapes the cache of the shapes of the objects
+     * @return a value that represents the parsed JSON
+     * @throws ParseException if the input is not valid JSON
+     */
+    public static JsonValue parse(byte[] utf8, JsonShapeCache shapes) {
+        if (utf8 == null) {
+            throw new NullPointerException("utf8 is null");
+        }
+        if (shapes == null) {
+            throw new NullPointerException("shapes is null");
+        }
+        return new Utf8JsonParser(utf8, 0, utf8.length, shapes).parse();
+    }
+
+    /**
+     * Parses the given UTF-8 encoded bytes as JSON into a lazy tree. The whole input is checked, but
+     * strings and numbers are kept as ranges of the input and only decoded when they are first
+     * accessed, so that the values that are never read cost no allocation beyond their node. Lazy
+     * values are equal to, and serialized like, the values of an eagerly parsed tree.
+     * <p>
+     * The tree keeps a reference to the input, which must not be modified while the tree is in use.
+     *
+     * @param utf8 the UTF-8 encoded input, must be valid JSON
+     * @return a value that represents the parsed JSON
+     * @throws ParseException if the input is not valid JSON
+     */
+    public static JsonValue parseLazy(byte[] utf8) {
+        if (utf8 == null) {
+            throw new NullPointerException("utf8 is null");
+        }
+        return new Utf8JsonParser(utf8, 0, utf8.length, null, true).parse();
+    }
+
+    /**
+     * Parses the given UTF-8 encoded bytes as JSON into a lazy tree, whose objects share their names
+     * and index with the objects of the same structure already parsed with the given cache. See
+     * {@link #parseLazy(byte[])} and {@link #parse(byte[], JsonShapeCache)}.
+     *
+     * @param utf8   the UTF-8 encoded input, must be valid JSON
+     * @param shapes the cache of the shapes of the objects
+     * @return a value that represents the parsed JSON
+     * @throws ParseException if the input is not valid JSON
+     */
+    public static JsonValue parseLazy(byte[] utf8, JsonShapeCache shapes) {
+        if (utf8 == null) {
+            throw new NullPointerException("utf8 is null");
+        }
+        if (shapes == null) {
+            throw new NullPointerException("shapes is null");
+        }
+        return new Utf8JsonParser(utf8, 0, utf8.length, shapes, true).parse();
+    }
+
+    /**
+     * Parses a range of the given UTF-8 encoded bytes as JSON.
+     *
+     * @param utf8   the UTF-8 encoded input
+     * @param offset the index of the first byte of the JSON value
+     * @param length the number of bytes of the JSON value
+     * @return a value that represents the parsed JSON
+     * @throws ParseException if the range is not valid JSON
+     */
+    public static JsonValue parse(byte[] utf8, int offset, int length) {
+        if (utf8 == null) {
+            throw new NullPointerException("utf8 is null");
+        }
+        if (offset < 0 || length < 0 || offset > utf8.length - length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", size " + utf8.length);
+        }
+        return new Utf8JsonParser(utf8, offset, length).parse();
+    }
+
+    /**
+     * Parses the remaining UTF-8 encoded bytes of the given buffer as JSON. The position of the
+     * buffer is left unchanged. Heap buffers are parsed in place, the content of direct buffers is
+     * copied to the heap first.
+     *
+     * @param utf8 the buffer holding the UTF-8 encoded input between its position and limit
+     * @return a value that represents the parsed JSON
+     * @throws ParseException if the input is not valid JSON
+     */
+    public static JsonValue parse(ByteBuffer utf8) {
+        if (utf8 == null) {
+            throw new NullPointerException("utf8 is null");
+        }
+        if (utf8.hasArray()) {
+            return new Utf8JsonParser(utf8.array(), utf8.arrayOffset() + utf8.position(), utf8.remaining()).parse();
+        }
+        byte[] copy = new byte[utf8.remaining()];
+        utf8.get(utf8.position(), copy);
+        return new Utf8JsonParser(copy, 0, copy.length).parse();
+    }
+
     /**
      * Reads the entire input stream from the given reader and parses it as JSON. The input must
      * contain a valid JSON value, optionally padded with whitespace.
@@ -336,7 +572,7 @@ public final class Json {
         if (reader == null) {
             throw new NullPointerException("reader is null");
         }
-        return new JsonParser(reader).parse();
+        return JsonParser.parse(reader);
     }
 
     private static String cutOffPointZero(String string) {
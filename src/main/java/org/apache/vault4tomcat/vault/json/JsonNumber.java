@@ -22,6 +22,7 @@
 package org.apache.vault4tomcat.vault.json;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 
 @SuppressWarnings({"serial", "PMD"}) // use default serial UID
@@ -36,6 +37,11 @@ class JsonNumber extends JsonValue {
         this.string = string;
     }
 
+    // For Lazy, which holds its own text
+    private JsonNumber() {
+        this.string = null;
+    }
+
     @Override
     public String toString() {
         return string;
@@ -43,7 +49,7 @@ class JsonNumber extends JsonValue {
 
     @Override
     void write(JsonWriter writer) throws IOException {
-        writer.writeNumber(string);
+        writer.writeNumber(toString());
     }
 
     @Override
@@ -53,27 +59,27 @@ class JsonNumber extends JsonValue {
 
     @Override
     public int asInt() {
-        return Integer.parseInt(string, 10);
+        return Integer.parseInt(toString(), 10);
     }
 
     @Override
     public long asLong() {
-        return Long.parseLong(string, 10);
+        return Long.parseLong(toString(), 10);
     }
 
     @Override
     public float asFloat() {
-        return Float.parseFloat(string);
+        return Float.parseFloat(toString());
     }
 
     @Override
     public double asDouble() {
-        return Double.parseDouble(string);
+        return Double.parseDouble(toString());
     }
 
     @Override
     public int hashCode() {
-        return string.hashCode();
+        return toString().hashCode();
     }
 
     @Override
@@ -84,11 +90,44 @@ class JsonNumber extends JsonValue {
         if (object == null) {
             return false;
         }
-        if (getClass() != object.getClass()) {
+        if (!(object instanceof JsonNumber)) {
             return false;
         }
         JsonNumber other = (JsonNumber) object;
-        return string.equals(other.string);
+        return toString().equals(other.toString());
+    }
+
+    /**
+     * A number of a document parsed lazily, kept as a range of the UTF-8 input and turned into text on
+     * first access. The input must not change as long as the value is in use. Serialized as a regular
+     * number.
+     */
+    static final class Lazy extends JsonNumber {
+
+        private final transient byte[] input;
+        private final transient int offset;
+        private final transient int length;
+        private transient String text;
+
+        Lazy(byte[] input, int offset, int length) {
+            this.input = input;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public String toString() {
+            String string = text;
+            if (string == null) {
+                // Racy but safe, any thread creates the same immutable text
+                text = string = new String(input, offset, length, StandardCharsets.ISO_8859_1);
+            }
+            return string;
+        }
+
+        private Object writeReplace() {
+            return new JsonNumber(toString());
+        }
     }
 
 }
@@ -27,6 +27,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -63,15 +65,29 @@ import java.util.List;
  * may lead to an inconsistent state.
  * </p>
  * <p>
+ * Members are found by name through a small hash table for small objects, and through a growable
+ * open-addressing index once an object has more than {@value #LARGE_INDEX_THRESHOLD} members, so that
+ * lookups in large objects do not degrade to a linear scan.
+ * </p>
+ * <p>
  * This class is <strong>not supposed to be extended</strong> by clients.
  * </p>
  */
 @SuppressWarnings({"serial", "PMD"}) // use default serial UID
 public class JsonObject extends JsonValue implements Iterable<JsonObject.Member> {
 
-    private final List<String> names;
+    // Objects with more members use a LargeIndexTable
+    static final int LARGE_INDEX_THRESHOLD = 32;
+
+    private List<String> names;
     private final List<JsonValue> values;
     private transient HashIndexTable table;
+    // Exact index of large objects, null while the object is small
+    private transient LargeIndexTable largeTable;
+    // The object an unmodifiable view is backed by, whose index stays up to date
+    private transient JsonObject backing;
+    // The shape whose names and index this object shares until it is modified, or null
+    private transient Shape shape;
 
     /**
      * Creates a new empty JsonObject.
@@ -97,14 +113,32 @@ public class JsonObject extends JsonValue implements Iterable<JsonObject.Member>
             throw new NullPointerException("object is null");
         }
         if (unmodifiable) {
+            // A view must keep seeing the names of the object, which are replaced when unsharing
+            object.unshare();
             names = Collections.unmodifiableList(object.names);
             values = Collections.unmodifiableList(object.values);
+            backing = object;
         } else {
             names = new ArrayList<>(object.names);
             values = new ArrayList<>(object.values);
         }
         table = new HashIndexTable();
-        updateHashIndex();
+        if (backing == null) {
+            // Views look members up through the index of the object they are backed by
+            updateHashIndex();
+        }
+    }
+
+    /**
+     * Creates an object sharing the names and index of the given shape, e.g. with every other
+     * response of the same structure. The shared names are copied on the first change of the names.
+     */
+    JsonObject(Shape shape, List<JsonValue> values) {
+        this.names = shape.names;
+        this.values = values;
+        this.table = shape.table;
+        this.largeTable = shape.largeTable;
+        this.shape = shape;
     }
 
     /**
@@ -342,9 +376,10 @@ public class JsonObject extends JsonValue implements Iterable<JsonObject.Member>
         if (value == null) {
             throw new NullPointerException("value is null");
         }
-        table.add(name, names.size());
+        unshare();
         names.add(name);
         values.add(value);
+        indexAdded(name);
         return this;
     }
 
@@ -494,9 +529,10 @@ public class JsonObject extends JsonValue implements Iterable<JsonObject.Member>
         if (index != -1) {
             values.set(index, value);
         } else {
-            table.add(name, names.size());
+            unshare();
             names.add(name);
             values.add(value);
+            indexAdded(name);
         }
         return this;
     }
@@ -515,9 +551,16 @@ public class JsonObject extends JsonValue implements Iterable<JsonObject.Member>
         }
         int index = indexOf(name);
         if (index != -1) {
-            table.remove(index);
+            unshare();
             names.remove(index);
             values.remove(index);
+            if (largeTable != null) {
+                // The indexes of all following members shift, and the name may still be present
+                // earlier in the object, rebuilding is as cheap as the removal from the lists
+                updateHashIndex();
+            } else {
+                table.remove(index);
+            }
         }
         return this;
     }
@@ -865,6 +908,12 @@ public class JsonObject extends JsonValue implements Iterable<JsonObject.Member>
     }
 
     int indexOf(String name) {
+        if (backing != null) {
+            return backing.indexOf(name);
+        }
+        if (largeTable != null) {
+            return largeTable.get(names, name);
+        }
         int index = table.get(name);
         if (index != -1 && name.equals(names.get(index))) {
             return index;
@@ -872,15 +921,51 @@ public class JsonObject extends JsonValue implements Iterable<JsonObject.Member>
         return names.lastIndexOf(name);
     }
 
+    Shape shape() {
+        return shape;
+    }
+
     private synchronized void readObject(ObjectInputStream inputStream)
             throws IOException, ClassNotFoundException {
         inputStream.defaultReadObject();
+        if (names.getClass() != values.getClass()) {
+            // The names were shared with a shape, unlike those of an unmodifiable view
+            names = new ArrayList<>(names);
+        }
         table = new HashIndexTable();
         updateHashIndex();
     }
 
+    private void unshare() {
+        if (shape != null) {
+            shape = null;
+            names = new ArrayList<>(names);
+            updateHashIndex();
+        }
+    }
+
+    private void indexAdded(String name) {
+        int index = names.size() - 1;
+        if (largeTable != null) {
+            largeTable.add(names, name, index);
+        } else if (index >= LARGE_INDEX_THRESHOLD) {
+            updateHashIndex();
+        } else {
+            table.add(name, index);
+        }
+    }
+
     private void updateHashIndex() {
         int size = names.size();
+        if (size > LARGE_INDEX_THRESHOLD) {
+            largeTable = new LargeIndexTable(size);
+            for (int i = 0; i < size; i++) {
+                largeTable.add(names, names.get(i), i);
+            }
+            return;
+        }
+        largeTable = null;
+        table = new HashIndexTable();
         for (int i = 0; i < size; i++) {
             table.add(names.get(i), i);
         }
@@ -985,4 +1070,101 @@ public class JsonObject extends JsonValue implements Iterable<JsonObject.Member>
 
     }
 
+    /**
+     * The names of the members of an object, in order, along with their index. Objects of the same
+     * structure, e.g. the responses to the same kind of Vault request, can share a shape instead of
+     * each holding a copy of the names and building an index. Shapes are immutable; the shapes
+     * reached by adding a member are kept in {@link #transitions} by {@link JsonShapeCache}.
+     */
+    static final class Shape {
+
+        final List<String> names;
+        final HashIndexTable table = new HashIndexTable();
+        final LargeIndexTable largeTable;
+        final Map<String, Shape> transitions = new ConcurrentHashMap<>();
+
+        Shape(List<String> names) {
+            this.names = Collections.unmodifiableList(names);
+            int size = names.size();
+            if (size > LARGE_INDEX_THRESHOLD) {
+                largeTable = new LargeIndexTable(size);
+                for (int i = 0; i < size; i++) {
+                    largeTable.add(names, names.get(i), i);
+                }
+            } else {
+                largeTable = null;
+                for (int i = 0; i < size; i++) {
+                    table.add(names.get(i), i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Open-addressing index of the members of a large object. Unlike {@link HashIndexTable} it is
+     * exact: each distinct name maps to the index of its last member, and the table grows to stay at
+     * most half full.
+     */
+    static class LargeIndexTable {
+
+        // Member indexes plus one, 0 stands for empty
+        private int[] slots;
+        private int size;
+
+        LargeIndexTable(int expectedNames) {
+            slots = new int[Math.max(64, Integer.highestOneBit(expectedNames * 2 - 1) << 1)];
+        }
+
+        void add(List<String> names, String name, int index) {
+            int mask = slots.length - 1;
+            int slot = hash(name) & mask;
+            while (slots[slot] != 0) {
+                if (names.get(slots[slot] - 1).equals(name)) {
+                    // A duplicate name, lookups return the last member
+                    slots[slot] = index + 1;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+            if (++size * 2 > slots.length) {
+                grow(names);
+            }
+        }
+
+        int get(List<String> names, String name) {
+            int mask = slots.length - 1;
+            int slot = hash(name) & mask;
+            int entry;
+            while ((entry = slots[slot]) != 0) {
+                if (names.get(entry - 1).equals(name)) {
+                    return entry - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void grow(List<String> names) {
+            int[] old = slots;
+            slots = new int[old.length * 2];
+            int mask = slots.length - 1;
+            for (int entry : old) {
+                if (entry != 0) {
+                    int slot = hash(names.get(entry - 1)) & mask;
+                    while (slots[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slots[slot] = entry;
+                }
+            }
+        }
+
+        private static int hash(String name) {
+            // Spread the high bits, names often differ only in their last characters
+            int h = name.hashCode();
+            return h ^ (h >>> 16);
+        }
+    }
+
 }
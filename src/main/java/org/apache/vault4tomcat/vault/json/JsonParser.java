@@ -24,6 +24,7 @@ package org.apache.vault4tomcat.vault.json;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.Arrays;
 
 
 @SuppressWarnings("PMD")
@@ -32,6 +33,9 @@ class JsonParser {
     private static final int MIN_BUFFER_SIZE = 10;
     private static final int DEFAULT_BUFFER_SIZE = 1024;
 
+    // Buffers of the finished parses, reused by the next ones
+    private static final BufferPool<Buffers> BUFFERS = new BufferPool<>(Buffers::new);
+
     private final Reader reader;
     private final char[] buffer;
     private int bufferOffset;
@@ -68,6 +72,27 @@ class JsonParser {
         captureStart = -1;
     }
 
+    private JsonParser(Reader reader, Buffers buffers) {
+        this.reader = reader;
+        buffer = buffers.input;
+        captureBuffer = buffers.capture;
+        line = 1;
+        captureStart = -1;
+    }
+
+    /**
+     * Parses the content of the reader with pooled buffers, which are reused by the next parse.
+     */
+    static JsonValue parse(Reader reader) throws IOException {
+        Buffers buffers = BUFFERS.acquire();
+        try {
+            return new JsonParser(reader, buffers).parse();
+        } finally {
+            buffers.reset();
+            BUFFERS.release(buffers);
+        }
+    }
+
     JsonValue parse() throws IOException {
         read();
         skipWhiteSpace();
@@ -398,4 +423,23 @@ class JsonParser {
         return current == -1;
     }
 
+    /**
+     * The input and capture buffers of a parse, kept in a pool between parses. They are wiped before
+     * going back to the pool, so that the secrets of a document do not linger in it.
+     */
+    private static final class Buffers {
+
+        private final char[] input = new char[DEFAULT_BUFFER_SIZE];
+        private StringBuilder capture = new StringBuilder();
+
+        private void reset() {
+            Arrays.fill(input, '\0');
+            if (capture.capacity() > BufferPool.MAX_POOLED_CHARS) {
+                capture = new StringBuilder();
+                return;
+            }
+            BufferPool.wipe(capture);
+        }
+    }
+
 }
@@ -0,0 +1,174 @@
+package org.apache.vault4tomcat.vault.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extracts a small set of values, selected by their path, from a UTF-8 encoded JSON document.
+ * <p>
+ * A path is the dot-separated list of member names leading from the root object to a value, e.g.
+ * {@code data.data}, {@code data.metadata.version} or {@code auth.client_token}. The document is
+ * walked with a {@link JsonReader}: member names are compared to the names of the paths as raw bytes,
+ * and every member that is not on a path is skipped without being decoded. Only the selected values
+ * are read, and the walk ends as soon as every path has been found. A path below another selected path
+ * is covered by the latter.
+ * <p>
+ * A projection is immutable and can be shared by threads; create it once and reuse it.
+ * <pre>
+ * private static final JsonProjection LOGIN = JsonProjection.of("auth.client_token", "auth.lease_duration");
+ * ...
+ * Map&lt;String, JsonValue&gt; values = LOGIN.extract(body);
+ * </pre>
+ */
+public final class JsonProjection {
+
+    /**
+     * Receives the selected values of a document.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * Called with the reader positioned on a selected value, which the handler must consume
+         * (read or skip) entirely.
+         *
+         * @param path   the path of the value, as given to {@link JsonProjection#of(String...)}
+         * @param reader the reader positioned on the value
+         */
+        void value(String path, JsonReader reader);
+    }
+
+    private final Node root;
+    private final int paths;
+
+    private JsonProjection(Node root, int paths) {
+        this.root = root;
+        this.paths = paths;
+    }
+
+    /**
+     * @param paths the dot-separated paths of the values to extract
+     * @return a projection extracting the given paths
+     * @throws IllegalArgumentException if a path is empty or has an empty name
+     */
+    public static JsonProjection of(String... paths) {
+        Builder root = new Builder();
+        for (String path : paths) {
+            if (path.isEmpty()) {
+                throw new IllegalArgumentException("Empty JSON path");
+            }
+            Builder node = root;
+            for (String name : path.split("\\.", -1)) {
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("Empty name in JSON path: " + path);
+                }
+                node = node.children.computeIfAbsent(name, n -> new Builder());
+            }
+            node.path = path;
+        }
+        return new JsonProjection(root.build(), root.countPaths());
+    }
+
+    /**
+     * Walks the document and hands every selected value to the handler, in document order.
+     * Selected paths that are absent from the document, or that run through a value that is not an
+     * object, are not reported.
+     *
+     * @param utf8    the UTF-8 encoded document
+     * @param handler receives the selected values
+     * @throws ParseException if the document is not valid JSON up to the last selected value
+     */
+    public void project(byte[] utf8, Handler handler) {
+        JsonReader reader = new JsonReader(utf8);
+        if (reader.peek() == JsonReader.Token.BEGIN_OBJECT) {
+            walk(reader, root, handler, paths);
+        }
+    }
+
+    /**
+     * @param utf8 the UTF-8 encoded document
+     * @return the selected values found in the document, by path, in document order
+     * @throws ParseException if the document is not valid JSON up to the last selected value
+     */
+    public Map<String, JsonValue> extract(byte[] utf8) {
+        Map<String, JsonValue> values = new LinkedHashMap<>();
+        project(utf8, (path, reader) -> values.put(path, reader.nextValue()));
+        return values;
+    }
+
+    /**
+     * Walks an object, descending into the members on a selected path.
+     *
+     * @return the number of paths still to be found, 0 to end the walk
+     */
+    private static int walk(JsonReader reader, Node node, Handler handler, int remaining) {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int member = reader.nextName(node.names);
+            if (member < 0) {
+                reader.skipValue();
+                continue;
+            }
+            Node child = node.children[member];
+            if (child.path != null) {
+                handler.value(child.path, reader);
+                remaining -= child.paths;
+            } else if (reader.peek() == JsonReader.Token.BEGIN_OBJECT) {
+                remaining = walk(reader, child, handler, remaining);
+            } else {
+                reader.skipValue();
+            }
+            if (remaining <= 0) {
+                // Everything was found, the rest of the document does not matter
+                return 0;
+            }
+        }
+        reader.endObject();
+        return remaining;
+    }
+
+    private static final class Node {
+
+        private final String path;
+        private final int paths;
+        private final byte[][] names;
+        private final Node[] children;
+
+        private Node(String path, int paths, byte[][] names, Node[] children) {
+            this.path = path;
+            this.paths = paths;
+            this.names = names;
+            this.children = children;
+        }
+    }
+
+    private static final class Builder {
+
+        private final Map<String, Builder> children = new LinkedHashMap<>();
+        private String path;
+
+        private Node build() {
+            if (path != null) {
+                // Everything below is part of the selected value
+                return new Node(path, countPaths(), new byte[0][], new Node[0]);
+            }
+            List<byte[]> names = new ArrayList<>();
+            List<Node> nodes = new ArrayList<>();
+            children.forEach((name, child) -> {
+                names.add(name.getBytes(StandardCharsets.UTF_8));
+                nodes.add(child.build());
+            });
+            return new Node(null, countPaths(), names.toArray(new byte[0][]), nodes.toArray(new Node[0]));
+        }
+
+        private int countPaths() {
+            int count = path != null ? 1 : 0;
+            for (Builder child : children.values()) {
+                count += child.countPaths();
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package org.apache.vault4tomcat.vault.json;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Pull reader walking a UTF-8 encoded JSON document token by token, without building a tree.
+ * <p>
+ * The caller drives the reader with {@link #beginObject()}, {@link #nextName()}, {@link #nextString()}
+ * and their siblings, and can {@link #skipValue() skip} any value it is not interested in. Skipped
+ * values are checked for syntax errors but nothing is decoded or created for them, so a caller that
+ * keeps only a few fields of a large response allocates for those fields only. A single value can
+ * still be materialized as a tree with {@link #nextValue()}.
+ * <pre>
+ * JsonReader reader = new JsonReader(body);
+ * reader.beginObject();
+ * while (reader.hasNext()) {
+ *   if (reader.nextName().equals("data")) {
+ *     ...
+ *   } else {
+ *     reader.skipValue();
+ *   }
+ * }
+ * reader.endObject();
+ * </pre>
+ * Malformed input raises a {@link ParseException}; calling a method that does not match the next
+ * token raises an {@link IllegalStateException}. Instances are not thread-safe.
+ */
+public class JsonReader {
+
+    /**
+     * The kinds of tokens of a JSON document.
+     */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    // What the reader expects next in the innermost open scope
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private final Utf8JsonParser parser;
+    private int[] scopes = new int[16];
+    private int depth = 1;
+    private Token peeked;
+
+    /**
+     * @param utf8 the UTF-8 encoded document
+     */
+    public JsonReader(byte[] utf8) {
+        this(utf8, 0, utf8.length);
+    }
+
+    /**
+     * @param utf8   the UTF-8 encoded input
+     * @param offset the index of the first byte of the document
+     * @param length the number of bytes of the document
+     */
+    public JsonReader(byte[] utf8, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > utf8.length - length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", size " + utf8.length);
+        }
+        this.parser = new Utf8JsonParser(utf8, offset, length);
+        scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Reads the remaining bytes of the given buffer, leaving its position unchanged. Direct buffers
+     * are copied to the heap first.
+     *
+     * @param utf8 the buffer holding the UTF-8 encoded document between its position and limit
+     */
+    public JsonReader(ByteBuffer utf8) {
+        this(utf8.hasArray() ? utf8.array() : heapCopy(utf8),
+                utf8.hasArray() ? utf8.arrayOffset() + utf8.position() : 0, utf8.remaining());
+    }
+
+    private static byte[] heapCopy(ByteBuffer buffer) {
+        byte[] copy = new byte[buffer.remaining()];
+        buffer.get(buffer.position(), copy);
+        return copy;
+    }
+
+    /**
+     * Returns the kind of the next token without consuming it.
+     *
+     * @return the next token
+     * @throws ParseException if the input is not valid JSON
+     */
+    public Token peek() {
+        if (peeked != null) {
+            return peeked;
+        }
+        parser.skipWhiteSpace();
+        switch (scopes[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                return peeked = peekValue();
+            case NONEMPTY_DOCUMENT:
+                if (parser.current() != -1) {
+                    throw parser.error("Unexpected character");
+                }
+                return peeked = Token.END_DOCUMENT;
+            case EMPTY_OBJECT:
+                if (parser.current() == '}') {
+                    return peeked = Token.END_OBJECT;
+                }
+                return peeked = peekName();
+            case NONEMPTY_OBJECT:
+                if (parser.current() == '}') {
+                    return peeked = Token.END_OBJECT;
+                }
+                if (!parser.readChar(',')) {
+                    throw parser.expected("',' or '}'");
+                }
+                parser.skipWhiteSpace();
+                return peeked = peekName();
+            case DANGLING_NAME:
+                if (!parser.readChar(':')) {
+                    throw parser.expected("':'");
+                }
+                parser.skipWhiteSpace();
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                return peeked = peekValue();
+            case EMPTY_ARRAY:
+                if (parser.current() == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                return peeked = peekValue();
+            default:
+                if (parser.current() == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+                if (!parser.readChar(',')) {
+                    throw parser.expected("',' or ']'");
+                }
+                parser.skipWhiteSpace();
+                return peeked = peekValue();
+        }
+    }
+
+    private Token peekName() {
+        if (parser.current() != '"') {
+            throw parser.expected("name");
+        }
+        return Token.NAME;
+    }
+
+    private Token peekValue() {
+        switch (parser.current()) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+            case 'f':
+                return Token.BOOLEAN;
+            case 'n':
+                return Token.NULL;
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                return Token.NUMBER;
+            default:
+                throw parser.expected("value");
+        }
+    }
+
+    /**
+     * @return whether the current object or array has another member or element
+     */
+    public boolean hasNext() {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Consumes the opening brace of an object.
+     */
+    public void beginObject() {
+        consume(Token.BEGIN_OBJECT);
+        parser.readChar('{');
+        push(EMPTY_OBJECT);
+    }
+
+    /**
+     * Consumes the closing brace of the current object.
+     */
+    public void endObject() {
+        consume(Token.END_OBJECT);
+        parser.readChar('}');
+        depth--;
+    }
+
+    /**
+     * Consumes the opening bracket of an array.
+     */
+    public void beginArray() {
+        consume(Token.BEGIN_ARRAY);
+        parser.readChar('[');
+        push(EMPTY_ARRAY);
+    }
+
+    /**
+     * Consumes the closing bracket of the current array.
+     */
+    public void endArray() {
+        consume(Token.END_ARRAY);
+        parser.readChar(']');
+        depth--;
+    }
+
+    /**
+     * @return the name of the next member of the current object
+     */
+    public String nextName() {
+        consume(Token.NAME);
+        scopes[depth - 1] = DANGLING_NAME;
+        return parser.readName();
+    }
+
+    /**
+     * Reads the name of the next member and returns which of the candidates it is, without decoding
+     * it unless it contains escape sequences.
+     *
+     * @param candidates the UTF-8 encoded names to look for
+     * @return the index of the matching candidate, or -1 if none matches
+     */
+    int nextName(byte[][] candidates) {
+        consume(Token.NAME);
+        scopes[depth - 1] = DANGLING_NAME;
+        return parser.readStringIndex(candidates);
+    }
+
+    /**
+     * @return the next string value
+     */
+    public String nextString() {
+        consume(Token.STRING);
+        return parser.readStringInternal();
+    }
+
+    /**
+     * @return the text of the next number value, as it appears in the document
+     */
+    public String nextNumber() {
+        consume(Token.NUMBER);
+        return parser.readNumberText();
+    }
+
+    /**
+     * @return the next number value as an int
+     * @throws NumberFormatException if the number is not an int
+     */
+    public int nextInt() {
+        return Integer.parseInt(nextNumber());
+    }
+
+    /**
+     * @return the next number value as a long
+     * @throws NumberFormatException if the number is not a long
+     */
+    public long nextLong() {
+        return Long.parseLong(nextNumber());
+    }
+
+    /**
+     * @return the next boolean value
+     */
+    public boolean nextBoolean() {
+        consume(Token.BOOLEAN);
+        if (parser.current() == 't') {
+            parser.readLiteral("true");
+            return true;
+        }
+        parser.readLiteral("false");
+        return false;
+    }
+
+    /**
+     * Consumes the next null value.
+     */
+    public void nextNull() {
+        consume(Token.NULL);
+        parser.readLiteral("null");
+    }
+
+    /**
+     * Reads the next value, with all its nested values, as a tree.
+     *
+     * @return the next value
+     */
+    public JsonValue nextValue() {
+        consumeValue();
+        return parser.readValue();
+    }
+
+    /**
+     * Skips the next value, with all its nested values, without decoding it. Positioned on a name,
+     * skips the name and its value.
+     */
+    public void skipValue() {
+        if (peek() == Token.NAME) {
+            peeked = null;
+            scopes[depth - 1] = DANGLING_NAME;
+            parser.skipString();
+        }
+        consumeValue();
+        parser.skipValue();
+    }
+
+    private void consumeValue() {
+        Token token = peek();
+        if (token == Token.END_OBJECT || token == Token.END_ARRAY || token == Token.END_DOCUMENT
+                || token == Token.NAME) {
+            throw new IllegalStateException("Expected a value but was " + token + describePosition());
+        }
+        peeked = null;
+    }
+
+    private void consume(Token expected) {
+        Token token = peek();
+        if (token != expected) {
+            throw new IllegalStateException("Expected " + expected + " but was " + token + describePosition());
+        }
+        peeked = null;
+    }
+
+    private String describePosition() {
+        ParseException position = parser.error("");
+        return " at " + position.getLine() + ":" + position.getColumn();
+    }
+
+    private void push(int scope) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+        scopes[depth++] = scope;
+    }
+}
@@ -0,0 +1,91 @@
+package org.apache.vault4tomcat.vault.json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Remembers the shapes of the objects parsed with it, so that structurally identical objects share
+ * their list of member names and their index instead of each building its own.
+ * <p>
+ * A shape is the ordered list of the member names of an object. Responses to the same kind of Vault
+ * request have the same shapes, so once the first one has been parsed, the objects of the following
+ * ones only hold their values. An object sharing a shape copies its names on its first structural
+ * change, it behaves exactly like any other {@link JsonObject}.
+ * <p>
+ * The number of shapes is bounded; once the cache is full, or for objects with more than
+ * {@value #MAX_MEMBERS} members, objects are built the regular way. A cache is thread-safe and meant to
+ * be shared by all the parses of documents of similar structure.
+ * <pre>
+ * private static final JsonShapeCache SHAPES = new JsonShapeCache();
+ * ...
+ * JsonValue response = Json.parse(body, SHAPES);
+ * </pre>
+ */
+public final class JsonShapeCache {
+
+    static final int DEFAULT_MAX_SHAPES = 1024;
+    static final int MAX_MEMBERS = 64;
+
+    private final int maxShapes;
+    private final JsonObject.Shape root = new JsonObject.Shape(List.of());
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates a cache holding up to {@value #DEFAULT_MAX_SHAPES} shapes.
+     */
+    public JsonShapeCache() {
+        this(DEFAULT_MAX_SHAPES);
+    }
+
+    /**
+     * @param maxShapes the maximum number of shapes to remember
+     * @throws IllegalArgumentException if maxShapes is negative
+     */
+    public JsonShapeCache(int maxShapes) {
+        if (maxShapes < 0) {
+            throw new IllegalArgumentException("maxShapes is negative: " + maxShapes);
+        }
+        this.maxShapes = maxShapes;
+    }
+
+    /**
+     * @return the number of shapes remembered
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @return the shape of the empty object
+     */
+    JsonObject.Shape root() {
+        return root;
+    }
+
+    /**
+     * @param shape the shape of an object
+     * @param name  the name of a member added to it
+     * @return the shape of the object with the member added, or null if it is not cached and cannot be
+     * added
+     */
+    JsonObject.Shape next(JsonObject.Shape shape, String name) {
+        JsonObject.Shape next = shape.transitions.get(name);
+        if (next != null) {
+            return next;
+        }
+        if (shape.names.size() >= MAX_MEMBERS || size.get() >= maxShapes) {
+            return null;
+        }
+        List<String> names = new ArrayList<>(shape.names.size() + 1);
+        names.addAll(shape.names);
+        names.add(name);
+        JsonObject.Shape created = new JsonObject.Shape(names);
+        next = shape.transitions.putIfAbsent(name, created);
+        if (next != null) {
+            return next;
+        }
+        size.incrementAndGet();
+        return created;
+    }
+}
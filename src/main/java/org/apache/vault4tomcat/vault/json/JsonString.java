@@ -22,6 +22,7 @@
 package org.apache.vault4tomcat.vault.json;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 
 @SuppressWarnings({"serial", "PMD"}) // use default serial UID
@@ -36,9 +37,14 @@ class JsonString extends JsonValue {
         this.string = string;
     }
 
+    // For Lazy, which holds its own string
+    private JsonString() {
+        this.string = null;
+    }
+
     @Override
     void write(JsonWriter writer) throws IOException {
-        writer.writeString(string);
+        writer.writeString(asString());
     }
 
     @Override
@@ -53,7 +59,7 @@ class JsonString extends JsonValue {
 
     @Override
     public int hashCode() {
-        return string.hashCode();
+        return asString().hashCode();
     }
 
     @Override
@@ -64,11 +70,61 @@ class JsonString extends JsonValue {
         if (object == null) {
             return false;
         }
-        if (getClass() != object.getClass()) {
+        if (!(object instanceof JsonString)) {
             return false;
         }
         JsonString other = (JsonString) object;
-        return string.equals(other.string);
+        return asString().equals(other.asString());
+    }
+
+    /**
+     * A string of a document parsed lazily, kept as a range of the UTF-8 input and decoded on first
+     * access. The input must not change as long as the value is in use. Serialized as a regular string.
+     */
+    static final class Lazy extends JsonString {
+
+        // The range holds plain ASCII content, plain UTF-8 content, or the quoted string with escapes
+        static final int ASCII = 0;
+        static final int UTF8 = 1;
+        static final int ESCAPED = 2;
+
+        private final transient byte[] input;
+        private final transient int offset;
+        private final transient int length;
+        private final transient int kind;
+        private transient String decoded;
+
+        Lazy(byte[] input, int offset, int length, int kind) {
+            this.input = input;
+            this.offset = offset;
+            this.length = length;
+            this.kind = kind;
+        }
+
+        @Override
+        public String asString() {
+            String string = decoded;
+            if (string == null) {
+                // Racy but safe, any thread decodes the same immutable string
+                decoded = string = decode();
+            }
+            return string;
+        }
+
+        private String decode() {
+            switch (kind) {
+                case ASCII:
+                    return new String(input, offset, length, StandardCharsets.ISO_8859_1);
+                case UTF8:
+                    return new String(input, offset, length, StandardCharsets.UTF_8);
+                default:
+                    return new Utf8JsonParser(input, offset, length).readStringInternal();
+            }
+        }
+
+        private Object writeReplace() {
+            return new JsonString(asString());
+        }
     }
 
 }
@@ -53,6 +53,9 @@ import java.io.Writer;
 @SuppressWarnings({"serial", "PMD"}) // use default serial UID
 public abstract class JsonValue implements Serializable {
 
+    // Writers of the finished toString calls, reused by the next ones
+    private static final BufferPool<StringWriter> STRING_WRITERS = new BufferPool<>(StringWriter::new);
+
     JsonValue() {
         // prevent subclasses outside of this package
     }
@@ -278,9 +281,13 @@ public abstract class JsonValue implements Serializable {
         if (config == null) {
             throw new NullPointerException("config is null");
         }
-        WritingBuffer buffer = new WritingBuffer(writer, 128);
-        write(config.createWriter(buffer));
-        buffer.flush();
+        WritingBuffer buffer = WritingBuffer.acquire(writer);
+        try {
+            write(config.createWriter(buffer));
+            buffer.flush();
+        } finally {
+            buffer.release();
+        }
     }
 
     /**
@@ -302,14 +309,20 @@ public abstract class JsonValue implements Serializable {
      * @return a JSON string that represents this value
      */
     public String toString(WriterConfig config) {
-        StringWriter writer = new StringWriter();
+        StringWriter writer = STRING_WRITERS.acquire();
         try {
             writeTo(writer, config);
+            return writer.toString();
         } catch (IOException exception) {
             // StringWriter does not throw IOExceptions
             throw new RuntimeException(exception);
+        } finally {
+            StringBuffer chars = writer.getBuffer();
+            if (chars.capacity() <= BufferPool.MAX_POOLED_CHARS) {
+                BufferPool.wipe(chars);
+                STRING_WRITERS.release(writer);
+            }
         }
-        return writer.toString();
     }
 
     /**
@@ -0,0 +1,674 @@
+package org.apache.vault4tomcat.vault.json;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parser working directly on UTF-8 encoded bytes, producing the same {@link JsonValue} tree as
+ * {@link JsonParser}.
+ * <p>
+ * The structure of the document (brackets, separators, literals and numbers) is plain ASCII and is
+ * scanned byte by byte without decoding. Strings are scanned eight bytes at a time for their closing
+ * quote, and their content is only turned into characters once it has been found: a string made of
+ * ASCII bytes only is copied as is, any other one is decoded as UTF-8 in one call. Escape sequences
+ * are the only case that goes through a {@link StringBuilder}.
+ * <p>
+ * The offsets of {@link ParseException}s are byte offsets into the input.
+ * <p>
+ * Member names repeat across documents, they are resolved through a small process-wide cache keyed
+ * on their raw bytes, so that the name of every member is not decoded and allocated again. Given a
+ * {@link JsonShapeCache}, objects of a known structure also share their names and index.
+ * <p>
+ * Besides building whole trees, the parser provides the primitives {@link JsonReader} walks a
+ * document with, including {@link #skipValue()}, which checks the syntax of a value without
+ * creating anything.
+ */
+class Utf8JsonParser {
+
+    // Names longer than that are decoded every time
+    static final int MAX_CACHED_NAME_LENGTH = 64;
+    private static final int NAME_CACHE_SIZE = 1024;
+
+    // Racy on purpose: a slot is either null or a complete entry, a lost update only costs a decoding
+    private static final CachedName[] NAME_CACHE = new CachedName[NAME_CACHE_SIZE];
+
+    // Reads eight bytes at a time when scanning strings, in memory order from the lowest byte up
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final byte[] input;
+    private final int start;
+    private final int end;
+    private final JsonShapeCache shapes;
+    // Whether strings and numbers are left as ranges of the input until they are accessed
+    private final boolean lazy;
+    private int index;
+    private StringBuilder escapeBuffer;
+    // Whether the bytes passed over by the last scanString include non-ASCII ones
+    private boolean scannedNonAscii;
+
+    Utf8JsonParser(byte[] input, int offset, int length) {
+        this(input, offset, length, null);
+    }
+
+    Utf8JsonParser(byte[] input, int offset, int length, JsonShapeCache shapes) {
+        this(input, offset, length, shapes, false);
+    }
+
+    Utf8JsonParser(byte[] input, int offset, int length, JsonShapeCache shapes, boolean lazy) {
+        this.input = input;
+        this.start = offset;
+        this.end = offset + length;
+        this.shapes = shapes;
+        this.lazy = lazy;
+        this.index = offset;
+    }
+
+    JsonValue parse() {
+        skipWhiteSpace();
+        JsonValue result = readValue();
+        skipWhiteSpace();
+        if (index < end) {
+            throw error("Unexpected character");
+        }
+        return result;
+    }
+
+    JsonValue readValue() {
+        switch (current()) {
+            case 'n':
+                readLiteral("null");
+                return Json.NULL;
+            case 't':
+                readLiteral("true");
+                return Json.TRUE;
+            case 'f':
+                readLiteral("false");
+                return Json.FALSE;
+            case '"':
+                return lazy ? readLazyString() : new JsonString(readStringInternal());
+            case '[':
+                return readArray();
+            case '{':
+                return readObject();
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                return readNumber();
+            default:
+                throw expected("value");
+        }
+    }
+
+    private JsonArray readArray() {
+        index++;
+        JsonArray array = new JsonArray();
+        skipWhiteSpace();
+        if (readChar(']')) {
+            return array;
+        }
+        do {
+            skipWhiteSpace();
+            array.add(readValue());
+            skipWhiteSpace();
+        } while (readChar(','));
+        if (!readChar(']')) {
+            throw expected("',' or ']'");
+        }
+        return array;
+    }
+
+    private JsonObject readObject() {
+        if (shapes != null) {
+            return readSharedObject();
+        }
+        index++;
+        JsonObject object = new JsonObject();
+        skipWhiteSpace();
+        if (readChar('}')) {
+            return object;
+        }
+        do {
+            String name = readMemberName();
+            object.add(name, readValue());
+            skipWhiteSpace();
+        } while (readChar(','));
+        if (!readChar('}')) {
+            throw expected("',' or '}'");
+        }
+        return object;
+    }
+
+    /**
+     * Reads an object following the shapes of the cache, falling back to a regular object from the
+     * first member the cache cannot follow.
+     */
+    private JsonObject readSharedObject() {
+        index++;
+        JsonObject.Shape shape = shapes.root();
+        List<JsonValue> values = new ArrayList<>();
+        JsonObject object = null;
+        skipWhiteSpace();
+        if (!readChar('}')) {
+            do {
+                String name = readMemberName();
+                JsonValue value = readValue();
+                if (object != null) {
+                    object.add(name, value);
+                } else {
+                    JsonObject.Shape next = shapes.next(shape, name);
+                    if (next != null) {
+                        shape = next;
+                        values.add(value);
+                    } else {
+                        object = new JsonObject(shape, values);
+                        object.add(name, value);
+                    }
+                }
+                skipWhiteSpace();
+            } while (readChar(','));
+            if (!readChar('}')) {
+                throw expected("',' or '}'");
+            }
+        }
+        return object != null ? object : new JsonObject(shape, values);
+    }
+
+    private String readMemberName() {
+        skipWhiteSpace();
+        if (current() != '"') {
+            throw expected("name");
+        }
+        String name = readName();
+        skipWhiteSpace();
+        if (!readChar(':')) {
+            throw expected("':'");
+        }
+        skipWhiteSpace();
+        return name;
+    }
+
+    void readLiteral(String literal) {
+        index++;
+        for (int i = 1; i < literal.length(); i++) {
+            if (!readChar(literal.charAt(i))) {
+                throw expected("'" + literal.charAt(i) + "'");
+            }
+        }
+    }
+
+    String readStringInternal() {
+        int contentStart = ++index;
+        index = scanString(index);
+        int b = current();
+        if (b == '"') {
+            String string = decode(contentStart, index, !scannedNonAscii);
+            index++;
+            return string;
+        }
+        if (b == '\\') {
+            return readEscapedString(contentStart, !scannedNonAscii);
+        }
+        throw expected("valid string character");
+    }
+
+    /**
+     * Checks a string and returns it as a range of the input, to be decoded on first access.
+     */
+    private JsonString readLazyString() {
+        int quote = index;
+        index = scanString(index + 1);
+        int b = current();
+        if (b == '"') {
+            index++;
+            return new JsonString.Lazy(input, quote + 1, index - quote - 2,
+                    scannedNonAscii ? JsonString.Lazy.UTF8 : JsonString.Lazy.ASCII);
+        }
+        if (b != '\\') {
+            throw expected("valid string character");
+        }
+        // Escaped, the whole quoted string is parsed again when decoded
+        index = quote;
+        skipString();
+        return new JsonString.Lazy(input, quote, index - quote, JsonString.Lazy.ESCAPED);
+    }
+
+    /**
+     * Finds the first quote, backslash or control character of the string content starting at the
+     * given index. The bytes are checked eight at a time, loaded as a long, with the usual bitwise
+     * tests for a zero byte, so that long strings such as base64 encoded keystores are scanned with a
+     * fraction of the comparisons. Whether the bytes passed over include non-ASCII ones is left in
+     * {@link #scannedNonAscii}.
+     *
+     * @return the index of the first special byte, or the end of the input
+     */
+    private int scanString(int from) {
+        int i = from;
+        long high = 0;
+        for (; i <= end - Long.BYTES; i += Long.BYTES) {
+            long word = (long) LONGS.get(input, i);
+            long special = specialBytes(word);
+            if (special != 0) {
+                // Only the bytes before the first special one have been passed over
+                high |= word & (special & -special) - 1;
+                scannedNonAscii = (high & HIGH_BITS) != 0;
+                return i + (Long.numberOfTrailingZeros(special) >>> 3);
+            }
+            high |= word;
+        }
+        boolean nonAscii = (high & HIGH_BITS) != 0;
+        for (; i < end; i++) {
+            byte b = input[i];
+            if (b == '"' || b == '\\' || b >= 0 && b < 0x20) {
+                break;
+            }
+            nonAscii |= b < 0;
+        }
+        scannedNonAscii = nonAscii;
+        return i;
+    }
+
+    /**
+     * Flags the high bit of the bytes of the little-endian word that are a quote, a backslash or a
+     * control character. Bytes above a flagged one may be flagged wrongly because of the borrow, the
+     * lowest flagged byte is always exact.
+     */
+    private static long specialBytes(long word) {
+        long quotes = word ^ 0x2222222222222222L;
+        long backslashes = word ^ 0x5c5c5c5c5c5c5c5cL;
+        return ((quotes - ONES) & ~quotes
+                | (backslashes - ONES) & ~backslashes
+                | (word - 0x2020202020202020L) & ~word) & HIGH_BITS;
+    }
+
+    /**
+     * Reads a member name, returning the same instance for the same short name without escape
+     * sequences every time it is seen.
+     */
+    String readName() {
+        int contentStart = index + 1;
+        int limit = Math.min(end, contentStart + MAX_CACHED_NAME_LENGTH + 1);
+        int hash = 0;
+        int contentEnd = contentStart;
+        while (contentEnd < limit) {
+            byte b = input[contentEnd];
+            if (b == '"' || b == '\\' || b >= 0 && b < 0x20) {
+                break;
+            }
+            hash = 31 * hash + b;
+            contentEnd++;
+        }
+        if (contentEnd == limit || input[contentEnd] != '"') {
+            // Escaped, too long or malformed
+            return readStringInternal();
+        }
+        int slot = (hash ^ hash >>> 16) & (NAME_CACHE_SIZE - 1);
+        CachedName cached = NAME_CACHE[slot];
+        index = contentEnd + 1;
+        if (cached != null && Arrays.equals(input, contentStart, contentEnd, cached.raw(), 0, cached.raw().length)) {
+            return cached.name();
+        }
+        String name = new String(input, contentStart, contentEnd - contentStart, StandardCharsets.UTF_8);
+        NAME_CACHE[slot] = new CachedName(Arrays.copyOfRange(input, contentStart, contentEnd), name);
+        return name;
+    }
+
+    /**
+     * Reads a string and returns the index of the candidate it is equal to. Strings without escape
+     * sequences are compared to the candidates as raw bytes, without being decoded.
+     *
+     * @param candidates the UTF-8 encoded candidates
+     * @return the index of the matching candidate, or -1 if none matches
+     */
+    int readStringIndex(byte[][] candidates) {
+        int contentStart = index + 1;
+        int contentEnd = scanString(contentStart);
+        if (contentEnd == end || input[contentEnd] != '"') {
+            // Escaped or malformed, decode it the regular way
+            byte[] string = readStringInternal().getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < candidates.length; i++) {
+                if (Arrays.equals(string, candidates[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        index = contentEnd + 1;
+        for (int i = 0; i < candidates.length; i++) {
+            if (Arrays.equals(input, contentStart, contentEnd, candidates[i], 0, candidates[i].length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Continues a string at its first escape sequence, collecting the decoded runs between the escape
+     * sequences.
+     *
+     * @param contentStart the start of the run before the first escape sequence, which ends at index
+     * @param ascii        whether that run is pure ASCII
+     */
+    private String readEscapedString(int contentStart, boolean ascii) {
+        if (escapeBuffer == null) {
+            escapeBuffer = new StringBuilder();
+        }
+        StringBuilder buffer = escapeBuffer;
+        buffer.setLength(0);
+        buffer.append(decode(contentStart, index, ascii));
+        while (true) {
+            readEscape(buffer);
+            int runStart = index;
+            index = scanString(index);
+            int b = current();
+            if (b == '"') {
+                buffer.append(decode(runStart, index, !scannedNonAscii));
+                index++;
+                return buffer.toString();
+            } else if (b == '\\') {
+                buffer.append(decode(runStart, index, !scannedNonAscii));
+            } else {
+                throw expected("valid string character");
+            }
+        }
+    }
+
+    private void readEscape(StringBuilder buffer) {
+        index++;
+        switch (current()) {
+            case '"':
+            case '/':
+            case '\\':
+                buffer.append((char) input[index]);
+                break;
+            case 'b':
+                buffer.append('\b');
+                break;
+            case 'f':
+                buffer.append('\f');
+                break;
+            case 'n':
+                buffer.append('\n');
+                break;
+            case 'r':
+                buffer.append('\r');
+                break;
+            case 't':
+                buffer.append('\t');
+                break;
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    index++;
+                    int digit = Character.digit(current(), 16);
+                    if (digit < 0) {
+                        throw expected("hexadecimal digit");
+                    }
+                    value = value << 4 | digit;
+                }
+                buffer.append((char) value);
+                break;
+            default:
+                throw expected("valid escape sequence");
+        }
+        index++;
+    }
+
+    private String decode(int from, int to, boolean ascii) {
+        // ISO-8859-1 maps each ASCII byte to the same char and lets the JDK keep the bytes as is
+        return new String(input, from, to - from, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    private JsonValue readNumber() {
+        if (lazy) {
+            int numberStart = index;
+            skipNumber();
+            return new JsonNumber.Lazy(input, numberStart, index - numberStart);
+        }
+        return new JsonNumber(readNumberText());
+    }
+
+    String readNumberText() {
+        int numberStart = index;
+        skipNumber();
+        return new String(input, numberStart, index - numberStart, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Skips the value at the current position, checking its syntax like {@link #readValue()} does
+     * but without decoding strings or creating any value.
+     */
+    void skipValue() {
+        switch (current()) {
+            case 'n':
+                readLiteral("null");
+                break;
+            case 't':
+                readLiteral("true");
+                break;
+            case 'f':
+                readLiteral("false");
+                break;
+            case '"':
+                skipString();
+                break;
+            case '[':
+                skipArray();
+                break;
+            case '{':
+                skipObject();
+                break;
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                skipNumber();
+                break;
+            default:
+                throw expected("value");
+        }
+    }
+
+    private void skipArray() {
+        index++;
+        skipWhiteSpace();
+        if (readChar(']')) {
+            return;
+        }
+        do {
+            skipWhiteSpace();
+            skipValue();
+            skipWhiteSpace();
+        } while (readChar(','));
+        if (!readChar(']')) {
+            throw expected("',' or ']'");
+        }
+    }
+
+    private void skipObject() {
+        index++;
+        skipWhiteSpace();
+        if (readChar('}')) {
+            return;
+        }
+        do {
+            skipWhiteSpace();
+            if (current() != '"') {
+                throw expected("name");
+            }
+            skipString();
+            skipWhiteSpace();
+            if (!readChar(':')) {
+                throw expected("':'");
+            }
+            skipWhiteSpace();
+            skipValue();
+            skipWhiteSpace();
+        } while (readChar(','));
+        if (!readChar('}')) {
+            throw expected("',' or '}'");
+        }
+    }
+
+    void skipString() {
+        index++;
+        while (true) {
+            index = scanString(index);
+            int b = current();
+            if (b == '"') {
+                index++;
+                return;
+            } else if (b == '\\') {
+                skipEscape();
+            } else {
+                throw expected("valid string character");
+            }
+        }
+    }
+
+    private void skipEscape() {
+        index++;
+        switch (current()) {
+            case '"':
+            case '/':
+            case '\\':
+            case 'b':
+            case 'f':
+            case 'n':
+            case 'r':
+            case 't':
+                break;
+            case 'u':
+                for (int i = 0; i < 4; i++) {
+                    index++;
+                    if (Character.digit(current(), 16) < 0) {
+                        throw expected("hexadecimal digit");
+                    }
+                }
+                break;
+            default:
+                throw expected("valid escape sequence");
+        }
+        index++;
+    }
+
+    private void skipNumber() {
+        readChar('-');
+        int firstDigit = current();
+        if (!readDigit()) {
+            throw expected("digit");
+        }
+        if (firstDigit != '0') {
+            while (readDigit()) {
+            }
+        }
+        readFraction();
+        readExponent();
+    }
+
+    private void readFraction() {
+        if (!readChar('.')) {
+            return;
+        }
+        if (!readDigit()) {
+            throw expected("digit");
+        }
+        while (readDigit()) {
+        }
+    }
+
+    private void readExponent() {
+        if (!readChar('e') && !readChar('E')) {
+            return;
+        }
+        if (!readChar('+')) {
+            readChar('-');
+        }
+        if (!readDigit()) {
+            throw expected("digit");
+        }
+        while (readDigit()) {
+        }
+    }
+
+    boolean readChar(char ch) {
+        if (current() != ch) {
+            return false;
+        }
+        index++;
+        return true;
+    }
+
+    private boolean readDigit() {
+        int b = current();
+        if (b < '0' || b > '9') {
+            return false;
+        }
+        index++;
+        return true;
+    }
+
+    void skipWhiteSpace() {
+        while (index < end) {
+            byte b = input[index];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return;
+            }
+            index++;
+        }
+    }
+
+    /**
+     * @return the unsigned byte at the current position, or -1 at the end of the input
+     */
+    int current() {
+        return index < end ? input[index] & 0xff : -1;
+    }
+
+    ParseException expected(String expected) {
+        if (index >= end) {
+            return error("Unexpected end of input");
+        }
+        return error("Expected " + expected);
+    }
+
+    ParseException error(String message) {
+        // Lines are only counted when reporting an error
+        int offset = Math.min(index, end);
+        int line = 1;
+        int lineStart = start;
+        for (int i = start; i < offset; i++) {
+            if (input[i] == '\n') {
+                line++;
+                lineStart = i + 1;
+            }
+        }
+        // Like JsonParser, the column at the end of the input is that of the last character
+        int column = index >= end ? offset - lineStart - 1 : offset - lineStart;
+        return new ParseException(message, offset - start, line, column);
+    }
+
+    private record CachedName(byte[] raw, String name) {
+    }
+}
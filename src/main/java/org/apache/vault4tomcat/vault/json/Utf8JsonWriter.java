@@ -0,0 +1,346 @@
+package org.apache.vault4tomcat.vault.json;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Writer producing UTF-8 encoded JSON directly into a growable byte buffer, e.g. for the body of a
+ * request to Vault.
+ * <p>
+ * Strings are escaped like {@link JsonValue#toString()} does, and encoded as they are written: ASCII
+ * characters are stored as is, other ones are encoded as UTF-8 in place, and no intermediate
+ * {@link String} or char buffer is built. The writer is driven member by member and takes care of the
+ * separators; whole trees can be written with {@link #value(JsonValue)}.
+ * <pre>
+ * Utf8JsonWriter body = new Utf8JsonWriter()
+ *     .beginObject()
+ *     .name("role_id").value(roleId)
+ *     .endObject();
+ * client.post(body.buffer(), 0, body.size());
+ * </pre>
+ * The content is valid until the writer is {@link #reset()}, after which the buffer is reused for the
+ * next document. The writer does not check that the calls form a valid document. Instances are not
+ * thread-safe.
+ */
+public final class Utf8JsonWriter extends JsonWriter {
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private byte[] buffer;
+    private int size;
+    // Whether the next member or element is the first of its object or array
+    private boolean first = true;
+    // Whether a name was written whose value has not been written yet
+    private boolean afterName;
+
+    /**
+     * Creates a writer with a buffer of 256 bytes, grown as needed.
+     */
+    public Utf8JsonWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the initial size of the buffer
+     */
+    public Utf8JsonWriter(int capacity) {
+        super(null);
+        this.buffer = new byte[Math.max(capacity, 16)];
+    }
+
+    /**
+     * Writes the opening brace of an object.
+     *
+     * @return this writer, to enable method chaining
+     */
+    public Utf8JsonWriter beginObject() {
+        beforeValue();
+        writeByte('{');
+        first = true;
+        return this;
+    }
+
+    /**
+     * Writes the closing brace of the current object.
+     *
+     * @return this writer, to enable method chaining
+     */
+    public Utf8JsonWriter endObject() {
+        writeByte('}');
+        first = false;
+        return this;
+    }
+
+    /**
+     * Writes the opening bracket of an array.
+     *
+     * @return this writer, to enable method chaining
+     */
+    public Utf8JsonWriter beginArray() {
+        beforeValue();
+        writeByte('[');
+        first = true;
+        return this;
+    }
+
+    /**
+     * Writes the closing bracket of the current array.
+     *
+     * @return this writer, to enable method chaining
+     */
+    public Utf8JsonWriter endArray() {
+        writeByte(']');
+        first = false;
+        return this;
+    }
+
+    /**
+     * Writes the name of the next member of the current object.
+     *
+     * @param name the name of the member
+     * @return this writer, to enable method chaining
+     */
+    public Utf8JsonWriter name(String name) {
+        if (name == null) {
+            throw new NullPointerException("name is null");
+        }
+        if (!first) {
+            writeByte(',');
+        }
+        first = false;
+        writeMemberName(name);
+        writeByte(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or null.
+     *
+     * @param value the value to write
+     * @return this writer, to enable method chaining
+     */
+    public Utf8JsonWriter value(String value) {
+        beforeValue();
+        if (value == null) {
+            writeAscii("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a number value.
+     *
+     * @param value the value to write
+     * @return this writer, to enable method chaining
+     */
+    public Utf8JsonWriter value(long value) {
+        beforeValue();
+        writeAscii(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value the value to write
+     * @return this writer, to enable method chaining
+     */
+    public Utf8JsonWriter value(boolean value) {
+        beforeValue();
+        writeAscii(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Writes a value with all its nested values.
+     *
+     * @param value the value to write
+     * @return this writer, to enable method chaining
+     */
+    public Utf8JsonWriter value(JsonValue value) {
+        if (value == null) {
+            throw new NullPointerException("value is null");
+        }
+        beforeValue();
+        try {
+            value.write(this);
+        } catch (IOException exception) {
+            // Writing to the buffer does not throw IOExceptions
+            throw new RuntimeException(exception);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the buffer holding the document, which is valid up to {@link #size()}. The buffer is
+     * not copied, it is only valid until the next call to the writer.
+     *
+     * @return the buffer of the writer
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the number of bytes written
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a copy of the bytes written
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * Discards the content, keeping the buffer for the next document.
+     *
+     * @return this writer, to enable method chaining
+     */
+    public Utf8JsonWriter reset() {
+        size = 0;
+        first = true;
+        afterName = false;
+        return this;
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (!first) {
+            writeByte(',');
+        }
+        first = false;
+    }
+
+    @Override
+    protected void writeLiteral(String value) {
+        writeAscii(value);
+    }
+
+    @Override
+    protected void writeNumber(String string) {
+        writeAscii(string);
+    }
+
+    @Override
+    protected void writeString(String string) {
+        writeByte('"');
+        writeJsonString(string);
+        writeByte('"');
+    }
+
+    @Override
+    protected void writeArrayOpen() {
+        writeByte('[');
+    }
+
+    @Override
+    protected void writeArrayClose() {
+        writeByte(']');
+    }
+
+    @Override
+    protected void writeArraySeparator() {
+        writeByte(',');
+    }
+
+    @Override
+    protected void writeObjectOpen() {
+        writeByte('{');
+    }
+
+    @Override
+    protected void writeObjectClose() {
+        writeByte('}');
+    }
+
+    @Override
+    protected void writeMemberName(String name) {
+        writeByte('"');
+        writeJsonString(name);
+        writeByte('"');
+    }
+
+    @Override
+    protected void writeMemberSeparator() {
+        writeByte(':');
+    }
+
+    @Override
+    protected void writeObjectSeparator() {
+        writeByte(',');
+    }
+
+    @Override
+    protected void writeJsonString(String string) {
+        int length = string.length();
+        for (int index = 0; index < length; index++) {
+            char ch = string.charAt(index);
+            if (ch < 0x80) {
+                if (ch < 0x20 || ch == '"' || ch == '\\') {
+                    writeAscii(getReplacementChars(ch));
+                } else {
+                    ensureCapacity(1);
+                    buffer[size++] = (byte) ch;
+                }
+            } else if (ch == 0x2028 || ch == 0x2029) {
+                writeAscii(getReplacementChars(ch));
+            } else if (ch < 0x800) {
+                ensureCapacity(2);
+                buffer[size++] = (byte) (0xc0 | ch >> 6);
+                buffer[size++] = (byte) (0x80 | ch & 0x3f);
+            } else if (!Character.isSurrogate(ch)) {
+                ensureCapacity(3);
+                buffer[size++] = (byte) (0xe0 | ch >> 12);
+                buffer[size++] = (byte) (0x80 | ch >> 6 & 0x3f);
+                buffer[size++] = (byte) (0x80 | ch & 0x3f);
+            } else if (Character.isHighSurrogate(ch) && index + 1 < length
+                    && Character.isLowSurrogate(string.charAt(index + 1))) {
+                int codePoint = Character.toCodePoint(ch, string.charAt(++index));
+                ensureCapacity(4);
+                buffer[size++] = (byte) (0xf0 | codePoint >> 18);
+                buffer[size++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                buffer[size++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                buffer[size++] = (byte) (0x80 | codePoint & 0x3f);
+            } else {
+                // Unpaired surrogate, replaced like String.getBytes(UTF_8) does
+                writeByte('?');
+            }
+        }
+    }
+
+    private void writeAscii(String ascii) {
+        int length = ascii.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) ascii.charAt(i);
+        }
+    }
+
+    private void writeAscii(char[] ascii) {
+        ensureCapacity(ascii.length);
+        for (char ch : ascii) {
+            buffer[size++] = (byte) ch;
+        }
+    }
+
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) b;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+}
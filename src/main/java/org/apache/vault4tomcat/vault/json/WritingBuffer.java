@@ -23,6 +23,7 @@ package org.apache.vault4tomcat.vault.json;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Arrays;
 
 
 /**
@@ -34,7 +35,10 @@ import java.io.Writer;
 @SuppressWarnings("PMD")
 class WritingBuffer extends Writer {
 
-    private final Writer writer;
+    // Buffers of the finished writes, reused by the next ones
+    private static final BufferPool<WritingBuffer> POOL = new BufferPool<>(() -> new WritingBuffer(null, 128));
+
+    private Writer writer;
     private final char[] buffer;
     private int fill = 0;
 
@@ -47,6 +51,26 @@ class WritingBuffer extends Writer {
         buffer = new char[bufferSize];
     }
 
+    /**
+     * Returns a pooled buffer writing to the given writer, to be handed back with {@link #release()}.
+     */
+    static WritingBuffer acquire(Writer writer) {
+        WritingBuffer buffer = POOL.acquire();
+        buffer.writer = writer;
+        return buffer;
+    }
+
+    /**
+     * Hands a buffer obtained from {@link #acquire(Writer)} back to the pool, dropping what was not
+     * flushed and wiping the content written.
+     */
+    void release() {
+        writer = null;
+        fill = 0;
+        Arrays.fill(buffer, '\0');
+        POOL.release(this);
+    }
+
     @Override
     public void write(int c) throws IOException {
         if (fill > buffer.length - 1) {
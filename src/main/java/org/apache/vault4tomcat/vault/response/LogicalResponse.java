@@ -1,22 +1,29 @@
 package org.apache.vault4tomcat.vault.response;
 
-import org.apache.vault4tomcat.vault.json.Json;
 import org.apache.vault4tomcat.vault.json.JsonObject;
+import org.apache.vault4tomcat.vault.json.JsonProjection;
+import org.apache.vault4tomcat.vault.json.JsonReader;
 import org.apache.vault4tomcat.vault.json.JsonValue;
 import org.apache.vault4tomcat.vault.rest.RestResponse;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * A simplified response wrapper for Vault logical operations, tailored for KV v2 read-only access.
  */
 public class LogicalResponse {
 
+    private static final String KV_DATA_PATH = "data.data";
+    private static final JsonProjection KV_DATA = JsonProjection.of(KV_DATA_PATH, "data.metadata");
+    private static final JsonProjection RESULT_DATA = JsonProjection.of("data");
+    private static final JsonProjection RESULT_AUTH = JsonProjection.of("auth");
+
     private final Map<String, String> data = new HashMap<>();
     private final Map<String, String> metadata = new HashMap<>();
+    private final Map<Integer, String> versionCreatedTimes = new TreeMap<>();
 
     /**
      * Constructs a LogicalResponse with status and secret data.
@@ -27,40 +34,71 @@ public class LogicalResponse {
         parseResponseData(restResponse.body(), operation);
     }
 
+    /**
+     * Reads only the part of the response the operation needs, through a {@link JsonProjection}:
+     * everything else (request id, lease info, wrap_info, warnings...) is skipped without decoding.
+     */
     private void parseResponseData(final byte[] responseBytes, final String operation) {
         try {
-            final String jsonString = new String(responseBytes, StandardCharsets.UTF_8);
-            JsonObject jsonObject = Json.parse(jsonString).asObject();
-
-            if (operation.equals("readV2")) {
-                jsonObject = jsonObject.get("data").asObject();
-                JsonValue metadataValue = jsonObject.get("metadata");
-                if (null != metadataValue) {
-                    parseJsonIntoMap(metadataValue.asObject(), this.metadata);
-                }
-            } else if (operation.equals("login")) {
-                jsonObject = jsonObject.get("auth").asObject();
-                parseJsonIntoMap(jsonObject, this.data);
-                return;
+            switch (operation) {
+                case "readV2" -> KV_DATA.project(responseBytes, (path, reader) ->
+                        parseJsonIntoMap(reader, path.equals(KV_DATA_PATH) ? this.data : this.metadata));
+                case "readMetadata" -> RESULT_DATA.project(responseBytes, (path, reader) -> parseMetadata(reader));
+                case "login" -> RESULT_AUTH.project(responseBytes, (path, reader) -> parseJsonIntoMap(reader, this.data));
+                default -> RESULT_DATA.project(responseBytes, (path, reader) -> parseJsonIntoMap(reader, this.data));
             }
-
-            parseJsonIntoMap(jsonObject.get("data").asObject(), this.data);
         } catch (Exception ignored) {
         }
     }
 
-    private void parseJsonIntoMap(final JsonObject jsonObject, final Map<String, String> map) {
-        for (final JsonObject.Member member : jsonObject) {
-            final JsonValue jsonValue = member.getValue();
-
-            if (jsonValue == null || jsonValue.isNull()) {
-                continue;
+    private void parseMetadata(final JsonReader reader) {
+        if (reader.peek() != JsonReader.Token.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (name.equals("versions") && reader.peek() == JsonReader.Token.BEGIN_OBJECT) {
+                final JsonObject versions = reader.nextValue().asObject();
+                this.metadata.put(name, versions.toString());
+                parseVersions(versions);
+            } else {
+                readMember(reader, name, this.metadata);
             }
+        }
+        reader.endObject();
+    }
 
-            if (jsonValue.isString()) {
-                map.put(member.getName(), jsonValue.asString());
-            } else {
-                map.put(member.getName(), jsonValue.toString());
+    private void parseJsonIntoMap(final JsonReader reader, final Map<String, String> map) {
+        if (reader.peek() != JsonReader.Token.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            readMember(reader, reader.nextName(), map);
+        }
+        reader.endObject();
+    }
+
+    private void readMember(final JsonReader reader, final String name, final Map<String, String> map) {
+        switch (reader.peek()) {
+            case NULL -> reader.nextNull();
+            case STRING -> map.put(name, reader.nextString());
+            default -> map.put(name, reader.nextValue().toString());
+        }
+    }
+
+    private void parseVersions(final JsonObject versions) {
+        for (final JsonObject.Member member : versions) {
+            final JsonValue version = member.getValue();
+            if (version.isObject() && version.asObject().get("created_time") != null) {
+                try {
+                    versionCreatedTimes.put(Integer.parseInt(member.getName()),
+                            version.asObject().get("created_time").asString());
+                } catch (NumberFormatException ignored) {
+                }
             }
         }
     }
@@ -72,4 +110,38 @@ public class LogicalResponse {
         return Collections.unmodifiableMap(data);
     }
 
+    /**
+     * @return Unmodifiable map of the KV v2 metadata returned alongside the secret (e.g. "version",
+     * "created_time"), or of the secret metadata itself for metadata reads (e.g. "current_version")
+     */
+    public Map<String, String> getMetadata() {
+        return Collections.unmodifiableMap(metadata);
+    }
+
+    /**
+     * @return Unmodifiable map of the creation time (RFC 3339) of every version listed in a metadata
+     * read, ordered by version number. Empty for any other kind of response.
+     */
+    public Map<Integer, String> getVersionCreatedTimes() {
+        return Collections.unmodifiableMap(versionCreatedTimes);
+    }
+
+    /**
+     * Returns the KV v2 version described by this response: the version that was read for data
+     * reads, or the current version of the secret for metadata reads.
+     *
+     * @return the version, or 0 if the response carries no version information
+     */
+    public int getVersion() {
+        String version = metadata.get("version");
+        if (version == null) {
+            version = metadata.get("current_version");
+        }
+        try {
+            return version != null ? Integer.parseInt(version) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
 }
@@ -8,10 +8,21 @@ import java.io.Serial;
  */
 public class RestException extends Exception {
 
+    private int status;
+
     public RestException(final String message) {
         super(message);
     }
 
+    /**
+     * @param message A string expressing the exception cause
+     * @param status  The HTTP status code returned by the Vault server (e.g. 403)
+     */
+    public RestException(final String message, final int status) {
+        super(message);
+        this.status = status;
+    }
+
     public RestException(final Throwable t) {
         super(t);
     }
@@ -20,4 +31,12 @@ public class RestException extends Exception {
         super(message, cause);
     }
 
+    /**
+     * @return The HTTP status code returned by the Vault server, or <code>0</code> if the request did
+     * not get a response
+     */
+    public int getStatus() {
+        return status;
+    }
+
 }
@@ -34,6 +34,17 @@ public class VaultHttpClient {
                 .build();
     }
 
+    /**
+     * Creates a request on top of a shared HTTP client, reusing its pooled connections.
+     *
+     * @param client the shared HTTP client
+     */
+    public VaultHttpClient(HttpClient client) {
+        this.connectTimeoutSeconds = 10;
+        this.readTimeoutSeconds = 30;
+        this.client = client;
+    }
+
     /**
      * Sets the full URL to be used for the request.
      *
@@ -90,29 +101,27 @@ public class VaultHttpClient {
      */
     public RestResponse get() throws RestException {
         try {
-            HttpResponse<String> response;
-            try (HttpClient client = HttpClient.newBuilder()
-                    .connectTimeout(Duration.ofSeconds(connectTimeoutSeconds))
-                    .build()) {
+            HttpResponse<byte[]> response;
 
-                HttpRequest.Builder builder = HttpRequest.newBuilder()
-                        .uri(new URI(url))
-                        .timeout(Duration.ofSeconds(readTimeoutSeconds))
-                        .GET();
+            HttpRequest.Builder builder = HttpRequest.newBuilder()
+                    .uri(new URI(url))
+                    .timeout(Duration.ofSeconds(readTimeoutSeconds))
+                    .GET();
 
-                headers.forEach(builder::header);
+            headers.forEach(builder::header);
 
-                HttpRequest request = builder.build();
-                response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            }
+            HttpRequest request = builder.build();
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
 
             int statusCode = response.statusCode();
             if (statusCode >= 200 && statusCode < 300) {
-                return new RestResponse(response.statusCode(), response.body().getBytes(StandardCharsets.UTF_8));
+                return new RestResponse(response.statusCode(), response.body());
             } else {
-                throw new RestException("HTTP GET failed with status code: " + statusCode + " - " + response.body());
+                throw new RestException("HTTP GET failed with status code: " + statusCode + " - " + new String(response.body(), StandardCharsets.UTF_8), statusCode);
             }
 
+        } catch (RestException e) {
+            throw e;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new RestException("Thread was interrupted during GET request", e);
@@ -124,28 +133,46 @@ public class VaultHttpClient {
     }
 
     public RestResponse post(String body) throws RestException {
+        final byte[] utf8 = body.getBytes(StandardCharsets.UTF_8);
+        return post(utf8, 0, utf8.length);
+    }
+
+    /**
+     * Executes a POST request with a UTF-8 encoded JSON body, e.g. the buffer of a
+     * {@link org.apache.vault4tomcat.vault.json.Utf8JsonWriter}. The body is sent as is, without
+     * being copied, and must not change until the request has completed.
+     *
+     * @param body   the buffer holding the body
+     * @param offset the index of the first byte of the body
+     * @param length the number of bytes of the body
+     * @return the response
+     * @throws RestException if the request fails
+     */
+    public RestResponse post(byte[] body, int offset, int length) throws RestException {
         try {
-            HttpResponse<String> response;
+            HttpResponse<byte[]> response;
 
             HttpRequest.Builder builder = HttpRequest.newBuilder()
                         .uri(new URI(url))
                         .timeout(Duration.ofSeconds(readTimeoutSeconds))
-                        .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(body, offset, length));
 
             headers.forEach(builder::header);
             builder.header("Content-Type", "application/json");
 
             HttpRequest request = builder.build();
-            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
 
 
             int statusCode = response.statusCode();
             if (statusCode >= 200 && statusCode < 300) {
-                return new RestResponse(response.statusCode(), response.body().getBytes(StandardCharsets.UTF_8));
+                return new RestResponse(response.statusCode(), response.body());
             } else {
-                throw new RestException("HTTP POST failed with status code: " + statusCode + " - " + response.body());
+                throw new RestException("HTTP POST failed with status code: " + statusCode + " - " + new String(response.body(), StandardCharsets.UTF_8), statusCode);
             }
 
+        } catch (RestException e) {
+            throw e;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new RestException("Thread was interrupted during POST request", e);
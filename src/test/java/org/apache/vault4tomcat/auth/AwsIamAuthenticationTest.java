@@ -0,0 +1,67 @@
+package org.apache.vault4tomcat.auth;
+
+import org.apache.vault4tomcat.auth.aws.AwsCredentials;
+import org.apache.vault4tomcat.config.VaultConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AwsIamAuthenticationTest {
+
+    private static final String SECRET_KEY = "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY";
+
+    @Test
+    void testSigningKeyMatchesAwsExample() {
+        // Example from the AWS Signature Version 4 documentation
+        byte[] signingKey = AwsIamAuthentication.getSignatureKey(SECRET_KEY, "20120215", "us-east-1", "iam");
+
+        assertEquals("f4780e2d9f65fa895f9c67b32ce1baf0b0d8a43505a000a1a9e090d414db404d",
+                AwsIamAuthentication.bytesToHex(signingKey));
+        assertSame(signingKey, AwsIamAuthentication.getSignatureKey(SECRET_KEY, "20120215", "us-east-1", "iam"));
+    }
+
+    @Test
+    void testHeadersMatchPreviousImplementation() throws Exception {
+        VaultConfig config = awsConfig("session-token", "vault.example.com");
+        Instant now = Instant.parse("2024-03-09T23:59:58Z");
+
+        String expected = new LegacyAwsSigV4().createHeaderJsonForPostRequest(config, "sts", "us-east-1",
+                AwsIamAuthentication.stsEndpoint, now);
+        String actual = new AwsIamAuthentication().createHeaderJsonForPostRequest(credentials("session-token"),
+                "vault.example.com", "sts", "us-east-1", AwsIamAuthentication.stsEndpoint, now);
+
+        assertEquals(expected, actual);
+        assertTrue(actual.contains("\"X-Amz-Date\" : [ \"20240309T235958Z\" ]"), actual);
+    }
+
+    @Test
+    void testHeadersWithoutOptionalValuesMatchPreviousImplementation() throws Exception {
+        VaultConfig config = awsConfig("", null);
+        Instant now = Instant.parse("2024-03-10T00:00:01Z");
+
+        String expected = new LegacyAwsSigV4().createHeaderJsonForPostRequest(config, "sts", "eu-west-1",
+                "https://sts.eu-west-1.amazonaws.com/", now);
+        String actual = new AwsIamAuthentication().createHeaderJsonForPostRequest(credentials(null),
+                null, "sts", "eu-west-1", "https://sts.eu-west-1.amazonaws.com/", now);
+
+        assertEquals(expected, actual);
+        assertFalse(actual.contains("x-amz-security-token"), actual);
+    }
+
+    static AwsCredentials credentials(String sessionToken) {
+        return new AwsCredentials("AKIDEXAMPLE", SECRET_KEY, sessionToken, null);
+    }
+
+    static VaultConfig awsConfig(String sessionToken, String headerValue) {
+        VaultConfig config = mock(VaultConfig.class);
+        when(config.getAwsAccessKey()).thenReturn("AKIDEXAMPLE");
+        when(config.getAwsSecretKey()).thenReturn(SECRET_KEY);
+        when(config.getAwsSessionToken()).thenReturn(sessionToken);
+        when(config.getAwsHeaderValue()).thenReturn(headerValue);
+        return config;
+    }
+}
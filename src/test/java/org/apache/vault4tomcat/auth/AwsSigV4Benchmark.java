@@ -0,0 +1,51 @@
+package org.apache.vault4tomcat.auth;
+
+import org.apache.vault4tomcat.auth.aws.AwsCredentials;
+import org.apache.vault4tomcat.config.VaultConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating the signed STS login headers, before and after caching the signing key and the
+ * Mac/MessageDigest instances.
+ * <p>
+ * Not a unit test. Run with:
+ * <pre>
+ * mvn test-compile exec:exec -Pbenchmark -Dbenchmark=AwsSigV4Benchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AwsSigV4Benchmark {
+
+    private VaultConfig config;
+    private AwsCredentials credentials;
+    private AwsIamAuthentication authentication;
+    private LegacyAwsSigV4 legacy;
+
+    @Setup
+    public void setUp() {
+        config = AwsIamAuthenticationTest.awsConfig("session-token", "vault.example.com");
+        credentials = AwsIamAuthenticationTest.credentials("session-token");
+        authentication = new AwsIamAuthentication();
+        legacy = new LegacyAwsSigV4();
+    }
+
+    @Benchmark
+    public String legacyHeaders() throws Exception {
+        return legacy.createHeaderJsonForPostRequest(config, "sts", "us-east-1",
+                AwsIamAuthentication.stsEndpoint, Instant.now());
+    }
+
+    @Benchmark
+    public String cachedHeaders() throws Exception {
+        return authentication.createHeaderJsonForPostRequest(credentials, "vault.example.com", "sts", "us-east-1",
+                AwsIamAuthentication.stsEndpoint, Instant.now());
+    }
+}
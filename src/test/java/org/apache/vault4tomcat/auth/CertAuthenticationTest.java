@@ -0,0 +1,141 @@
+package org.apache.vault4tomcat.auth;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsExchange;
+import com.sun.net.httpserver.HttpsParameters;
+import com.sun.net.httpserver.HttpsServer;
+import org.apache.vault4tomcat.config.VaultConfig;
+import org.apache.vault4tomcat.vault.Vault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Logs in against a local HTTPS stand-in for Vault that requires a client certificate.
+ */
+class CertAuthenticationTest {
+
+    private static final String PASSWORD = "changeit";
+
+    @TempDir
+    Path directory;
+
+    private Path keyStore;
+    private HttpsServer server;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // One self-signed certificate serves as server certificate, client certificate and trust anchor
+        keyStore = directory.resolve("tls.p12");
+        Process keytool = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "localhost", "-keyalg", "EC", "-groupname", "secp256r1",
+                "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1", "-validity", "2",
+                "-storetype", "PKCS12", "-keystore", keyStore.toString(),
+                "-storepass", PASSWORD, "-keypass", PASSWORD)
+                .redirectErrorStream(true).start();
+        String output = new String(keytool.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(0, keytool.waitFor(), output);
+
+        server = HttpsServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(serverContext()) {
+            @Override
+            public void configure(HttpsParameters params) {
+                SSLParameters parameters = getSSLContext().getDefaultSSLParameters();
+                parameters.setNeedClientAuth(true);
+                params.setSSLParameters(parameters);
+            }
+        });
+        server.createContext("/v1/", exchange -> {
+            HttpsExchange https = (HttpsExchange) exchange;
+            String peer = https.getSSLSession().getPeerPrincipal().getName();
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath() + " " + peer +
+                    " " + exchange.getRemoteAddress().getPort());
+            String body;
+            if (exchange.getRequestURI().getPath().equals("/v1/auth/cert/login")) {
+                body = "{\"auth\":{\"client_token\":\"s.cert\",\"lease_duration\":3600,\"renewable\":true}}";
+            } else if (exchange.getRequestURI().getPath().equals("/v1/secret/data/app/db")) {
+                body = "{\"data\":{\"data\":{\"password\":\"from-vault\"},\"metadata\":{\"version\":1}}}";
+            } else {
+                body = "{}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testLoginAndReadShareOneMutualTlsConnection() throws Exception {
+        VaultConfig config = new VaultConfig("https://127.0.0.1:" + server.getAddress().getPort(), null);
+        config.setSslKeyStore(keyStore.toString(), PASSWORD);
+        config.setSslTrustStore(keyStore.toString(), PASSWORD);
+
+        Vault vault = Vault.create(config);
+
+        VaultToken token = new CertAuthentication().login(vault);
+        assertEquals(new VaultToken("s.cert", 3600, true), token);
+        config.setToken(token.token());
+        assertEquals(Map.of("password", "from-vault"), vault.logical().read("app/db").getData());
+
+        List<String> logins = requests.stream().filter(r -> r.startsWith("POST /v1/auth/cert/login")).toList();
+        List<String> reads = requests.stream().filter(r -> r.startsWith("GET /v1/secret/data/app/db")).toList();
+        assertEquals(1, logins.size(), requests.toString());
+        assertEquals(1, reads.size(), requests.toString());
+        assertTrue(logins.get(0).contains("CN=localhost"), logins.get(0));
+        // Same client port: the read reused the connection the login was made on
+        assertEquals(port(logins.get(0)), port(reads.get(0)), requests.toString());
+    }
+
+    @Test
+    void testLoginWithoutKeyStoreIsRejected() {
+        VaultConfig config = new VaultConfig("https://127.0.0.1:" + server.getAddress().getPort(), null);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new CertAuthentication().login(Vault.create(config)));
+        assertTrue(requests.isEmpty());
+    }
+
+    private static String port(String request) {
+        return request.substring(request.lastIndexOf(' ') + 1);
+    }
+
+    private SSLContext serverContext() throws Exception {
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream is = Files.newInputStream(keyStore)) {
+            store.load(is, PASSWORD.toCharArray());
+        }
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(store, PASSWORD.toCharArray());
+        TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(store);
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keyManagers.getKeyManagers(), trustManagers.getTrustManagers(), null);
+        return context;
+    }
+}
@@ -0,0 +1,156 @@
+package org.apache.vault4tomcat.auth;
+
+import org.apache.vault4tomcat.vault.Vault;
+import org.apache.vault4tomcat.vault.api.Logical;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChainedAuthenticationTest {
+
+    private final Vault vault = mock(Vault.class);
+
+    @Test
+    void testSequenceFallsBackAfterFailureAndDeadline() throws Exception {
+        ChainedAuthentication chain = new ChainedAuthentication(List.of(
+                new ChainedAuthentication.Method("awsiam", failing()),
+                new ChainedAuthentication.Method("kubernetes", slow("s.slow", 5_000)),
+                new ChainedAuthentication.Method("approle", slow("s.approle", 0))
+        ), false, Duration.ofMillis(300));
+
+        long start = System.nanoTime();
+        VaultToken token = chain.login(vault);
+
+        assertEquals("s.approle", token.token());
+        assertEquals("approle", chain.getLastMethod());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 3_000);
+    }
+
+    @Test
+    void testRaceKeepsFirstValidToken() throws Exception {
+        ChainedAuthentication chain = new ChainedAuthentication(List.of(
+                new ChainedAuthentication.Method("awsiam", slow("s.aws", 2_000)),
+                new ChainedAuthentication.Method("approle", slow("s.approle", 50)),
+                new ChainedAuthentication.Method("cert", failing())
+        ), true, Duration.ofSeconds(5));
+
+        long start = System.nanoTime();
+        VaultToken token = chain.login(vault);
+
+        assertEquals("s.approle", token.token());
+        assertEquals("approle", chain.getLastMethod());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1_500);
+    }
+
+    @Test
+    void testRaceRevokesTokensOfLosingMethods() throws Exception {
+        List<String> revoked = recordRevocations();
+        ChainedAuthentication chain = new ChainedAuthentication(List.of(
+                new ChainedAuthentication.Method("awsiam", uninterruptible("s.aws", 300)),
+                new ChainedAuthentication.Method("approle", slow("s.approle", 50))
+        ), true, Duration.ofSeconds(5));
+
+        VaultToken token = chain.login(vault);
+
+        assertEquals("s.approle", token.token());
+        awaitRevocations(revoked, 1);
+        assertEquals(List.of("s.aws"), revoked);
+    }
+
+    @Test
+    void testSequenceRevokesTokenReturnedAfterDeadline() throws Exception {
+        List<String> revoked = recordRevocations();
+        ChainedAuthentication chain = new ChainedAuthentication(List.of(
+                new ChainedAuthentication.Method("kubernetes", uninterruptible("s.slow", 300)),
+                new ChainedAuthentication.Method("approle", slow("s.approle", 0))
+        ), false, Duration.ofMillis(100));
+
+        VaultToken token = chain.login(vault);
+
+        assertEquals("s.approle", token.token());
+        awaitRevocations(revoked, 1);
+        assertEquals(List.of("s.slow"), revoked);
+    }
+
+    @Test
+    void testAllMethodsFailing() {
+        for (boolean race : new boolean[]{false, true}) {
+            ChainedAuthentication chain = new ChainedAuthentication(List.of(
+                    new ChainedAuthentication.Method("awsiam", failing()),
+                    new ChainedAuthentication.Method("approle", slow("s.approle", 5_000))
+            ), race, Duration.ofMillis(200));
+
+            Exception e = assertThrows(Exception.class, () -> chain.login(vault));
+
+            assertTrue(e.getMessage().contains("awsiam failed: denied"), e.getMessage());
+            assertNull(chain.getLastMethod());
+        }
+    }
+
+    @Test
+    void testCloseClosesEveryMethod() {
+        VaultAuthenticator aws = mock(VaultAuthenticator.class);
+        VaultAuthenticator approle = mock(VaultAuthenticator.class);
+        ChainedAuthentication chain = new ChainedAuthentication(List.of(
+                new ChainedAuthentication.Method("awsiam", aws),
+                new ChainedAuthentication.Method("approle", approle)
+        ), false, Duration.ofSeconds(1));
+
+        chain.close();
+
+        verify(aws).close();
+        verify(approle).close();
+    }
+
+    private List<String> recordRevocations() throws Exception {
+        List<String> revoked = new CopyOnWriteArrayList<>();
+        Logical logical = mock(Logical.class);
+        doAnswer(invocation -> revoked.add(invocation.getArgument(0))).when(logical).revokeSelf(anyString());
+        when(vault.logical()).thenReturn(logical);
+        return revoked;
+    }
+
+    private static void awaitRevocations(List<String> revoked, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (revoked.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // Leave time for an unexpected extra revocation to show up
+        Thread.sleep(100);
+    }
+
+    private static VaultAuthenticator failing() {
+        return vault -> {
+            throw new IllegalStateException("denied");
+        };
+    }
+
+    private static VaultAuthenticator slow(String token, long delayMillis) {
+        return vault -> {
+            Thread.sleep(delayMillis);
+            return token;
+        };
+    }
+
+    // Like a login blocked on I/O, ignores interruptions and returns its token anyway
+    private static VaultAuthenticator uninterruptible(String token, long delayMillis) {
+        return vault -> {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(deadline - System.nanoTime());
+            }
+            return token;
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package org.apache.vault4tomcat.auth;
+
+import org.apache.vault4tomcat.config.VaultConfig;
+import org.apache.vault4tomcat.vault.Vault;
+import org.apache.vault4tomcat.vault.api.Logical;
+import org.apache.vault4tomcat.vault.response.LogicalResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testKubernetesLoginReadsServiceAccountToken() throws Exception {
+        Path tokenFile = Files.writeString(directory.resolve("token"), "eyJhbGciOi.sa-token\n");
+        VaultConfig config = mock(VaultConfig.class);
+        when(config.getKubernetesRole()).thenReturn("tomcat");
+        when(config.getKubernetesMount()).thenReturn("kubernetes");
+        when(config.getKubernetesTokenFile()).thenReturn(tokenFile.toString());
+        Vault vault = vault(config);
+        LogicalResponse response = loginResponse();
+        when(vault.logical().jwtLogin("kubernetes", "tomcat", "eyJhbGciOi.sa-token")).thenReturn(response);
+
+        VaultToken token = new KubernetesAuthentication().login(vault);
+
+        assertEquals(new VaultToken("s.k8s", 3600, true), token);
+    }
+
+    @Test
+    void testJwtLoginUsesConfiguredMount() throws Exception {
+        Path tokenFile = Files.writeString(directory.resolve("jwt"), "eyJhbGciOi.jwt");
+        VaultConfig config = mock(VaultConfig.class);
+        when(config.getJwtRole()).thenReturn("tomcat");
+        when(config.getJwtMount()).thenReturn("oidc-ci");
+        when(config.getJwtTokenFile()).thenReturn(tokenFile.toString());
+        Vault vault = vault(config);
+        LogicalResponse response = loginResponse();
+        when(vault.logical().jwtLogin("oidc-ci", "tomcat", "eyJhbGciOi.jwt")).thenReturn(response);
+
+        assertEquals("s.k8s", new JwtAuthentication().authenticate(vault));
+    }
+
+    @Test
+    void testMissingRoleOrTokenFileIsRejected() {
+        VaultConfig config = mock(VaultConfig.class);
+        Vault vault = vault(config);
+        assertThrows(IllegalArgumentException.class, () -> new JwtAuthentication().login(vault));
+
+        when(config.getJwtRole()).thenReturn("tomcat");
+        assertThrows(IllegalArgumentException.class, () -> new JwtAuthentication().login(vault));
+    }
+
+    private static Vault vault(VaultConfig config) {
+        Vault vault = mock(Vault.class);
+        Logical logical = mock(Logical.class);
+        when(vault.getConfig()).thenReturn(config);
+        when(vault.logical()).thenReturn(logical);
+        return vault;
+    }
+
+    private static LogicalResponse loginResponse() {
+        LogicalResponse response = mock(LogicalResponse.class);
+        when(response.getData()).thenReturn(Map.of("client_token", "s.k8s", "lease_duration", "3600", "renewable", "true"));
+        return response;
+    }
+}
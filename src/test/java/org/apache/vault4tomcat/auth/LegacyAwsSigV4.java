@@ -0,0 +1,131 @@
+package org.apache.vault4tomcat.auth;
+
+import org.apache.vault4tomcat.config.VaultConfig;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The header signing of {@link AwsIamAuthentication} as it was before the signing keys and crypto
+ * instances were cached. Kept as the reference for output equality and as the benchmark baseline.
+ */
+final class LegacyAwsSigV4 {
+
+    private static final String stsActionBody = "Action=GetCallerIdentity&Version=2011-06-15";
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+
+    String createHeaderJsonForPostRequest(VaultConfig config, String service, String region, String requestUrl,
+                                          Instant instant) throws URISyntaxException {
+        URI uri = new URI(requestUrl);
+
+        Date now = Date.from(instant);
+
+        DateFormat dfm = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
+        dfm.setTimeZone(TimeZone.getTimeZone("UTC"));
+        String amzDate = dfm.format(now);
+
+        DateFormat dfm1 = new SimpleDateFormat("yyyyMMdd");
+        dfm1.setTimeZone(TimeZone.getTimeZone("UTC"));
+        String datestamp = dfm1.format(now);
+
+        String payloadHash = calculateHash(stsActionBody);
+        Map<String, String> headers = new HashMap<>();
+        headers.put("x-amz-content-sha256", payloadHash);
+
+        headers.put("Content-Length", String.valueOf(stsActionBody.length()));
+        headers.put("Content-Type", "application/x-www-form-urlencoded; charset=utf-8");
+
+        String sessionToken = config.getAwsSessionToken();
+        if (sessionToken != null && !sessionToken.isEmpty()) {
+            headers.put("x-amz-security-token", sessionToken);
+        }
+
+        headers.put("X-Amz-Date", amzDate);
+
+        String iamServerId = config.getAwsHeaderValue();
+        if (iamServerId != null && !iamServerId.isEmpty()) {
+            headers.put("X-Vault-AWS-IAM-Server-Id", iamServerId);
+        }
+
+        headers.put("host", uri.getHost());
+
+        String authorizationHeader = getAuthorizationHeader(config, service, region, uri.getPath(), amzDate, datestamp, headers, payloadHash);
+        headers.put("Authorization", authorizationHeader);
+
+        return headers.entrySet().stream()
+                .filter(map -> !map.getKey().equals("host"))
+                .sorted(Map.Entry.comparingByKey(String.CASE_INSENSITIVE_ORDER))
+                .map(e -> String.format("\"%s\" : [ \"%s\" ]",
+                        e.getKey(),
+                        e.getValue()))
+                .collect(Collectors.joining(", ", "{ ", " }"));
+    }
+
+    private String getAuthorizationHeader(VaultConfig config, String service, String region, String uriPath, String amzDate, String datestamp,
+                                          Map<String, String> headers, String payloadHash) {
+        String canonicalHeaders = headers.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(String.CASE_INSENSITIVE_ORDER))
+                .map(entry -> entry.getKey().toLowerCase() + ":" + entry.getValue().trim() + "\n")
+                .collect(Collectors.joining());
+        String signedHeaders = headers.keySet().stream()
+                .map(String::toLowerCase)
+                .sorted()
+                .collect(Collectors.joining(";"));
+
+        String canonicalRequest = "POST" + "\n" + uriPath + "\n\n" +
+                canonicalHeaders + "\n" + signedHeaders + "\n" + payloadHash;
+
+        String credentialScope = datestamp + "/" + region + "/" + service + "/aws4_request";
+        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + credentialScope + "\n" + calculateHash(canonicalRequest);
+
+        byte[] signingKey = getSignatureKey(config.getAwsSecretKey(), datestamp, region, service);
+        String signature = bytesToHex(hmacSHA256(signingKey, stringToSign));
+
+        return ALGORITHM + " Credential=" + config.getAwsAccessKey() + "/" + credentialScope +
+                ", SignedHeaders=" + signedHeaders + ", Signature=" + signature;
+    }
+
+    private byte[] getSignatureKey(String key, String dateStamp, String regionName, String serviceName) {
+        byte[] kSecret = ("AWS4" + key).getBytes(StandardCharsets.UTF_8);
+        byte[] kDate = hmacSHA256(kSecret, dateStamp);
+        byte[] kRegion = hmacSHA256(kDate, regionName);
+        byte[] kService = hmacSHA256(kRegion, serviceName);
+        return hmacSHA256(kService, "aws4_request");
+    }
+
+    private byte[] hmacSHA256(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to calculate HMAC-SHA256", e);
+        }
+    }
+
+    private String calculateHash(String data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return bytesToHex(digest.digest(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to calculate SHA-256 hash", e);
+        }
+    }
+
+    private String bytesToHex(byte[] bytes) {
+        StringBuilder result = new StringBuilder();
+        for (byte b : bytes) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,157 @@
+package org.apache.vault4tomcat.auth.aws;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AwsCredentialsProviderChainTest {
+
+    @TempDir
+    Path directory;
+
+    private HttpServer metadataService;
+    private final AtomicInteger credentialRequests = new AtomicInteger();
+    private volatile int credentialStatus = 200;
+    private volatile Instant expiration = Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Local stand-in for the EC2 instance metadata service (IMDSv2)
+        metadataService = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        metadataService.createContext("/latest/api/token", exchange -> {
+            assertEquals("PUT", exchange.getRequestMethod());
+            respond(exchange, 200, "imds-session");
+        });
+        metadataService.createContext("/latest/meta-data/iam/security-credentials/", exchange -> {
+            if (!"imds-session".equals(exchange.getRequestHeaders().getFirst("X-aws-ec2-metadata-token"))) {
+                respond(exchange, 401, "");
+            } else if (exchange.getRequestURI().getPath().endsWith("/")) {
+                respond(exchange, 200, "tomcat-role\n");
+            } else {
+                int request = credentialRequests.incrementAndGet();
+                respond(exchange, credentialStatus, "{\"Code\":\"Success\",\"AccessKeyId\":\"ASIA" + request + "\"," +
+                        "\"SecretAccessKey\":\"secret" + request + "\",\"Token\":\"session" + request + "\"," +
+                        "\"Expiration\":\"" + expiration + "\"}");
+            }
+        });
+        metadataService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        metadataService.stop(0);
+    }
+
+    @Test
+    void testInstanceMetadataCredentialsAreCachedAndRefreshedAhead() throws Exception {
+        try (AwsCredentialsProviderChain chain = new AwsCredentialsProviderChain(List.of(metadata()))) {
+            AwsCredentials credentials = chain.getCredentials();
+
+            assertEquals("ASIA1", credentials.accessKeyId());
+            assertEquals("session1", credentials.sessionToken());
+            assertEquals(expiration, credentials.expiration());
+            assertSame(credentials, chain.getCredentials());
+            assertEquals(1, credentialRequests.get());
+            long delay = chain.scheduledRefreshSeconds();
+            assertTrue(delay > 3000 && delay <= 3600 - AwsCredentialsProviderChain.REFRESH_AHEAD_SECONDS, "delay " + delay);
+
+            chain.refresh();
+            assertEquals("ASIA2", chain.getCredentials().accessKeyId());
+        }
+    }
+
+    @Test
+    void testFailedRefreshKeepsCredentialsAndRetries() throws Exception {
+        try (AwsCredentialsProviderChain chain = new AwsCredentialsProviderChain(List.of(metadata()))) {
+            AwsCredentials credentials = chain.getCredentials();
+            credentialStatus = 500;
+
+            chain.refresh();
+
+            assertSame(credentials, chain.getCredentials());
+            assertEquals(AwsCredentialsProviderChain.RETRY_DELAY_SECONDS, chain.scheduledRefreshSeconds());
+        }
+    }
+
+    @Test
+    void testShortLivedCredentialsAreRefreshedHalfway() throws Exception {
+        expiration = Instant.now().plusSeconds(400);
+        try (AwsCredentialsProviderChain chain = new AwsCredentialsProviderChain(List.of(metadata()))) {
+            chain.getCredentials();
+
+            long delay = chain.scheduledRefreshSeconds();
+            assertTrue(delay >= 190 && delay <= 200, "delay " + delay);
+        }
+    }
+
+    @Test
+    void testFirstProviderWithCredentialsWins() throws Exception {
+        Path credentialsFile = Files.writeString(directory.resolve("credentials"), """
+                [default]
+                aws_access_key_id = AKIADEFAULT
+                aws_secret_access_key = default-secret
+
+                [tomcat]
+                aws_access_key_id = AKIATOMCAT
+                aws_secret_access_key = tomcat-secret
+                aws_session_token = tomcat-session
+                """);
+        EnvironmentAwsCredentialsProvider emptyEnvironment = new EnvironmentAwsCredentialsProvider(name -> null);
+        AwsCredentialsProvider broken = () -> {
+            throw new IOException("unreachable");
+        };
+
+        try (AwsCredentialsProviderChain chain = new AwsCredentialsProviderChain(List.of(emptyEnvironment, broken,
+                new ProfileAwsCredentialsProvider(credentialsFile, "tomcat"), metadata()))) {
+            AwsCredentials credentials = chain.getCredentials();
+
+            assertEquals(new AwsCredentials("AKIATOMCAT", "tomcat-secret", "tomcat-session", null), credentials);
+            assertEquals(0, credentialRequests.get());
+            assertEquals(-1, chain.scheduledRefreshSeconds());
+        }
+    }
+
+    @Test
+    void testEnvironmentProviderAndMissingCredentials() throws Exception {
+        Map<String, String> environment = Map.of("AWS_ACCESS_KEY_ID", "AKIAENV", "AWS_SECRET_ACCESS_KEY", "env-secret");
+        assertEquals(new AwsCredentials("AKIAENV", "env-secret", null, null),
+                new EnvironmentAwsCredentialsProvider(environment::get).getCredentials());
+
+        try (AwsCredentialsProviderChain chain = new AwsCredentialsProviderChain(List.of(
+                new EnvironmentAwsCredentialsProvider(name -> null),
+                new ProfileAwsCredentialsProvider(directory.resolve("missing"), "default")))) {
+            Exception e = assertThrows(Exception.class, chain::getCredentials);
+            assertTrue(e.getMessage().startsWith("No AWS credentials found"), e.getMessage());
+        }
+    }
+
+    private InstanceMetadataAwsCredentialsProvider metadata() {
+        return new InstanceMetadataAwsCredentialsProvider("http://127.0.0.1:" + metadataService.getAddress().getPort());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+}
@@ -3,12 +3,17 @@ package org.apache.vault4tomcat.config;
 import org.junit.jupiter.api.Test;
 
 import java.io.OutputStream;
+import java.net.http.HttpClient;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class VaultConfigTest {
     @Test
@@ -27,4 +32,32 @@ class VaultConfigTest {
         assertNull(cfg.getAppRoleId(), "AppRoleId should not be set by this file");
         Files.delete(tempFile);
     }
+
+    @Test
+    void testClosedHttpClientIsReplaced() throws Exception {
+        VaultConfig config = new VaultConfig("http://127.0.0.1:8200", "s.123456");
+        HttpClient client = config.getHttpClient();
+        assertSame(client, config.getHttpClient());
+
+        config.closeHttpClient();
+
+        assertTrue(client.isTerminated() || client.awaitTermination(Duration.ofSeconds(5)));
+        assertNotSame(client, config.getHttpClient());
+        config.closeHttpClient();
+    }
+
+    @Test
+    void testMissingRefreshBoundDefaultsAroundTheOtherOne() {
+        VaultConfig minOnly = new VaultConfig("http://127.0.0.1:8200", "s.123456");
+        minOnly.setCacheRefreshInterval(60);
+        minOnly.setCacheRefreshMinInterval(300);
+        assertEquals(300, minOnly.getCacheRefreshMinInterval());
+        assertEquals(300, minOnly.getCacheRefreshMaxInterval());
+
+        VaultConfig maxOnly = new VaultConfig("http://127.0.0.1:8200", "s.123456");
+        maxOnly.setCacheRefreshInterval(600);
+        maxOnly.setCacheRefreshMaxInterval(120);
+        assertEquals(120, maxOnly.getCacheRefreshMinInterval());
+        assertEquals(120, maxOnly.getCacheRefreshMaxInterval());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package org.apache.vault4tomcat.core;
+
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heap footprint comparison between the former per-path {@code HashMap} cache and {@link SecretCache}.
+ * <p>
+ * Not a unit test. Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.apache.vault4tomcat.core.SecretCacheFootprintBenchmark
+ * </pre>
+ * Prints the retained size and heap histogram of both structures holding the same secrets, as
+ * measured by JOL.
+ */
+public class SecretCacheFootprintBenchmark {
+
+    private static final int SECRETS = 20_000;
+
+    public static void main(String[] args) {
+        int secrets = args.length > 0 ? Integer.parseInt(args[0]) : SECRETS;
+
+        Map<String, Map<String, String>> hashMapCache = new ConcurrentHashMap<>();
+        SecretCache secretCache = new SecretCache();
+        for (int i = 0; i < secrets; i++) {
+            String path = "apps/app-" + (i % 500) + "/component-" + i;
+            Map<String, String> data = secret(i);
+            hashMapCache.put(path, Collections.unmodifiableMap(data));
+            secretCache.put(path, 0, secret(i));
+        }
+
+        GraphLayout hashMapLayout = GraphLayout.parseInstance(hashMapCache);
+        GraphLayout compactLayout = GraphLayout.parseInstance(secretCache);
+
+        System.out.println("=== HashMap cache (" + secrets + " secrets)");
+        System.out.println(hashMapLayout.toFootprint());
+        System.out.println("=== SecretCache (" + secrets + " secrets)");
+        System.out.println(compactLayout.toFootprint());
+        System.out.printf("Bytes per secret: HashMap %.1f, SecretCache %.1f%n",
+                (double) hashMapLayout.totalSize() / secrets, (double) compactLayout.totalSize() / secrets);
+    }
+
+    // Typical database secret: the field names repeat everywhere, some values repeat across paths
+    private static Map<String, String> secret(int i) {
+        Map<String, String> data = new HashMap<>();
+        data.put(new String("username"), "svc_app_" + (i % 500));
+        data.put(new String("password"), "p4ss-" + Integer.toHexString(i * 7919) + "-" + i);
+        data.put(new String("host"), "db-" + (i % 20) + ".internal");
+        data.put(new String("port"), new String("5432"));
+        return data;
+    }
+}
@@ -0,0 +1,75 @@
+package org.apache.vault4tomcat.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecretCacheTest {
+
+    @Test
+    void testPutAndGetByPathVersionAndField() {
+        SecretCache cache = new SecretCache();
+        cache.put("app/db", 0, Map.of("username", "admin", "password", "latest"));
+        cache.put("app/db", 3, Map.of("username", "admin", "password", "pinned"));
+
+        assertEquals("latest", cache.get("app/db", 0, "password"));
+        assertEquals("pinned", cache.get("app/db", 3, "password"));
+        assertNull(cache.get("app/db", 0, "missing"));
+        assertNull(cache.get("app/other", 0));
+        assertEquals(Map.of("username", "admin", "password", "latest"), cache.get("app/db", 0));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testPutReplacesExistingEntry() {
+        SecretCache cache = new SecretCache();
+        cache.put("app/db", 0, Map.of("password", "v1"));
+        cache.put("app/db", 0, Map.of("password", "v2"));
+
+        assertEquals("v2", cache.get("app/db", 0, "password"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testKeysAndValuesAreDeduplicated() {
+        SecretCache cache = new SecretCache();
+        cache.put("app/one", 0, Map.of(new String("username"), new String("admin")));
+        cache.put("app/two", 0, Map.of(new String("username"), new String("admin")));
+
+        Map.Entry<String, String> one = cache.get("app/one", 0).entrySet().iterator().next();
+        Map.Entry<String, String> two = cache.get("app/two", 0).entrySet().iterator().next();
+        assertSame(one.getKey(), two.getKey());
+        assertSame(one.getValue(), two.getValue());
+    }
+
+    @Test
+    void testManyEntriesAndWideSecrets() {
+        SecretCache cache = new SecretCache();
+        Map<String, String> wide = new HashMap<>();
+        for (int i = 0; i < 40; i++) {
+            wide.put("field" + i, "value" + i);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            cache.put("app/" + i, 0, i % 100 == 0 ? wide : Map.of("password", "p" + i));
+        }
+
+        assertEquals(5_000, cache.size());
+        assertEquals("p4999", cache.get("app/4999", 0, "password"));
+        assertEquals("value17", cache.get("app/300", 0, "field17"));
+        assertEquals(wide, cache.get("app/300", 0));
+    }
+
+    @Test
+    void testReplacedValuesAreDroppedFromPool() {
+        SecretCache cache = new SecretCache();
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("app/rotating", 0, Map.of("password", "p" + i));
+        }
+
+        assertEquals("p9999", cache.get("app/rotating", 0, "password"));
+        assertTrue(cache.pooledStrings() < 1_000, "Pool holds " + cache.pooledStrings() + " strings");
+    }
+}
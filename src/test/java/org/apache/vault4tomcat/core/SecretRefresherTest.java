@@ -0,0 +1,112 @@
+package org.apache.vault4tomcat.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SecretRefresherTest {
+
+    @Test
+    void testOnlyChangedPathsAreReRead() throws Exception {
+        VaultClient client = mock(VaultClient.class);
+        when(client.getSecretMetadata("app/db")).thenReturn(metadata(3));
+        when(client.getSecretMetadata("app/api")).thenReturn(metadata(5));
+        when(client.getVersionedSecret("app/api")).thenReturn(new VersionedSecret(Map.of("key", "rotated"), 6));
+
+        Map<String, VersionedSecret> changes = new HashMap<>();
+        SecretRefresher refresher = new SecretRefresher(client, 60, changes::put);
+        refresher.track("app/db", 3);
+        refresher.track("app/api", 4);
+
+        assertEquals(1, refresher.refresh());
+        assertEquals(Map.of("key", "rotated"), changes.get("app/api").data());
+        assertFalse(changes.containsKey("app/db"));
+        verify(client, never()).getVersionedSecret("app/db");
+
+        // The version read with the data is now the cached one, so no further re-reads happen
+        when(client.getSecretMetadata("app/api")).thenReturn(metadata(6));
+        assertEquals(0, refresher.refresh());
+        verify(client, times(1)).getVersionedSecret("app/api");
+    }
+
+    @Test
+    void testFailedPollKeepsTracking() throws Exception {
+        VaultClient client = mock(VaultClient.class);
+        when(client.getSecretMetadata("app/db")).thenThrow(new Exception("Vault unavailable")).thenReturn(metadata(2));
+        when(client.getVersionedSecret("app/db")).thenReturn(new VersionedSecret(Map.of("password", "new"), 2));
+
+        Map<String, VersionedSecret> changes = new HashMap<>();
+        SecretRefresher refresher = new SecretRefresher(client, 60, changes::put);
+        refresher.track("app/db", 1);
+
+        assertEquals(0, refresher.refresh());
+        assertEquals(1, refresher.refresh());
+        assertEquals("new", changes.get("app/db").data().get("password"));
+    }
+
+    @Test
+    void testIntervalsAreLearnedFromVersionHistory() throws Exception {
+        VaultClient client = mock(VaultClient.class);
+        Instant now = Instant.parse("2024-06-01T00:00:00Z");
+        // Rotated hourly, changed yearly and never changed
+        when(client.getSecretMetadata("app/hourly")).thenReturn(history(now, Duration.ofHours(1), 24));
+        when(client.getSecretMetadata("app/yearly")).thenReturn(history(now, Duration.ofDays(365), 3));
+        when(client.getSecretMetadata("app/static")).thenReturn(history(now, Duration.ZERO, 1));
+
+        SecretRefresher refresher = new SecretRefresher(client, 300, 60, 3600, (path, secret) -> { },
+                Clock.fixed(now, ZoneOffset.UTC));
+        refresher.track("app/hourly", 24);
+        refresher.track("app/yearly", 3);
+        refresher.track("app/static", 1);
+        assertEquals(Map.of("app/hourly", 300L, "app/yearly", 300L, "app/static", 300L), refresher.refreshIntervals());
+
+        assertEquals(0, refresher.refresh());
+        assertEquals(Map.of("app/hourly", 900L, "app/yearly", 3600L, "app/static", 3600L), refresher.refreshIntervals());
+        // None of them is due right after a pass
+        assertEquals(0, refresher.refreshDue());
+        verify(client, times(1)).getSecretMetadata("app/hourly");
+    }
+
+    @Test
+    void testIntervalIsClampedToBounds() {
+        Instant now = Instant.parse("2024-06-01T00:00:00Z");
+        List<Instant> everyMinute = history(now, Duration.ofMinutes(1), 5).versionCreatedTimes();
+
+        assertEquals(60, SecretRefresher.intervalFor(everyMinute, now, 60, 3600, 300));
+        assertEquals(15, SecretRefresher.intervalFor(everyMinute, now, 1, 3600, 300));
+        assertEquals(300, SecretRefresher.intervalFor(List.of(), now, 60, 3600, 300));
+    }
+
+    @Test
+    void testStaleBurstIsPolledLessOften() {
+        Instant burst = Instant.parse("2023-06-01T00:00:00Z");
+        // Ten versions written a minute apart a year ago, none since
+        List<Instant> createdTimes = history(burst, Duration.ofMinutes(1), 10).versionCreatedTimes();
+
+        assertEquals(60, SecretRefresher.intervalFor(createdTimes, burst.plusSeconds(60), 60, 86400, 300));
+        assertEquals(3600, SecretRefresher.intervalFor(createdTimes, burst.plus(Duration.ofHours(4)), 60, 86400, 300));
+        assertEquals(86400, SecretRefresher.intervalFor(createdTimes, burst.plus(Duration.ofDays(365)), 60, 86400, 300));
+    }
+
+    private static SecretMetadata metadata(int currentVersion) {
+        return new SecretMetadata(currentVersion, List.of());
+    }
+
+    private static SecretMetadata history(Instant last, Duration gap, int versions) {
+        List<Instant> createdTimes = new ArrayList<>();
+        for (int i = versions - 1; i >= 0; i--) {
+            createdTimes.add(last.minus(gap.multipliedBy(i)));
+        }
+        return new SecretMetadata(versions, createdTimes);
+    }
+}
@@ -0,0 +1,64 @@
+package org.apache.vault4tomcat.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenFileWatcherTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRotationThroughSymlinkSwapRunsActionInBackground() throws Exception {
+        // Layout of a projected volume: token -> ..data/token, ..data -> ..<timestamp>
+        Path first = Files.createDirectory(directory.resolve("..2024_01"));
+        Files.writeString(first.resolve("token"), "jwt-1");
+        Files.createSymbolicLink(directory.resolve("..data"), first.getFileName());
+        Path token = Files.createSymbolicLink(directory.resolve("token"), Path.of("..data", "token"));
+        Semaphore changes = new Semaphore(0);
+
+        try (TokenFileWatcher watcher = new TokenFileWatcher(token, () -> {
+            assertEquals("vault4tomcat-token-file-watcher", Thread.currentThread().getName());
+            changes.release();
+        })) {
+            watcher.start();
+
+            Path second = Files.createDirectory(directory.resolve("..2024_02"));
+            Files.writeString(second.resolve("token"), "jwt-2");
+            Path swap = Files.createSymbolicLink(directory.resolve("..data_tmp"), second.getFileName());
+            Files.move(swap, directory.resolve("..data"), StandardCopyOption.ATOMIC_MOVE);
+
+            assertTrue(changes.tryAcquire(15, TimeUnit.SECONDS), "rotation not detected");
+        }
+    }
+
+    @Test
+    void testUnchangedContentDoesNotRunAction() throws Exception {
+        Path token = Files.writeString(directory.resolve("token"), "jwt-1");
+        AtomicInteger changes = new AtomicInteger();
+
+        try (TokenFileWatcher watcher = new TokenFileWatcher(token, changes::incrementAndGet)) {
+            Files.writeString(token, "jwt-1");
+            watcher.checkForChange();
+            assertEquals(0, changes.get());
+
+            Files.delete(token);
+            watcher.checkForChange();
+            assertEquals(0, changes.get());
+
+            Files.writeString(token, "jwt-2");
+            watcher.checkForChange();
+            watcher.checkForChange();
+            assertEquals(1, changes.get());
+        }
+    }
+}
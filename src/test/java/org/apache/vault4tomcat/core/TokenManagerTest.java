@@ -0,0 +1,228 @@
+package org.apache.vault4tomcat.core;
+
+import org.apache.vault4tomcat.auth.VaultAuthenticator;
+import org.apache.vault4tomcat.auth.VaultToken;
+import org.apache.vault4tomcat.config.VaultConfig;
+import org.apache.vault4tomcat.vault.Vault;
+import org.apache.vault4tomcat.vault.VaultException;
+import org.apache.vault4tomcat.vault.api.Logical;
+import org.apache.vault4tomcat.vault.response.LogicalResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenManagerTest {
+
+    private VaultConfig config;
+    private Vault vault;
+    private Logical logical;
+    private VaultAuthenticator authenticator;
+    private TokenManager tokenManager;
+
+    @BeforeEach
+    void setUp() {
+        config = new VaultConfig("http://127.0.0.1:8200", null);
+        vault = mock(Vault.class);
+        logical = mock(Logical.class);
+        authenticator = mock(VaultAuthenticator.class);
+        when(vault.getConfig()).thenReturn(config);
+        when(vault.logical()).thenReturn(logical);
+        tokenManager = new TokenManager(vault, authenticator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenManager.close();
+    }
+
+    @Test
+    void testLoginPublishesTokenAndSchedulesRenewal() throws Exception {
+        when(authenticator.login(vault)).thenReturn(new VaultToken("s.one", 1200, true));
+
+        tokenManager.login();
+
+        assertEquals("s.one", config.getToken());
+        assertEquals(1200 * TokenManager.RENEW_FRACTION_PERCENT / 100, tokenManager.scheduledDelaySeconds());
+    }
+
+    @Test
+    void testTokenWithoutLeaseIsNotScheduled() throws Exception {
+        when(authenticator.login(vault)).thenReturn(VaultToken.of("root"));
+
+        tokenManager.login();
+
+        assertEquals("root", config.getToken());
+        assertEquals(-1, tokenManager.scheduledDelaySeconds());
+    }
+
+    @Test
+    void testRenewalKeepsRenewingWhileLeaseIsExtended() throws Exception {
+        when(authenticator.login(vault)).thenReturn(new VaultToken("s.one", 1200, true));
+        LogicalResponse renewal = response("s.one", 1200);
+        when(logical.renewSelf()).thenReturn(renewal);
+
+        tokenManager.login();
+        tokenManager.renew();
+
+        assertEquals("s.one", config.getToken());
+        assertEquals(1200 * TokenManager.RENEW_FRACTION_PERCENT / 100, tokenManager.scheduledDelaySeconds());
+        verify(authenticator, times(1)).login(vault);
+    }
+
+    @Test
+    void testRenewalCappedByMaxTtlSchedulesReLogin() throws Exception {
+        when(authenticator.login(vault)).thenReturn(new VaultToken("s.one", 1200, true), new VaultToken("s.two", 1200, true));
+        LogicalResponse renewal = response("s.one", 300);
+        when(logical.renewSelf()).thenReturn(renewal);
+
+        tokenManager.login();
+        tokenManager.renew();
+        assertEquals(300 * TokenManager.RENEW_FRACTION_PERCENT / 100, tokenManager.scheduledDelaySeconds());
+
+        tokenManager.relogin();
+        assertEquals("s.two", config.getToken());
+        verify(authenticator, times(2)).login(vault);
+    }
+
+    @Test
+    void testFailedRenewalFallsBackToLogin() throws Exception {
+        when(authenticator.login(vault)).thenReturn(new VaultToken("s.one", 1200, true), new VaultToken("s.two", 1200, true));
+        when(logical.renewSelf()).thenThrow(new VaultException("permission denied", 403));
+
+        tokenManager.login();
+        tokenManager.renew();
+
+        assertEquals("s.two", config.getToken());
+    }
+
+    @Test
+    void testReauthenticateSkipsTokenAlreadyReplaced() throws Exception {
+        when(authenticator.login(vault)).thenReturn(new VaultToken("s.one", 0, false), new VaultToken("s.two", 0, false));
+
+        tokenManager.login();
+        tokenManager.reauthenticate("s.one");
+        tokenManager.reauthenticate("s.one");
+
+        assertEquals("s.two", config.getToken());
+        verify(authenticator, times(2)).login(vault);
+    }
+
+    @Test
+    void testBatchTokenIsReplacedShortlyBeforeExpiryWithoutRenewal() throws Exception {
+        LogicalResponse login = mock(LogicalResponse.class);
+        when(login.getData()).thenReturn(Map.of("client_token", "hvb.one", "lease_duration", "3600",
+                "renewable", "true", "token_type", "batch"));
+        VaultToken batch = VaultToken.from(login);
+        when(authenticator.login(vault)).thenReturn(batch, new VaultToken("hvb.two", 120, false));
+
+        tokenManager.login();
+        assertTrue(batch.batch());
+        assertFalse(batch.renewable());
+        assertEquals(3600 - TokenManager.BATCH_EXPIRY_MARGIN_SECONDS, tokenManager.scheduledDelaySeconds());
+
+        tokenManager.renew();
+        assertEquals("hvb.two", config.getToken());
+        // Short leases keep a tenth of the lease as margin
+        assertEquals(108, tokenManager.scheduledDelaySeconds());
+        verify(logical, never()).renewSelf();
+    }
+
+    @Test
+    void testTokenTypeIsDetectedFromPrefixWithoutTokenType() {
+        assertTrue(VaultToken.of("hvb.AAAA").batch());
+        assertTrue(VaultToken.of("b.AAAA").batch());
+        assertFalse(VaultToken.of("hvs.AAAA").batch());
+        assertFalse(VaultToken.from(response("s.one", 1200)).batch());
+    }
+
+    @Test
+    void testStoredTokenIsReusedWithoutLogin(@TempDir Path directory) throws Exception {
+        TokenSink sink = new TokenSink(directory.resolve("token"), "passphrase");
+        sink.write(new VaultToken("s.stored", 3600, true), Instant.now().plusSeconds(3000));
+        LogicalResponse lookup = mock(LogicalResponse.class);
+        when(lookup.getData()).thenReturn(Map.of("ttl", "3000", "renewable", "true"));
+        when(logical.lookupSelf()).thenReturn(lookup);
+        TokenManager resuming = new TokenManager(vault, authenticator, sink);
+
+        try {
+            VaultToken token = resuming.resumeOrLogin();
+
+            assertEquals(new VaultToken("s.stored", 3000, true), token);
+            assertEquals("s.stored", config.getToken());
+            assertEquals(3000 * TokenManager.RENEW_FRACTION_PERCENT / 100, resuming.scheduledDelaySeconds());
+            verify(authenticator, never()).login(vault);
+        } finally {
+            resuming.close();
+        }
+    }
+
+    @Test
+    void testRejectedStoredTokenFallsBackToLoginAndIsReplaced(@TempDir Path directory) throws Exception {
+        TokenSink sink = new TokenSink(directory.resolve("token"), "passphrase");
+        sink.write(new VaultToken("s.revoked", 3600, true), Instant.now().plusSeconds(3000));
+        when(logical.lookupSelf()).thenThrow(new VaultException("permission denied", 403));
+        when(authenticator.login(vault)).thenReturn(new VaultToken("s.new", 1200, true));
+        TokenManager resuming = new TokenManager(vault, authenticator, sink);
+
+        try {
+            resuming.resumeOrLogin();
+
+            assertEquals("s.new", config.getToken());
+            assertEquals("s.new", sink.read().token().token());
+        } finally {
+            resuming.close();
+        }
+    }
+
+    @Test
+    void testExpiredStoredTokenIsNotLookedUp(@TempDir Path directory) throws Exception {
+        TokenSink sink = new TokenSink(directory.resolve("token"), "passphrase");
+        sink.write(new VaultToken("s.expired", 3600, true), Instant.now().minusSeconds(1));
+        when(authenticator.login(vault)).thenReturn(new VaultToken("s.new", 1200, true));
+        TokenManager resuming = new TokenManager(vault, authenticator, sink);
+
+        try {
+            resuming.resumeOrLogin();
+
+            assertEquals("s.new", config.getToken());
+            verify(logical, never()).lookupSelf();
+        } finally {
+            resuming.close();
+        }
+    }
+
+    @Test
+    void testRenewalUpdatesSink(@TempDir Path directory) throws Exception {
+        TokenSink sink = new TokenSink(directory.resolve("token"), "passphrase");
+        when(authenticator.login(vault)).thenReturn(new VaultToken("s.one", 1200, true));
+        LogicalResponse renewal = response("s.one", 1200);
+        when(logical.renewSelf()).thenReturn(renewal);
+        TokenManager storing = new TokenManager(vault, authenticator, sink);
+
+        try {
+            storing.login();
+            Instant firstExpiry = sink.read().expiresAt();
+            Thread.sleep(1100);
+            storing.renew();
+
+            assertTrue(sink.read().expiresAt().isAfter(firstExpiry));
+        } finally {
+            storing.close();
+        }
+    }
+
+    private static LogicalResponse response(String token, long leaseDuration) {
+        LogicalResponse response = mock(LogicalResponse.class);
+        when(response.getData()).thenReturn(Map.of("client_token", token,
+                "lease_duration", String.valueOf(leaseDuration), "renewable", "true"));
+        return response;
+    }
+}
@@ -0,0 +1,64 @@
+package org.apache.vault4tomcat.core;
+
+import org.apache.vault4tomcat.auth.VaultToken;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenSinkTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWriteAndReadBack() throws Exception {
+        Path file = directory.resolve("token");
+        Instant expiresAt = Instant.ofEpochSecond(1_900_000_000L);
+        new TokenSink(file, "passphrase").write(new VaultToken("s.stored", 3600, true), expiresAt);
+
+        TokenSink.Entry entry = new TokenSink(file, "passphrase").read();
+
+        assertEquals(new VaultToken("s.stored", 3600, true), entry.token());
+        assertEquals(expiresAt, entry.expiresAt());
+    }
+
+    @Test
+    void testTokenIsEncryptedAtRest() throws Exception {
+        Path file = directory.resolve("token");
+        new TokenSink(file, "passphrase").write(new VaultToken("s.stored", 0, false), null);
+
+        String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        assertFalse(content.contains("s.stored"));
+        assertNull(new TokenSink(file, "passphrase").read().expiresAt());
+    }
+
+    @Test
+    void testWrongPassphraseOrForeignContentIsIgnored() throws Exception {
+        Path file = directory.resolve("token");
+        new TokenSink(file, "passphrase").write(new VaultToken("s.stored", 3600, true), null);
+        assertNull(new TokenSink(file, "other").read());
+
+        Files.writeString(file, "s.plaintext");
+        assertNull(new TokenSink(file, "passphrase").read());
+        assertNull(new TokenSink(directory.resolve("missing"), "passphrase").read());
+    }
+
+    @Test
+    void testWriteReplacesPreviousToken() throws Exception {
+        Path file = directory.resolve("token");
+        TokenSink sink = new TokenSink(file, "passphrase");
+        sink.write(new VaultToken("s.one", 3600, true), null);
+        sink.write(new VaultToken("s.two", 3600, true), null);
+
+        assertEquals("s.two", sink.read().token().token());
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
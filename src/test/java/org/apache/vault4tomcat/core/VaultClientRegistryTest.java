@@ -0,0 +1,124 @@
+package org.apache.vault4tomcat.core;
+
+import org.apache.vault4tomcat.config.VaultConfig;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VaultClientRegistryTest {
+
+    private final List<VaultClient> created = new ArrayList<>();
+    private final VaultClientRegistry registry = new VaultClientRegistry(config -> {
+        VaultClient client = mock(VaultClient.class);
+        created.add(client);
+        return client;
+    });
+
+    @Test
+    void testAlikeConfigurationsShareOneClient() throws Exception {
+        List<VaultClientRegistry.Lease> leases = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            leases.add(registry.acquire(new VaultConfig("http://vault:8200", "s.token")));
+        }
+
+        assertEquals(1, created.size());
+        assertEquals(1, registry.size());
+        for (VaultClientRegistry.Lease lease : leases) {
+            assertSame(created.get(0), lease.client());
+            assertSame(leases.get(0).cache(), lease.cache());
+        }
+    }
+
+    @Test
+    void testDifferentIdentitiesGetDifferentClients() throws Exception {
+        VaultClientRegistry.Lease first = registry.acquire(new VaultConfig("http://vault:8200", "s.first"));
+        VaultClientRegistry.Lease second = registry.acquire(new VaultConfig("http://vault:8200", "s.second"));
+        VaultClientRegistry.Lease otherVault = registry.acquire(new VaultConfig("http://other:8200", "s.first"));
+        VaultClientRegistry.Lease namespaced = registry.acquire(
+                new VaultConfig("http://vault:8200", "s.first").setNameSpace("team-a"));
+
+        assertEquals(4, created.size());
+        assertNotSame(first.client(), second.client());
+        assertNotSame(first.cache(), otherVault.cache());
+        assertNotSame(first.client(), namespaced.client());
+    }
+
+    @Test
+    void testKeyDoesNotHoldCredentials() {
+        VaultClientRegistry.Key key = VaultClientRegistry.keyFor(new VaultConfig("http://vault:8200", "s.secret"));
+
+        assertFalse(key.toString().contains("s.secret"));
+    }
+
+    @Test
+    void testClientIsClosedWithItsLastLease() throws Exception {
+        VaultClientRegistry.Lease first = registry.acquire(new VaultConfig("http://vault:8200", "s.token"));
+        VaultClientRegistry.Lease second = registry.acquire(new VaultConfig("http://vault:8200", "s.token"));
+        VaultClient client = first.client();
+
+        first.close();
+        first.close();
+        verify(client, never()).close();
+
+        second.close();
+        verify(client).close();
+        assertEquals(0, registry.size());
+
+        VaultClientRegistry.Lease third = registry.acquire(new VaultConfig("http://vault:8200", "s.token"));
+        assertNotSame(client, third.client());
+    }
+
+    @Test
+    void testSharedRefresherNotifiesOpenLeasesOnly() throws Exception {
+        VaultConfig config = new VaultConfig("http://vault:8200", "s.token");
+        config.setCacheRefreshInterval(60);
+        VaultClientRegistry.Lease first = registry.acquire(config);
+        VaultClientRegistry.Lease second = registry.acquire(config);
+        List<String> firstChanges = new ArrayList<>();
+        List<String> secondChanges = new ArrayList<>();
+        SecretRefresher.Listener firstListener = (path, secret) -> firstChanges.add(path);
+        SecretRefresher.Listener secondListener = (path, secret) -> secondChanges.add(path);
+        first.onSecretChanged(firstListener);
+        second.onSecretChanged(secondListener);
+        VaultClient client = created.get(0);
+        when(client.getSecretMetadata("app/db")).thenReturn(new SecretMetadata(2, List.of()));
+        when(client.getVersionedSecret("app/db")).thenReturn(new VersionedSecret(Map.of("password", "rotated"), 2));
+
+        assertSame(first.refresher(), second.refresher());
+        first.refresher().track("app/db", 1);
+        assertEquals(1, first.refresher().refresh());
+        assertEquals(List.of("app/db"), firstChanges);
+        assertEquals(List.of("app/db"), secondChanges);
+
+        second.close();
+        when(client.getSecretMetadata("app/db")).thenReturn(new SecretMetadata(3, List.of()));
+        first.refresher().refresh();
+        assertEquals(List.of("app/db", "app/db"), firstChanges);
+        assertEquals(List.of("app/db"), secondChanges);
+        first.close();
+        Reference.reachabilityFence(firstListener);
+        Reference.reachabilityFence(secondListener);
+    }
+
+    @Test
+    void testCloseAllClosesClientsOfOpenLeases() throws Exception {
+        VaultClientRegistry.Lease stale = registry.acquire(new VaultConfig("http://vault:8200", "s.token"));
+        VaultClient client = stale.client();
+
+        registry.closeAll();
+        verify(client).close();
+        assertEquals(0, registry.size());
+
+        VaultClientRegistry.Lease fresh = registry.acquire(new VaultConfig("http://vault:8200", "s.token"));
+        stale.close();
+        verify(fresh.client(), never()).close();
+        assertEquals(1, registry.size());
+        verify(client, times(1)).close();
+    }
+}
@@ -1,12 +1,21 @@
 package org.apache.vault4tomcat.core;
 
+import org.apache.vault4tomcat.auth.VaultAuthenticator;
+import org.apache.vault4tomcat.auth.VaultToken;
 import org.apache.vault4tomcat.config.VaultConfig;
+import org.apache.vault4tomcat.vault.Vault;
+import org.apache.vault4tomcat.vault.VaultException;
+import org.apache.vault4tomcat.vault.api.Logical;
+import org.apache.vault4tomcat.vault.response.LogicalResponse;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 class VaultClientTest {
 
@@ -46,4 +55,76 @@ class VaultClientTest {
             badClient.getSecret("myapp/config");
         }, "Expected an exception for invalid Vault token or unreachable Vault");
     }
+
+    @Test
+    void testForbiddenReadReauthenticatesAndRetriesOnce() throws Exception {
+        VaultConfig config = new VaultConfig("http://127.0.0.1:8200", null);
+        Vault vault = mock(Vault.class);
+        Logical logical = mock(Logical.class);
+        VaultAuthenticator authenticator = mock(VaultAuthenticator.class);
+        LogicalResponse response = mock(LogicalResponse.class);
+        when(vault.getConfig()).thenReturn(config);
+        when(vault.logical()).thenReturn(logical);
+        when(authenticator.login(vault)).thenReturn(new VaultToken("s.expired", 0, false), new VaultToken("s.fresh", 0, false));
+        when(response.getData()).thenReturn(Map.of("password", "s3cr3t"));
+        when(logical.read("myapp/config", 0))
+                .thenThrow(new VaultException("permission denied", 403))
+                .thenReturn(response);
+
+        try (VaultClient client = new VaultClient(vault, authenticator)) {
+            assertEquals("s3cr3t", client.getSecretValue("myapp/config", "password"));
+            assertEquals("s.fresh", config.getToken());
+        }
+        verify(authenticator, times(2)).login(vault);
+        verify(logical, times(2)).read("myapp/config", 0);
+        verify(authenticator).close();
+    }
+
+    @Test
+    void testConstructionDoesNotWaitForLogin() throws Exception {
+        VaultConfig config = new VaultConfig("http://127.0.0.1:8200", null);
+        Vault vault = mock(Vault.class);
+        Logical logical = mock(Logical.class);
+        LogicalResponse response = mock(LogicalResponse.class);
+        when(vault.getConfig()).thenReturn(config);
+        when(vault.logical()).thenReturn(logical);
+        when(response.getData()).thenReturn(Map.of("password", "s3cr3t"));
+        when(logical.read("myapp/config", 0)).thenReturn(response);
+        CountDownLatch loginRelease = new CountDownLatch(1);
+        VaultAuthenticator slowAuthenticator = new VaultAuthenticator() {
+            @Override
+            public String authenticate(Vault v) throws Exception {
+                assertTrue(loginRelease.await(10, TimeUnit.SECONDS));
+                return "s.slow";
+            }
+        };
+
+        try (VaultClient client = new VaultClient(vault, slowAuthenticator)) {
+            assertNull(config.getToken(), "Login should still be pending");
+            loginRelease.countDown();
+            assertEquals("s3cr3t", client.getSecretValue("myapp/config", "password"));
+            assertEquals("s.slow", config.getToken());
+        }
+    }
+
+    @Test
+    void testFailedLoginIsRetriedOnRead() throws Exception {
+        VaultConfig config = new VaultConfig("http://127.0.0.1:8200", null);
+        Vault vault = mock(Vault.class);
+        Logical logical = mock(Logical.class);
+        VaultAuthenticator authenticator = mock(VaultAuthenticator.class);
+        LogicalResponse response = mock(LogicalResponse.class);
+        when(vault.getConfig()).thenReturn(config);
+        when(vault.logical()).thenReturn(logical);
+        when(authenticator.login(vault))
+                .thenThrow(new VaultException("connection refused"))
+                .thenReturn(new VaultToken("s.second", 0, false));
+        when(response.getData()).thenReturn(Map.of("password", "s3cr3t"));
+        when(logical.read("myapp/config", 0)).thenReturn(response);
+
+        try (VaultClient client = new VaultClient(vault, authenticator)) {
+            assertEquals("s3cr3t", client.getSecretValue("myapp/config", "password"));
+            assertEquals("s.second", config.getToken());
+        }
+    }
 }
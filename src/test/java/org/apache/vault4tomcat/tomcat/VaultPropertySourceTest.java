@@ -1,10 +1,18 @@
 package org.apache.vault4tomcat.tomcat;
 
+import org.apache.vault4tomcat.config.VaultConfig;
+import org.apache.vault4tomcat.core.SecretMetadata;
 import org.apache.vault4tomcat.core.VaultClient;
+import org.apache.vault4tomcat.core.VaultClientRegistry;
+import org.apache.vault4tomcat.core.VersionedSecret;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -77,4 +85,120 @@ public class VaultPropertySourceTest {
         String result = propertySource.getProperty("vault:secret/app#token");
         assertNull(result);
     }
+
+    @Test
+    void testPinnedVersionIsReadAndCachedSeparately() throws Exception {
+        when(mockVaultClient.getSecret("secret/db", 7)).thenReturn(Map.of("password", "old"));
+        when(mockVaultClient.getSecret("secret/db")).thenReturn(Map.of("password", "new"));
+
+        assertEquals("old", propertySource.getProperty("vault:secret/db#password@7"));
+        assertEquals("old", propertySource.getProperty("vault:secret/db#password@7"));
+        assertEquals("new", propertySource.getProperty("vault:secret/db#password"));
+
+        verify(mockVaultClient, times(1)).getSecret("secret/db", 7);
+        verify(mockVaultClient, times(1)).getSecret("secret/db");
+    }
+
+    @Test
+    void testNonNumericVersionSuffixIsPartOfKey() throws Exception {
+        when(mockVaultClient.getSecret("secret/mail")).thenReturn(Map.of("admin@host", "x"));
+
+        assertEquals("x", propertySource.getProperty("vault:secret/mail#admin@host"));
+    }
+
+    @Test
+    void testRefreshReplacesChangedSecret() throws Exception {
+        VaultPropertySource refreshing = new VaultPropertySource(mockVaultClient, 60);
+        when(mockVaultClient.getVersionedSecret("secret/db")).thenReturn(
+                new VersionedSecret(Map.of("password", "v1"), 1),
+                new VersionedSecret(Map.of("password", "v2"), 2));
+        when(mockVaultClient.getSecretMetadata("secret/db")).thenReturn(
+                new SecretMetadata(1, List.of()), new SecretMetadata(2, List.of()));
+
+        assertEquals("v1", refreshing.getProperty("vault:secret/db#password"));
+        assertEquals(0, refreshing.refresher().refresh());
+        assertEquals("v1", refreshing.getProperty("vault:secret/db#password"));
+        assertEquals(1, refreshing.refresher().refresh());
+        assertEquals("v2", refreshing.getProperty("vault:secret/db#password"));
+    }
+
+    @Test
+    void testPrefetchedSecretIsFetchedOnce() throws Exception {
+        when(mockVaultClient.getSecret("secret/db")).thenReturn(Map.of("password", "topsecret"));
+
+        propertySource.prefetch(List.of("secret/db"));
+        verify(mockVaultClient, timeout(5000)).getSecret("secret/db");
+
+        assertEquals("topsecret", propertySource.getProperty("vault:secret/db#password"));
+        verify(mockVaultClient, times(1)).getSecret("secret/db");
+    }
+
+    @Test
+    void testCachedLookupDoesNotAllocate() throws Exception {
+        Map<String, String> secret = Map.of("username", "admin", "password", "topsecret");
+        when(mockVaultClient.getSecret("secret/db")).thenReturn(secret);
+        String usernameKey = "vault:secret/db#username";
+        String passwordKey = "vault:secret/db#password";
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        // Warm up: first lookup parses and fetches, later ones must only hit the interned descriptor
+        for (int i = 0; i < 10_000; i++) {
+            propertySource.getProperty(usernameKey);
+            propertySource.getProperty(passwordKey);
+            propertySource.getProperty("java.version");
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            propertySource.getProperty(usernameKey);
+            propertySource.getProperty(passwordKey);
+            propertySource.getProperty("java.version");
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < 1024, "Cached lookups allocated " + allocated + " bytes");
+        verify(mockVaultClient, times(1)).getSecret("secret/db");
+    }
+
+    @Test
+    void testPropertySourcesConfiguredAlikeShareClientAndCache() throws Exception {
+        Map<String, String> secret = Map.of("password", "topsecret");
+        when(mockVaultClient.getSecret("secret/shared")).thenReturn(secret);
+        VaultClientRegistry registry = new VaultClientRegistry(config -> mockVaultClient);
+        List<VaultPropertySource> sources = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            sources.add(new VaultPropertySource(registry.acquire(new VaultConfig("http://vault:8200", "s.token"))));
+        }
+
+        for (VaultPropertySource source : sources) {
+            assertEquals("topsecret", source.getProperty("vault:secret/shared#password"));
+        }
+        verify(mockVaultClient, times(1)).getSecret("secret/shared");
+
+        sources.forEach(VaultPropertySource::close);
+        verify(mockVaultClient).close();
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void testDroppedPropertySourceReleasesSharedClient() throws Exception {
+        VaultClientRegistry registry = new VaultClientRegistry(config -> mockVaultClient);
+        VaultPropertySource kept = new VaultPropertySource(registry.acquire(new VaultConfig("http://vault:8200", "s.token")));
+        // Like Tomcat, never close the property sources of reloaded contexts
+        for (int i = 0; i < 10; i++) {
+            new VaultPropertySource(registry.acquire(new VaultConfig("http://vault:8200", "s.token")));
+        }
+
+        kept.close();
+        assertEquals(1, registry.size());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (registry.size() > 0 && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertEquals(0, registry.size());
+        verify(mockVaultClient).close();
+    }
 }
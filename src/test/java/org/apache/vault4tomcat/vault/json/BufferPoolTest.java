@@ -0,0 +1,111 @@
+package org.apache.vault4tomcat.vault.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferPoolTest {
+
+    @Test
+    void testReleasedBuffersAreReused() {
+        BufferPool<StringBuilder> pool = new BufferPool<>(4, StringBuilder::new);
+
+        StringBuilder first = pool.acquire();
+        pool.release(first);
+
+        assertEquals(1, pool.size());
+        assertSame(first, pool.acquire());
+        assertEquals(0, pool.size());
+        assertNotSame(first, pool.acquire());
+    }
+
+    @Test
+    void testFullPoolDropsBuffers() {
+        BufferPool<StringBuilder> pool = new BufferPool<>(2, StringBuilder::new);
+
+        for (int i = 0; i < 5; i++) {
+            pool.release(new StringBuilder());
+        }
+
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    void testConcurrentParsesAndWritesOnVirtualThreads() throws Exception {
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int task = 0; task < 200; task++) {
+                String json = "{\"task\":" + task + ",\"escaped\":\"a\\\"" + task + "\\n\",\"list\":[" + task + "]}";
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        JsonValue value = Json.parse(json);
+                        assertEquals(Json.parse(new StringReader(json)), value);
+                        assertEquals(value, Json.parse(value.toString()));
+                        StringWriter writer = new StringWriter();
+                        value.writeTo(writer, WriterConfig.PRETTY_PRINT);
+                        assertEquals(value, Json.parse(writer.toString()));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+    }
+
+    @Test
+    void testFailedParseLeavesNoState() {
+        assertThrows(ParseException.class, () -> Json.parse("{\"a\":\"unterminated \\n escape"));
+
+        assertEquals("clean", Json.parse("\"clean\"").asString());
+        assertEquals("x\ny", Json.parse("\"x\\ny\"").asString());
+    }
+
+    @Test
+    void testReleasedWritingBufferHoldsNoContent() throws Exception {
+        StringWriter target = new StringWriter();
+        WritingBuffer buffer = WritingBuffer.acquire(target);
+        buffer.write("s3cr3t");
+        buffer.flush();
+        buffer.write("pending");
+
+        buffer.release();
+
+        Field chars = WritingBuffer.class.getDeclaredField("buffer");
+        chars.setAccessible(true);
+        for (char c : (char[]) chars.get(buffer)) {
+            assertEquals('\0', c);
+        }
+        assertEquals("s3cr3t", target.toString());
+    }
+
+    @Test
+    void testPooledParseAndWriteAllocateLess() {
+        String json = VaultResponses.KV_READ;
+        JsonValue tree = Json.parse(json);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 1000; i++) {
+            Json.parse(json);
+            tree.toString();
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        Json.parse(json);
+        tree.toString();
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // The 2 KB parser buffer and the writer buffers are not part of it anymore
+        assertTrue(allocated < 6 * 1024, "Parse and write allocated " + allocated + " bytes");
+    }
+}
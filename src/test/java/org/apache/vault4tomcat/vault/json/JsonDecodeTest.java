@@ -0,0 +1,75 @@
+package org.apache.vault4tomcat.vault.json;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonDecodeTest {
+
+    @Test
+    void testDecodesNativeValues() {
+        Map<String, Object> decoded = Json.decodeObject(utf8("{\"s\":\"a\\\"b\\\\c\\u00e9\",\"i\":42,\"n\":-7,"
+                + "\"big\":12345678901234567890,\"max\":9223372036854775807,\"d\":1.50,\"e\":1e3,"
+                + "\"t\":true,\"f\":false,\"z\":null,\"a\":[1,\"x\",[]],\"o\":{\"k\":{}}}"));
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("s", "a\"b\\cé");
+        expected.put("i", 42L);
+        expected.put("n", -7L);
+        expected.put("big", new BigDecimal("12345678901234567890"));
+        expected.put("max", Long.MAX_VALUE);
+        expected.put("d", new BigDecimal("1.50"));
+        expected.put("e", new BigDecimal("1e3"));
+        expected.put("t", true);
+        expected.put("f", false);
+        expected.put("z", null);
+        expected.put("a", Arrays.asList(1L, "x", List.of()));
+        expected.put("o", Map.of("k", Map.of()));
+        assertEquals(expected, decoded);
+        assertEquals(List.of("s", "i", "n", "big", "max", "d", "e", "t", "f", "z", "a", "o"),
+                List.copyOf(decoded.keySet()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {VaultResponses.KV_READ, VaultResponses.LOGIN, "[1,2.5,\"x\",null,{\"a\":[true]}]", "\"\\n\""})
+    void testSameAsTreeConversion(String json) {
+        assertEquals(Json.toJava(Json.parse(json)), Json.decodeValue(utf8(json)));
+    }
+
+    @Test
+    void testLastDuplicateWins() {
+        assertEquals(Map.of("a", 2L), Json.decodeObject(utf8("{\"a\":1,\"a\":2}")));
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        assertThrows(ParseException.class, () -> Json.decodeValue(utf8("{\"a\":1} x")));
+        assertThrows(ParseException.class, () -> Json.decodeValue(utf8("{\"a\":}")));
+        assertThrows(UnsupportedOperationException.class, () -> Json.decodeObject(utf8("[1]")));
+    }
+
+    @Test
+    void testLegacyDecodeUnescapesStrings() throws Exception {
+        Map<String, Object> decoded = Json.decode("{\"s\":\"say \\\"hi\\\"\",\"q\":\"\\\"\",\"n\":1,\"o\":{\"a\":\"b\"},\"z\":null}");
+
+        assertEquals("say \"hi\"", decoded.get("s"));
+        assertEquals("\"", decoded.get("q"));
+        assertEquals("1", decoded.get("n"));
+        assertEquals("{\"a\":\"b\"}", decoded.get("o"));
+        assertTrue(decoded.containsKey("z"));
+        assertNull(decoded.get("z"));
+    }
+
+    private static byte[] utf8(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,50 @@
+package org.apache.vault4tomcat.vault.json;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of looking up a member by name in objects of growing size, e.g. a wide JSON secret or the
+ * keys of a LIST response. Every lookup hits an existing member, in an order unrelated to the order
+ * the members were added in.
+ * <p>
+ * Not a unit test. Run with:
+ * <pre>
+ * mvn test-compile exec:exec -Pbenchmark -Dbenchmark=JsonObjectGetBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonObjectGetBenchmark {
+
+    @Param({"10", "300", "10000"})
+    public int members;
+
+    private JsonObject object;
+    private String[] lookups;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        object = new JsonObject();
+        for (int i = 0; i < members; i++) {
+            object.add("secret-key-" + i, "value-" + i);
+        }
+        // Fresh name instances, so that lookups cannot rely on identity or cached hash codes
+        lookups = new String[1024];
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = new String("secret-key-" + (i * 7919 % members));
+        }
+    }
+
+    @Benchmark
+    public JsonValue get() {
+        next = (next + 1) & (lookups.length - 1);
+        return object.get(lookups[next]);
+    }
+}
@@ -0,0 +1,125 @@
+package org.apache.vault4tomcat.vault.json;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonObjectTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, JsonObject.LARGE_INDEX_THRESHOLD, JsonObject.LARGE_INDEX_THRESHOLD + 1, 300, 10_000})
+    void testGetFindsEveryMember(int members) {
+        JsonObject object = object(members);
+
+        for (int i = 0; i < members; i++) {
+            assertEquals(Json.value(i), object.get(new String("key-" + i)));
+        }
+        assertNull(object.get("key-" + members));
+    }
+
+    @Test
+    void testDuplicateNamesResolveToLastMember() {
+        JsonObject object = object(100);
+        object.add("key-5", "first duplicate").add("key-5", "second duplicate");
+
+        assertEquals("second duplicate", object.get("key-5").asString());
+
+        object.remove("key-5");
+        assertEquals("first duplicate", object.get("key-5").asString());
+        object.remove("key-5");
+        assertEquals(Json.value(5), object.get("key-5"));
+        object.remove("key-5");
+        assertNull(object.get("key-5"));
+    }
+
+    @Test
+    void testIndexStaysCorrectAcrossRemovals() {
+        JsonObject object = object(1000);
+        Random random = new Random(42);
+        boolean[] removed = new boolean[1000];
+
+        for (int round = 0; round < 500; round++) {
+            int key = random.nextInt(1000);
+            object.remove("key-" + key);
+            removed[key] = true;
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(removed[i] ? null : Json.value(i), object.get("key-" + i), "key-" + i);
+        }
+    }
+
+    @Test
+    void testShrinkingBelowThresholdAndGrowingAgain() {
+        JsonObject object = object(JsonObject.LARGE_INDEX_THRESHOLD + 5);
+        for (int i = 0; i < 20; i++) {
+            object.remove("key-" + i);
+        }
+        for (int i = 100; i < 200; i++) {
+            object.set("key-" + i, i);
+        }
+
+        assertNull(object.get("key-3"));
+        assertEquals(Json.value(30), object.get("key-30"));
+        assertEquals(Json.value(150), object.get("key-150"));
+        assertEquals(117, object.size());
+    }
+
+    @Test
+    void testSetReplacesInLargeObject() {
+        JsonObject object = object(500);
+
+        object.set("key-250", "replaced");
+
+        assertEquals(500, object.size());
+        assertEquals("replaced", object.get("key-250").asString());
+    }
+
+    @Test
+    void testUnmodifiableViewSeesLaterChanges() {
+        JsonObject object = object(10);
+        JsonObject view = JsonObject.unmodifiableObject(object);
+
+        for (int i = 10; i < 100; i++) {
+            object.add("key-" + i, i);
+        }
+
+        assertEquals(Json.value(99), view.get("key-99"));
+        assertThrows(UnsupportedOperationException.class, () -> view.add("other", 1));
+    }
+
+    @Test
+    void testCopiesAndDeserializedObjectsAreIndexed() throws Exception {
+        JsonObject object = object(300);
+
+        JsonObject copy = new JsonObject(object);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        JsonObject deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = (JsonObject) in.readObject();
+        }
+
+        assertEquals(Json.value(299), copy.get("key-299"));
+        assertEquals(Json.value(299), deserialized.get("key-299"));
+        assertEquals(object, deserialized);
+    }
+
+    private static JsonObject object(int members) {
+        JsonObject object = new JsonObject();
+        for (int i = 0; i < members; i++) {
+            object.add("key-" + i, i);
+        }
+        return object;
+    }
+}
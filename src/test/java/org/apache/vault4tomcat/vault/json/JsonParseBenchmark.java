@@ -0,0 +1,101 @@
+package org.apache.vault4tomcat.vault.json;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of parsing a Vault response body, from the bytes received over HTTP to the JsonValue tree:
+ * decoding to a String and parsing it through a Reader, versus parsing the UTF-8 bytes directly,
+ * versus parsing them with a shape cache, versus parsing them lazily and reading a single value,
+ * versus extracting only the result member LogicalResponse needs. Also compares decoding the body
+ * to Java values through the legacy string decode and the typed one, and writing the parsed tree
+ * back to a string.
+ * <p>
+ * Not a unit test. Run with:
+ * <pre>
+ * mvn test-compile exec:exec -Pbenchmark -Dbenchmark=JsonParseBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonParseBenchmark {
+
+    @Param({"kv", "login"})
+    public String response;
+
+    private static final JsonProjection KV_DATA = JsonProjection.of("data.data", "data.metadata");
+    private static final JsonProjection LOGIN_AUTH = JsonProjection.of("auth");
+    private static final JsonShapeCache SHAPES = new JsonShapeCache();
+
+    private byte[] body;
+    private JsonProjection projection;
+    private JsonValue tree;
+
+    @Setup
+    public void setUp() {
+        body = ("kv".equals(response) ? VaultResponses.KV_READ : VaultResponses.LOGIN).getBytes(StandardCharsets.UTF_8);
+        projection = "kv".equals(response) ? KV_DATA : LOGIN_AUTH;
+        tree = Json.parse(body);
+    }
+
+    @Benchmark
+    public JsonValue parseString() {
+        return Json.parse(new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public JsonValue parseUtf8() {
+        return Json.parse(body);
+    }
+
+    @Benchmark
+    public JsonValue parseUtf8Shapes() {
+        return Json.parse(body, SHAPES);
+    }
+
+    @Benchmark
+    public String parseLazy() {
+        return readOne(Json.parseLazy(body));
+    }
+
+    @Benchmark
+    public String parseLazyShapes() {
+        return readOne(Json.parseLazy(body, SHAPES));
+    }
+
+    private String readOne(JsonValue parsed) {
+        JsonObject root = parsed.asObject();
+        if ("kv".equals(response)) {
+            return root.get("data").asObject().get("data").asObject().get("password").asString();
+        }
+        return root.get("auth").asObject().get("client_token").asString();
+    }
+
+    @Benchmark
+    public Map<String, JsonValue> project() {
+        return projection.extract(body);
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeLegacy() throws IOException {
+        return Json.decode(new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeTyped() {
+        return Json.decodeObject(body);
+    }
+
+    @Benchmark
+    public String write() {
+        return tree.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package org.apache.vault4tomcat.vault.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonProjectionTest {
+
+    @Test
+    void testExtractsSelectedPaths() {
+        JsonProjection projection = JsonProjection.of("data.data", "data.metadata.version", "auth");
+
+        Map<String, JsonValue> values = projection.extract(utf8(VaultResponses.KV_READ));
+
+        JsonObject expected = Json.parse(VaultResponses.KV_READ).asObject().get("data").asObject();
+        assertEquals(List.of("data.data", "data.metadata.version", "auth"), List.copyOf(values.keySet()));
+        assertEquals(expected.get("data"), values.get("data.data"));
+        assertEquals(Json.value(7), values.get("data.metadata.version"));
+        assertEquals(Json.NULL, values.get("auth"));
+    }
+
+    @Test
+    void testExtractsLoginToken() {
+        Map<String, JsonValue> values = JsonProjection.of("auth.client_token", "auth.lease_duration")
+                .extract(utf8(VaultResponses.LOGIN));
+
+        assertTrue(values.get("auth.client_token").asString().startsWith("hvs."));
+        assertEquals(2764800, values.get("auth.lease_duration").asInt());
+    }
+
+    @Test
+    void testMissingAndNonObjectPathsAreNotReported() {
+        JsonProjection projection = JsonProjection.of("data.data.password", "wrap_info.token", "missing");
+
+        Map<String, JsonValue> values = projection.extract(utf8(VaultResponses.KV_READ));
+
+        assertEquals(Map.of("data.data.password", Json.value("Zm9vYmFyYmF6cXV4MTIzNDU2Nzg5MA==")), values);
+    }
+
+    @Test
+    void testNestedPathIsCoveredByParent() {
+        Map<String, JsonValue> values = JsonProjection.of("data.metadata.version", "data")
+                .extract(utf8(VaultResponses.KV_READ));
+
+        assertEquals(List.of("data"), List.copyOf(values.keySet()));
+    }
+
+    @Test
+    void testEscapedNamesMatch() {
+        Map<String, JsonValue> values = JsonProjection.of("déjà.v")
+                .extract(utf8("{\"d\\u00e9j\\u00e0\":{\"v\":1}}"));
+
+        assertEquals(Map.of("déjà.v", Json.value(1)), values);
+    }
+
+    @Test
+    void testStopsOnceEverythingIsFound() {
+        // The rest of the document is never looked at
+        Map<String, JsonValue> values = JsonProjection.of("a").extract(utf8("{\"a\":1,\"b\":"));
+
+        assertEquals(Map.of("a", Json.value(1)), values);
+        assertThrows(ParseException.class, () -> JsonProjection.of("c").extract(utf8("{\"a\":1,\"b\":")));
+    }
+
+    @Test
+    void testRejectsEmptyNames() {
+        assertThrows(IllegalArgumentException.class, () -> JsonProjection.of(""));
+        assertThrows(IllegalArgumentException.class, () -> JsonProjection.of("data..data"));
+    }
+
+    @Test
+    void testSkippedMembersDoNotAllocate() {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 2000; i++) {
+            json.append("\"member-").append(i).append("\":{\"value\":\"café\",\"n\":[1,2,3]},");
+        }
+        byte[] document = utf8(json.append("\"wanted\":true}").toString());
+        JsonProjection projection = JsonProjection.of("wanted.nothing");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        JsonProjection.Handler handler = (path, reader) -> fail(path);
+        for (int i = 0; i < 1000; i++) {
+            projection.project(document, handler);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        projection.project(document, handler);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < 1024, "Projection allocated " + allocated + " bytes");
+    }
+
+    private static byte[] utf8(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
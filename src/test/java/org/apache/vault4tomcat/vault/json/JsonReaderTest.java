@@ -0,0 +1,164 @@
+package org.apache.vault4tomcat.vault.json;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonReaderTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{}", "[]", "null", "true", "-1.5e3", "\"caf\u00e9\"",
+            " { \"a\" : [ 1 , { \"b\" : [ ] } , \"x\\ny\" ] , \"c\" : false , \"d\" : null } ",
+            VaultResponses.KV_READ, VaultResponses.LOGIN
+    })
+    void testWalkRebuildsSameTree(String json) {
+        JsonReader reader = reader(json);
+
+        JsonValue rebuilt = walk(reader);
+
+        assertEquals(Json.parse(json), rebuilt);
+        assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    void testSkipsUnwantedMembers() {
+        JsonReader reader = reader(VaultResponses.KV_READ);
+        List<String> names = new ArrayList<>();
+        String password = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            names.add(name);
+            if (!name.equals("data")) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("data")) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals("password")) {
+                        password = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+
+        assertEquals("Zm9vYmFyYmF6cXV4MTIzNDU2Nzg5MA==", password);
+        assertEquals(List.of("request_id", "lease_id", "renewable", "lease_duration", "data", "wrap_info",
+                "warnings", "auth", "mount_type"), names);
+        assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    void testSkipValueOnNameSkipsMember() {
+        JsonReader reader = reader("{\"skipped\":{\"a\":[1,2]},\"kept\":7}");
+
+        reader.beginObject();
+        reader.skipValue();
+        assertEquals("kept", reader.nextName());
+        assertEquals(7, reader.nextInt());
+        reader.endObject();
+    }
+
+    @Test
+    void testSkippingDoesNotAllocate() {
+        StringBuilder json = new StringBuilder("{\"keys\":[");
+        for (int i = 0; i < 5000; i++) {
+            json.append(i > 0 ? "," : "").append("\"key-\u00e9-").append(i).append("\\n\"");
+        }
+        byte[] utf8 = json.append("],\"n\":1}").toString().getBytes(StandardCharsets.UTF_8);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 1000; i++) {
+            skipKeys(new JsonReader(utf8));
+        }
+
+        JsonReader reader = new JsonReader(utf8);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        skipKeys(reader);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < 1024, "Skipping allocated " + allocated + " bytes");
+    }
+
+    private static void skipKeys(JsonReader reader) {
+        reader.beginObject();
+        reader.skipValue();
+        reader.skipValue();
+        reader.endObject();
+    }
+
+    @Test
+    void testMismatchedCallFails() {
+        JsonReader reader = reader("{\"a\":1}");
+        reader.beginObject();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, reader::nextString);
+        assertEquals("Expected STRING but was NAME at 1:1", e.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{\"a\" 1}", "{\"a\":1,}", "[1 2]", "{} {}", "[\"a\\x\"]", "{\"a\":[tru]}"})
+    void testMalformedInputFails(String json) {
+        JsonReader reader = reader(json);
+
+        assertThrows(ParseException.class, () -> {
+            walk(reader);
+            reader.peek();
+        });
+    }
+
+    private static JsonReader reader(String json) {
+        return new JsonReader(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static JsonValue walk(JsonReader reader) {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                JsonObject object = new JsonObject();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    object.add(reader.nextName(), walk(reader));
+                }
+                reader.endObject();
+                return object;
+            case BEGIN_ARRAY:
+                JsonArray array = new JsonArray();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    array.add(walk(reader));
+                }
+                reader.endArray();
+                return array;
+            case STRING:
+                return Json.value(reader.nextString());
+            case NUMBER:
+                return new JsonNumber(reader.nextNumber());
+            case BOOLEAN:
+                return Json.value(reader.nextBoolean());
+            case NULL:
+                reader.nextNull();
+                return Json.NULL;
+            default:
+                throw new AssertionError(reader.peek());
+        }
+    }
+}
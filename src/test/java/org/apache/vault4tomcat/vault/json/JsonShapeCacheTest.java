@@ -0,0 +1,114 @@
+package org.apache.vault4tomcat.vault.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonShapeCacheTest {
+
+    @Test
+    void testSameStructureSharesShape() {
+        JsonShapeCache shapes = new JsonShapeCache();
+
+        JsonObject first = Json.parse(utf8(VaultResponses.KV_READ), shapes).asObject();
+        int size = shapes.size();
+        JsonObject second = Json.parse(utf8(VaultResponses.KV_READ), shapes).asObject();
+
+        assertEquals(Json.parse(VaultResponses.KV_READ), first);
+        assertEquals(first, second);
+        assertNotNull(first.shape());
+        assertSame(first.shape(), second.shape());
+        assertSame(first.get("data").asObject().shape(), second.get("data").asObject().shape());
+        assertEquals(size, shapes.size());
+    }
+
+    @Test
+    void testDifferentStructuresGetDifferentShapes() {
+        JsonShapeCache shapes = new JsonShapeCache();
+
+        JsonObject ab = Json.parse(utf8("{\"a\":1,\"b\":2}"), shapes).asObject();
+        JsonObject ac = Json.parse(utf8("{\"a\":1,\"c\":2}"), shapes).asObject();
+        JsonObject empty = Json.parse(utf8("{}"), shapes).asObject();
+
+        assertNotSame(ab.shape(), ac.shape());
+        assertEquals(Json.value(2), ac.get("c"));
+        assertNull(ac.get("b"));
+        assertTrue(empty.isEmpty());
+        assertEquals(3, shapes.size());
+    }
+
+    @Test
+    void testModificationDoesNotLeakIntoShape() {
+        JsonShapeCache shapes = new JsonShapeCache();
+        JsonObject modified = Json.parse(utf8("{\"a\":1,\"b\":2}"), shapes).asObject();
+
+        modified.set("a", 3).add("c", 4).remove("b");
+        JsonObject other = Json.parse(utf8("{\"a\":1,\"b\":2}"), shapes).asObject();
+
+        assertNull(modified.shape());
+        assertEquals(List.of("a", "c"), modified.names());
+        assertEquals(Json.value(3), modified.get("a"));
+        assertEquals(Json.value(4), modified.get("c"));
+        assertEquals(List.of("a", "b"), other.names());
+        assertEquals(Json.value(2), other.get("b"));
+    }
+
+    @Test
+    void testUnmodifiableViewSeesLaterChanges() {
+        JsonObject object = Json.parse(utf8("{\"a\":1}"), new JsonShapeCache()).asObject();
+        JsonObject view = JsonObject.unmodifiableObject(object);
+
+        object.add("b", 2);
+
+        assertEquals(List.of("a", "b"), view.names());
+        assertEquals(Json.value(2), view.get("b"));
+    }
+
+    @Test
+    void testFallsBackWhenFull() {
+        JsonShapeCache shapes = new JsonShapeCache(2);
+        StringBuilder large = new StringBuilder("{");
+        for (int i = 0; i <= JsonShapeCache.MAX_MEMBERS + 10; i++) {
+            large.append(i > 0 ? "," : "").append("\"key-").append(i).append("\":").append(i);
+        }
+
+        JsonObject object = Json.parse(utf8("{\"a\":1,\"b\":2,\"c\":3}"), shapes).asObject();
+        JsonObject big = Json.parse(utf8(large.append('}').toString()), new JsonShapeCache()).asObject();
+
+        assertEquals(2, shapes.size());
+        assertNull(object.shape());
+        assertEquals(Json.value(3), object.get("c"));
+        assertNull(big.shape());
+        assertEquals(Json.value(JsonShapeCache.MAX_MEMBERS + 10), big.get("key-" + (JsonShapeCache.MAX_MEMBERS + 10)));
+    }
+
+    @Test
+    void testSharedObjectSerializesAsRegularObject() throws Exception {
+        JsonObject object = Json.parse(utf8(VaultResponses.LOGIN), new JsonShapeCache()).asObject();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        JsonObject deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = (JsonObject) in.readObject();
+        }
+        deserialized.add("extra", true);
+
+        assertEquals(Json.TRUE, deserialized.get("extra"));
+        deserialized.remove("extra");
+        assertEquals(object, deserialized);
+    }
+
+    private static byte[] utf8(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
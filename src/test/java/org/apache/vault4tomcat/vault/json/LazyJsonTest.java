@@ -0,0 +1,86 @@
+package org.apache.vault4tomcat.vault.json;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyJsonTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{}", "\"\"", "-12.5e+3", "0", "\"caf\u00e9 \ud83d\udd11\"",
+            "\"tab\\tquote\\\"slash\\/back\\\\\\u00e9\\ud83d\\udd11 \u00fcber\\n\"",
+            "[1,\"a\",{\"b\":[null,true,2.5,\"\\u0041\"]}]",
+            VaultResponses.KV_READ, VaultResponses.LOGIN
+    })
+    void testMatchesEagerTree(String json) {
+        byte[] utf8 = json.getBytes(StandardCharsets.UTF_8);
+        JsonValue eager = Json.parse(utf8);
+
+        JsonValue lazy = Json.parseLazy(utf8);
+
+        assertEquals(eager, lazy);
+        assertEquals(lazy, eager);
+        assertEquals(eager.hashCode(), Json.parseLazy(utf8).hashCode());
+        assertEquals(eager.toString(), lazy.toString());
+        assertEquals(eager, Json.parseLazy(utf8, new JsonShapeCache()));
+    }
+
+    @Test
+    void testValuesAreDecodedOnceOnAccess() {
+        JsonObject object = Json.parseLazy("{\"s\":\"d\\u00e9j\\u00e0\",\"n\":42}".getBytes(StandardCharsets.UTF_8))
+                .asObject();
+
+        String first = object.get("s").asString();
+
+        assertEquals("d\u00e9j\u00e0", first);
+        assertSame(first, object.get("s").asString());
+        assertEquals(42, object.get("n").asInt());
+        assertSame(object.get("n").toString(), object.get("n").toString());
+    }
+
+    @Test
+    void testLazyAndEagerValuesMixInCollections() {
+        Set<JsonValue> values = new HashSet<>();
+        values.add(Json.value("a"));
+        values.add(Json.parse("1"));
+
+        assertTrue(values.contains(Json.parseLazy("\"a\"".getBytes(StandardCharsets.UTF_8))));
+        assertTrue(values.contains(Json.parseLazy("1".getBytes(StandardCharsets.UTF_8))));
+        assertNotEquals(Json.parseLazy("\"1\"".getBytes(StandardCharsets.UTF_8)), Json.parse("1"));
+    }
+
+    @Test
+    void testMalformedInputFailsUpFront() {
+        for (String json : new String[]{"[\"a\\x\"]", "[\"abc", "[1.]", "{\"a\":\"\u0001\"}"}) {
+            assertThrows(ParseException.class, () -> Json.parseLazy(json.getBytes(StandardCharsets.UTF_8)), json);
+        }
+    }
+
+    @Test
+    void testSerializesAsEagerTree() throws Exception {
+        JsonValue lazy = Json.parseLazy(VaultResponses.KV_READ.getBytes(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(lazy);
+        }
+        JsonValue deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = (JsonValue) in.readObject();
+        }
+
+        assertEquals(Json.parse(VaultResponses.KV_READ), deserialized);
+        assertEquals(JsonString.class, deserialized.asObject().get("request_id").getClass());
+    }
+}
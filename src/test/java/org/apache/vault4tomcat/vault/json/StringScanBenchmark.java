@@ -0,0 +1,53 @@
+package org.apache.vault4tomcat.vault.json;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading a secret holding a large base64 blob, e.g. a keystore or a certificate chain, where
+ * nearly all the parse time goes into scanning the string for its closing quote. Measures parsing
+ * the whole document, and skipping the blob with a JsonReader.
+ * <p>
+ * Not a unit test. Run with:
+ * <pre>
+ * mvn test-compile exec:exec -Pbenchmark -Dbenchmark=StringScanBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StringScanBenchmark {
+
+    @Param({"1024", "65536", "4194304"})
+    public int size;
+
+    private byte[] document;
+
+    @Setup
+    public void setUp() {
+        byte[] blob = new byte[size * 3 / 4];
+        new Random(42).nextBytes(blob);
+        String keystore = Base64.getEncoder().encodeToString(blob);
+        document = ("{\"data\":{\"data\":{\"keystore\":\"" + keystore + "\",\"password\":\"changeit\"}}}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public JsonValue parse() {
+        return Json.parse(document);
+    }
+
+    @Benchmark
+    public JsonReader.Token skip() {
+        JsonReader reader = new JsonReader(document);
+        reader.skipValue();
+        return reader.peek();
+    }
+}
@@ -0,0 +1,128 @@
+package org.apache.vault4tomcat.vault.json;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Utf8JsonParserTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{}", "[]", "null", " true ", "false", "0", "-12.5e+3", "1E-2", "\"\"",
+            "{\"a\":[1,2,{\"b\":null}],\"c\":\"d\"}",
+            "\"caf\u00e9 \u65e5\u672c \ud83d\udd11\"",
+            "\"tab\\tquote\\\"slash\\/back\\\\\\u00e9\\ud83d\\udd11 \u00fcber\\n\"",
+            "{\"\u00e9\":\"\\u0041\u00e9\\n\"}",
+            "\"\u00e9\\n\"", "\"\ud83d\udd11\\\"x\"", "{\"caf\u00e9\\t\":\"caf\u00e9\\u2028\"}"
+    })
+    void testSameTreeAsStringParser(String json) {
+        JsonValue expected = Json.parse(json);
+        byte[] utf8 = json.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(expected, Json.parse(utf8));
+        assertEquals(expected.toString(), Json.parse(utf8).toString());
+    }
+
+    @Test
+    void testVaultResponses() {
+        for (String json : new String[]{VaultResponses.KV_READ, VaultResponses.LOGIN}) {
+            assertEquals(Json.parse(json), Json.parse(json.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    void testMemberNamesAreInterned() {
+        byte[] utf8 = VaultResponses.KV_READ.getBytes(StandardCharsets.UTF_8);
+        String longName = "n".repeat(Utf8JsonParser.MAX_CACHED_NAME_LENGTH + 1);
+        byte[] other = ("{\"lease_id\":1,\"d\\u00e9j\\u00e0\":2,\"" + longName + "\":3}").getBytes(StandardCharsets.UTF_8);
+
+        JsonObject first = Json.parse(utf8).asObject();
+        JsonObject second = Json.parse(utf8).asObject();
+        JsonObject third = Json.parse(other).asObject();
+
+        for (int i = 0; i < first.size(); i++) {
+            assertSame(first.names().get(i), second.names().get(i));
+        }
+        assertSame(first.names().get(1), third.names().get(0));
+        assertEquals(List.of("lease_id", "d\u00e9j\u00e0", longName), third.names());
+    }
+
+    @Test
+    void testRangesAndBuffers() {
+        byte[] padded = "xx{\"a\":\"b\"}yy".getBytes(StandardCharsets.UTF_8);
+        JsonValue expected = Json.parse("{\"a\":\"b\"}");
+
+        assertEquals(expected, Json.parse(padded, 2, 9));
+        ByteBuffer heap = ByteBuffer.wrap(padded, 2, 9);
+        assertEquals(expected, Json.parse(heap));
+        assertEquals(2, heap.position());
+        ByteBuffer direct = ByteBuffer.allocateDirect(padded.length).put(padded).position(2).limit(11);
+        assertEquals(expected, Json.parse(direct));
+        assertEquals(2, direct.position());
+        assertThrows(IndexOutOfBoundsException.class, () -> Json.parse(padded, 10, 9));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "", "{", "[1,", "{\"a\" 1}", "{\"a\":1,}", "nul", "tru", "-", "1.", "1e", "\"abc",
+            "\"a\\x\"", "\"\\u12g4\"", "\"a\nb\"", "{}x", "{\n  \"a\": [\n    1,\n    ]\n}"
+    })
+    void testSameErrorsAsStringParser(String json) {
+        ParseException expected = assertThrows(ParseException.class, () -> Json.parse(json));
+        ParseException actual = assertThrows(ParseException.class,
+                () -> Json.parse(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(expected.getMessage(), actual.getMessage());
+        assertEquals(expected.getOffset(), actual.getOffset());
+        assertEquals(expected.getLine(), actual.getLine());
+        assertEquals(expected.getColumn(), actual.getColumn());
+    }
+
+    @Test
+    void testNonAsciiBeforeFirstEscape() {
+        byte[] utf8 = "{\"password\":\"caf\u00e9\\n\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("caf\u00e9\n", Json.parse(utf8).asObject().getString("password", null));
+        assertEquals("caf\u00e9\n", Json.parseLazy(utf8).asObject().getString("password", null));
+        JsonReader reader = new JsonReader(utf8);
+        reader.beginObject();
+        assertEquals("password", reader.nextName());
+        assertEquals("caf\u00e9\n", reader.nextString());
+    }
+
+    @Test
+    void testSpecialBytesAtEveryPosition() {
+        // Covers every position of the quote, escapes, control characters and multi-byte characters
+        // within the eight-byte words the strings are scanned in, and the bytes after the last word
+        for (int length = 0; length < 40; length++) {
+            for (String special : new String[]{"\\n", "\\\"", "\u00e9", "\ud83d\udd11",
+                    "\u00e9\\n", "\ud83d\udd11\\\"", "\\n\u00e9", "\u00e9xyz\\u2028"}) {
+                for (int position = 0; position <= length; position++) {
+                    String content = "x".repeat(position) + special + "y".repeat(length - position);
+                    String json = "[\"" + content + "\",\"" + content + "\"]";
+                    byte[] utf8 = json.getBytes(StandardCharsets.UTF_8);
+
+                    assertEquals(Json.parse(json), Json.parse(utf8), json);
+                    assertEquals(Json.parse(json), Json.parseLazy(utf8), json);
+                    JsonReader reader = new JsonReader(utf8);
+                    reader.skipValue();
+                    assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+                }
+            }
+            String unterminated = "\"" + "z".repeat(length);
+            ParseException expected = assertThrows(ParseException.class, () -> Json.parse(unterminated));
+            ParseException actual = assertThrows(ParseException.class,
+                    () -> Json.parse(unterminated.getBytes(StandardCharsets.UTF_8)));
+            assertEquals(expected.getOffset(), actual.getOffset());
+            String control = "\"" + "z".repeat(length) + "\u0001\"";
+            assertEquals(length + 1, assertThrows(ParseException.class,
+                    () -> Json.parse(control.getBytes(StandardCharsets.UTF_8))).getOffset());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.apache.vault4tomcat.vault.json;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Utf8JsonWriterTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "", "plain", "quote\"back\\slash", "tab\tnew\nline\rcontrol\u0001\u001f",
+            "café 日本 🔑", "line para ", "߿ࠀ￿"
+    })
+    void testStringsAreEscapedLikeToString(String value) {
+        byte[] written = new Utf8JsonWriter().value(value).toByteArray();
+
+        assertEquals(Json.value(value).toString(), new String(written, StandardCharsets.UTF_8));
+        assertEquals(value, Json.parse(written).asString());
+    }
+
+    @Test
+    void testUnpairedSurrogateIsReplaced() {
+        byte[] written = new Utf8JsonWriter().value("a\ud83db\udd11").toByteArray();
+
+        assertArrayEquals("\"a?b?\"".getBytes(StandardCharsets.UTF_8), written);
+    }
+
+    @Test
+    void testSeparatorsAreWritten() {
+        Utf8JsonWriter writer = new Utf8JsonWriter(16)
+                .beginObject()
+                .name("role").value("rôle")
+                .name("ttl").value(3600)
+                .name("renewable").value(true)
+                .name("missing").value((String) null)
+                .name("policies").beginArray().value("a").value("b").endArray()
+                .name("nested").beginObject().name("empty").beginObject().endObject().endObject()
+                .name("tree").value(Json.parse("{\"x\":[1,{\"y\":null}]}"))
+                .endObject();
+
+        assertEquals("{\"role\":\"rôle\",\"ttl\":3600,\"renewable\":true,\"missing\":null,"
+                        + "\"policies\":[\"a\",\"b\"],\"nested\":{\"empty\":{}},\"tree\":{\"x\":[1,{\"y\":null}]}}",
+                new String(writer.buffer(), 0, writer.size(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testTreeIsWrittenLikeToString() {
+        JsonValue response = Json.parse(VaultResponses.KV_READ);
+
+        byte[] written = new Utf8JsonWriter().value(response).toByteArray();
+
+        assertEquals(response.toString(), new String(written, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testResetReusesBuffer() {
+        Utf8JsonWriter writer = new Utf8JsonWriter();
+        writer.beginObject().name("role_id").value("first").endObject();
+        byte[] buffer = writer.buffer();
+
+        writer.reset().beginObject().name("jwt").value("second").endObject();
+
+        assertSame(buffer, writer.buffer());
+        assertEquals("{\"jwt\":\"second\"}", new String(writer.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
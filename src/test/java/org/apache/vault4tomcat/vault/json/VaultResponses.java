@@ -0,0 +1,83 @@
+package org.apache.vault4tomcat.vault.json;
+
+/**
+ * Vault responses as returned by a real server, shared by the json tests and benchmarks.
+ */
+final class VaultResponses {
+
+    /**
+     * GET secret/data/app/db of a KV v2 engine.
+     */
+    static final String KV_READ = """
+            {
+              "request_id": "1b7b8bd3-3c3a-f0a4-4d4e-0b6c8a1e2f55",
+              "lease_id": "",
+              "renewable": false,
+              "lease_duration": 0,
+              "data": {
+                "data": {
+                  "username": "app_user",
+                  "password": "Zm9vYmFyYmF6cXV4MTIzNDU2Nzg5MA==",
+                  "host": "db.internal.example.com",
+                  "port": "5432",
+                  "options": "sslmode=verify-full&application_name=payments"
+                },
+                "metadata": {
+                  "created_time": "2024-05-14T09:12:55.918374622Z",
+                  "custom_metadata": {
+                    "owner": "payments-team",
+                    "rotation": "30d"
+                  },
+                  "deletion_time": "",
+                  "destroyed": false,
+                  "version": 7
+                }
+              },
+              "wrap_info": null,
+              "warnings": null,
+              "auth": null,
+              "mount_type": "kv"
+            }
+            """;
+
+    /**
+     * POST auth/approle/login.
+     */
+    static final String LOGIN = """
+            {
+              "request_id": "c3f1f2e4-8d1b-2a9c-5e7f-93ad0c4b6e21",
+              "lease_id": "",
+              "renewable": false,
+              "lease_duration": 0,
+              "data": null,
+              "wrap_info": null,
+              "warnings": null,
+              "auth": {
+                "client_token": "hvs.CAESIJ3kX0Yf7zq9V8m2bLwT1sQe5RrN6uH4pAa8dGcFjKyOGh4KHGh2cy5kV3pNbE9xUnRZa0hHT2p1d1p0ZkJ6UFg",
+                "accessor": "0e9e354a-520f-df04-6867-ee81cae3d42d",
+                "policies": [
+                  "default",
+                  "payments-read"
+                ],
+                "token_policies": [
+                  "default",
+                  "payments-read"
+                ],
+                "metadata": {
+                  "role_name": "payments"
+                },
+                "lease_duration": 2764800,
+                "renewable": true,
+                "entity_id": "4d2e1c7a-9b3f-8e6d-2a1c-5f4e3d2c1b0a",
+                "token_type": "service",
+                "orphan": true,
+                "mfa_requirement": null,
+                "num_uses": 0
+              },
+              "mount_type": ""
+            }
+            """;
+
+    private VaultResponses() {
+    }
+}
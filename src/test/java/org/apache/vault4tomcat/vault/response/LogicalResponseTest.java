@@ -111,4 +111,51 @@ public class LogicalResponseTest {
         assertEquals("ok", data.get("valid"));
         assertNull(data.get("nullValue"));
     }
+
+    @Test
+    void testVersionIsReadFromMetadata() {
+        String json = """
+            {
+              "data": {
+                "data": {
+                  "password": "secret123"
+                },
+                "metadata": {
+                  "created_time": "2023-01-01T00:00:00Z",
+                  "version": 4
+                }
+              }
+            }
+        """;
+
+        RestResponse mockResponse = mock(RestResponse.class);
+        when(mockResponse.body()).thenReturn(json.getBytes(StandardCharsets.UTF_8));
+
+        LogicalResponse response = new LogicalResponse(mockResponse, "readV2");
+        assertEquals(4, response.getVersion());
+        assertEquals("2023-01-01T00:00:00Z", response.getMetadata().get("created_time"));
+    }
+
+    @Test
+    void testParseMetadataResponse() {
+        String json = """
+            {
+              "data": {
+                "current_version": 7,
+                "oldest_version": 1,
+                "versions": {
+                  "7": { "created_time": "2023-01-07T00:00:00Z", "destroyed": false }
+                }
+              }
+            }
+        """;
+
+        RestResponse mockResponse = mock(RestResponse.class);
+        when(mockResponse.body()).thenReturn(json.getBytes(StandardCharsets.UTF_8));
+
+        LogicalResponse response = new LogicalResponse(mockResponse, "readMetadata");
+        assertEquals(7, response.getVersion());
+        assertEquals(Map.of(7, "2023-01-07T00:00:00Z"), response.getVersionCreatedTimes());
+        assertTrue(response.getData().isEmpty());
+    }
 }